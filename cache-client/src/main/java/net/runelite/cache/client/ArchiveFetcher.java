@@ -0,0 +1,283 @@
+/*
+ * Copyright (c) 2019, liam909 <https://github.com/liam909>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.client;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import net.runelite.cache.fs.Archive;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Requests archives over a single connection until there is nothing left
+ * to download. Archives are taken from a queue shared with the other
+ * connections. An archive which fails is retried on this connection,
+ * reconnecting first if the connection was lost. If the connection can't
+ * be reestablished its archives are put back on the shared queue.
+ */
+class ArchiveFetcher implements Runnable
+{
+	private static final Logger logger = LoggerFactory.getLogger(ArchiveFetcher.class);
+
+	/**
+	 * Archives which may be requested or downloaded but not yet stored.
+	 * When storage falls behind, requests stop being sent until it
+	 * catches up.
+	 */
+	static final int MAX_PENDING_ARCHIVES = CacheClient.MAX_REQUESTS * 2;
+
+	/**
+	 * Attempts at downloading an archive, or at reconnecting, before
+	 * giving up.
+	 */
+	private static final int MAX_ATTEMPTS = 3;
+
+	private final CacheClient client;
+	private final Queue<Archive> work;
+	private final AtomicInteger remaining;
+	private final Executor storageExecutor;
+
+	private final Semaphore pending = new Semaphore(MAX_PENDING_ARCHIVES);
+	private final BlockingQueue<Archive> retries = new LinkedBlockingQueue<>();
+	private final Map<Integer, Integer> attempts = new ConcurrentHashMap<>();
+
+	private final AtomicInteger archives = new AtomicInteger();
+	private final AtomicInteger failed = new AtomicInteger();
+	private final AtomicLong bytes = new AtomicLong();
+
+	/**
+	 * @param client connection to request archives over
+	 * @param work archives not yet taken by any connection
+	 * @param remaining archives not yet stored or given up on, across all
+	 * connections
+	 * @param storageExecutor executor to check and store archives on
+	 */
+	ArchiveFetcher(CacheClient client, Queue<Archive> work, AtomicInteger remaining, Executor storageExecutor)
+	{
+		this.client = client;
+		this.work = work;
+		this.remaining = remaining;
+		this.storageExecutor = storageExecutor;
+	}
+
+	@Override
+	public void run()
+	{
+		try
+		{
+			fetch();
+		}
+		catch (Exception ex)
+		{
+			logger.warn("Giving up on connection, returning its archives to the other connections", ex);
+
+			// requests already sent fail along with the connection, and
+			// are queued for retry
+			pending.acquireUninterruptibly(MAX_PENDING_ARCHIVES);
+			retries.drainTo(work);
+		}
+	}
+
+	private void fetch() throws IOException, InterruptedException
+	{
+		while (remaining.get() > 0)
+		{
+			Archive archive = retries.poll();
+			if (archive == null)
+			{
+				archive = work.poll();
+			}
+
+			if (archive == null)
+			{
+				// everything is either requested or being requested by another
+				// connection, but may still fail and need requesting again
+				client.flush();
+				archive = retries.poll(100, TimeUnit.MILLISECONDS);
+				if (archive == null)
+				{
+					continue;
+				}
+			}
+
+			if (!pending.tryAcquire())
+			{
+				// let the requests already written go out while waiting
+				client.flush();
+				pending.acquireUninterruptibly();
+			}
+
+			try
+			{
+				connect();
+			}
+			catch (IOException ex)
+			{
+				pending.release();
+				work.add(archive);
+				throw ex;
+			}
+
+			request(archive);
+		}
+
+		client.flush();
+
+		// wait for the downloaded archives to be stored
+		pending.acquireUninterruptibly(MAX_PENDING_ARCHIVES);
+	}
+
+	private void connect() throws IOException
+	{
+		for (int attempt = 1; client.getState() != ClientState.CONNECTED; ++attempt)
+		{
+			try
+			{
+				client.reconnect();
+			}
+			catch (Exception ex)
+			{
+				if (attempt >= MAX_ATTEMPTS)
+				{
+					throw new IOException("Unable to reconnect to the server", ex);
+				}
+
+				logger.warn("Reconnect attempt {} failed", attempt, ex);
+			}
+		}
+	}
+
+	private void request(Archive archive)
+	{
+		CompletableFuture<FileResult> future;
+		try
+		{
+			future = client.requestFile(archive.getIndex().getId(), archive.getArchiveId(), false);
+		}
+		catch (IllegalStateException ex)
+		{
+			// the connection was lost since checking it
+			future = new CompletableFuture<>();
+			future.completeExceptionally(ex);
+		}
+
+		future.whenCompleteAsync((fr, ex) ->
+		{
+			try
+			{
+				if (fr != null)
+				{
+					complete(archive, fr.getCompressedData());
+				}
+				else
+				{
+					logger.debug("Request for archive {}/{} failed", archive.getIndex().getId(), archive.getArchiveId(), ex);
+					retry(archive);
+				}
+			}
+			finally
+			{
+				pending.release();
+			}
+		}, storageExecutor);
+	}
+
+	private void complete(Archive archive, byte[] data)
+	{
+		boolean stored;
+		try
+		{
+			stored = client.store(archive, data);
+		}
+		catch (IOException ex)
+		{
+			logger.warn("unable to save archive data", ex);
+			giveUp(archive);
+			return;
+		}
+
+		if (!stored)
+		{
+			retry(archive);
+			return;
+		}
+
+		attempts.remove(key(archive));
+		archives.incrementAndGet();
+		bytes.addAndGet(data.length);
+		remaining.decrementAndGet();
+	}
+
+	private void retry(Archive archive)
+	{
+		int attempt = attempts.merge(key(archive), 1, Integer::sum);
+		if (attempt >= MAX_ATTEMPTS)
+		{
+			logger.warn("Unable to download archive {}/{} after {} attempts",
+				archive.getIndex().getId(), archive.getArchiveId(), attempt);
+			giveUp(archive);
+			return;
+		}
+
+		retries.add(archive);
+	}
+
+	private void giveUp(Archive archive)
+	{
+		attempts.remove(key(archive));
+		failed.incrementAndGet();
+		remaining.decrementAndGet();
+	}
+
+	private static int key(Archive archive)
+	{
+		return archive.getIndex().getId() << 16 | archive.getArchiveId();
+	}
+
+	int getArchives()
+	{
+		return archives.get();
+	}
+
+	int getFailed()
+	{
+		return failed.get();
+	}
+
+	long getBytes()
+	{
+		return bytes.get();
+	}
+}
@@ -24,7 +24,9 @@
  */
 package net.runelite.cache.client;
 
+import com.google.common.base.Preconditions;
 import com.google.common.base.Stopwatch;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
@@ -38,11 +40,20 @@ import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioSocketChannel;
 import java.io.IOException;
-import java.util.ArrayDeque;
+import java.io.InterruptedIOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import net.runelite.cache.fs.Archive;
 import net.runelite.cache.fs.Index;
 import net.runelite.cache.fs.Storage;
@@ -67,20 +78,26 @@ public class CacheClient implements AutoCloseable
 	private static final String HOST = "oldschool1.runescape.com";
 	private static final int PORT = 43594;
 
-	private static final int MAX_REQUESTS = 19; // too many and the server closes the conncetion
+	static final int MAX_REQUESTS = 19; // too many and the server closes the conncetion
+
+	private static final int STORAGE_THREADS = 4;
+
+	private static final double MB = 1024 * 1024;
 
 	private final Store store; // store cache will be written to
 	private final String host;
+	private final int port;
 	private final int clientRevision;
 	private DownloadWatcher watcher;
 
-	private ClientState state;
+	private volatile ClientState state;
 
 	private final EventLoopGroup group = new NioEventLoopGroup(1);
-	private Channel channel;
+	private volatile Channel channel;
 
 	private CompletableFuture<HandshakeResponseType> handshakeFuture;
-	private final Queue<PendingFileRequest> requests = new ArrayDeque<>();
+	private final Map<Integer, PendingFileRequest> requests = new HashMap<>();
+	private final Object storageLock;
 
 	public CacheClient(Store store, int clientRevision)
 	{
@@ -88,10 +105,17 @@ public class CacheClient implements AutoCloseable
 	}
 
 	public CacheClient(Store store, String host, int clientRevision)
+	{
+		this(store, host, PORT, clientRevision);
+	}
+
+	public CacheClient(Store store, String host, int port, int clientRevision)
 	{
 		this.store = store;
 		this.host = host;
+		this.port = port;
 		this.clientRevision = clientRevision;
+		this.storageLock = new Object();
 	}
 
 	public CacheClient(Store store, int clientRevision, DownloadWatcher watcher)
@@ -100,6 +124,20 @@ public class CacheClient implements AutoCloseable
 		this.watcher = watcher;
 	}
 
+	/**
+	 * Another connection to the same server, storing into the same store
+	 * as {@code client}
+	 */
+	private CacheClient(CacheClient client)
+	{
+		this.store = client.store;
+		this.host = client.host;
+		this.port = client.port;
+		this.clientRevision = client.clientRevision;
+		this.watcher = client.watcher;
+		this.storageLock = client.storageLock;
+	}
+
 	public void connect()
 	{
 		Bootstrap b = new Bootstrap();
@@ -117,7 +155,7 @@ public class CacheClient implements AutoCloseable
 					p.addLast("decoder", new HandshakeResponseDecoder());
 
 					p.addLast(
-						new CacheClientHandler(),
+						new CacheClientHandler(CacheClient.this),
 						new HandshakeResponseHandler(CacheClient.this),
 						new ArchiveResponseHandler(CacheClient.this)
 					);
@@ -131,7 +169,7 @@ public class CacheClient implements AutoCloseable
 			});
 
 		// Start the client.
-		ChannelFuture f = b.connect(host, PORT).syncUninterruptibly();
+		ChannelFuture f = b.connect(host, port).syncUninterruptibly();
 		channel = f.channel();
 	}
 
@@ -152,6 +190,60 @@ public class CacheClient implements AutoCloseable
 		return handshakeFuture;
 	}
 
+	/**
+	 * Replace the connection to the server with a new one, and handshake
+	 * with it
+	 *
+	 * @throws IOException if the server does not accept the handshake
+	 */
+	void reconnect() throws IOException
+	{
+		logger.info("Reconnecting to {}:{}", host, port);
+
+		if (channel != null)
+		{
+			channel.close().syncUninterruptibly();
+		}
+
+		handshakeFuture = null;
+		connect();
+
+		HandshakeResponseType response = handshake().join();
+		if (response != HandshakeResponseType.RESPONSE_OK)
+		{
+			throw new IOException("Unable to reconnect: " + response);
+		}
+	}
+
+	/**
+	 * Called when a connection has closed. Anything still waiting on the
+	 * connection is failed, so it can be requested again over a new one.
+	 */
+	synchronized void connectionLost(Channel lost)
+	{
+		if (lost != channel)
+		{
+			// an old connection which has already been replaced
+			return;
+		}
+
+		state = ClientState.DISCONNECTED;
+
+		IOException ex = new IOException("Connection to the server was lost");
+		if (handshakeFuture != null)
+		{
+			handshakeFuture.completeExceptionally(ex);
+		}
+
+		for (PendingFileRequest pr : requests.values())
+		{
+			pr.getFuture().completeExceptionally(ex);
+		}
+		requests.clear();
+
+		notifyAll();
+	}
+
 	@Override
 	public void close()
 	{
@@ -200,10 +292,135 @@ public class CacheClient implements AutoCloseable
 		return indexInfo;
 	}
 
+	/**
+	 * Download every archive which is out of date in the store over this
+	 * connection.
+	 *
+	 * @throws IOException
+	 * @see #download(int)
+	 */
 	public void download() throws IOException
 	{
+		download(1);
+	}
+
+	/**
+	 * Download every archive which is out of date in the store, spreading
+	 * the requests over several connections to the server. Connections
+	 * take archives from a shared queue whenever they have room for more
+	 * requests, so the work is split by how quickly each connection gets
+	 * through it. Archives which fail, or fail their crc check, are
+	 * requested again, reconnecting first if the connection was lost.
+	 * Responses are checked and stored on a separate pool of threads, so
+	 * the connections are never waiting on storage.
+	 *
+	 * @param connections number of connections to use, including this one
+	 * @throws IOException
+	 */
+	public void download(int connections) throws IOException
+	{
+		Preconditions.checkArgument(connections > 0, "connections must be positive");
+
 		Stopwatch stopwatch = Stopwatch.createStarted();
 
+		Queue<Archive> work = new ConcurrentLinkedQueue<>(findOutOfDateArchives());
+		AtomicInteger remaining = new AtomicInteger(work.size());
+
+		ExecutorService storageExecutor = new ThreadPoolExecutor(STORAGE_THREADS, STORAGE_THREADS,
+			0L, TimeUnit.MILLISECONDS,
+			// never fills, as each queued archive holds a pending permit
+			new LinkedBlockingQueue<>(ArchiveFetcher.MAX_PENDING_ARCHIVES * connections),
+			new ThreadFactoryBuilder().setNameFormat("cache-client-storage-%d").setDaemon(true).build());
+		ExecutorService connectionExecutor = Executors.newFixedThreadPool(connections,
+			new ThreadFactoryBuilder().setNameFormat("cache-client-connection-%d").setDaemon(true).build());
+		List<CacheClient> clients = new ArrayList<>();
+		List<ArchiveFetcher> fetchers = new ArrayList<>();
+
+		try
+		{
+			fetchers.add(new ArchiveFetcher(this, work, remaining, storageExecutor));
+
+			for (int i = 1; i < connections; ++i)
+			{
+				CacheClient client = new CacheClient(this);
+				clients.add(client);
+
+				client.connect();
+				HandshakeResponseType response = client.handshake().join();
+				if (response != HandshakeResponseType.RESPONSE_OK)
+				{
+					throw new IOException("Unable to open connection " + i + ": " + response);
+				}
+
+				fetchers.add(new ArchiveFetcher(client, work, remaining, storageExecutor));
+			}
+
+			logger.info("Downloading {} archives over {} connections", remaining.get(), fetchers.size());
+
+			for (ArchiveFetcher fetcher : fetchers)
+			{
+				connectionExecutor.execute(fetcher);
+			}
+
+			connectionExecutor.shutdown();
+			while (!connectionExecutor.awaitTermination(1, TimeUnit.MINUTES))
+			{
+				logger.info("{} archives left to download", remaining.get());
+			}
+		}
+		catch (InterruptedException ex)
+		{
+			throw new InterruptedIOException("interrupted while downloading");
+		}
+		finally
+		{
+			connectionExecutor.shutdownNow();
+			storageExecutor.shutdown();
+
+			for (CacheClient client : clients)
+			{
+				client.close();
+			}
+		}
+
+		stopwatch.stop();
+
+		int archives = 0;
+		int failed = 0;
+		long bytes = 0;
+		for (ArchiveFetcher fetcher : fetchers)
+		{
+			archives += fetcher.getArchives();
+			failed += fetcher.getFailed();
+			bytes += fetcher.getBytes();
+		}
+
+		double seconds = stopwatch.elapsed(TimeUnit.MILLISECONDS) / 1000.0;
+		logger.info("Download completed in {}: {} archives ({}/s), {} MB ({} MB/s)",
+			stopwatch, archives, String.format("%.1f", archives / seconds),
+			String.format("%.1f", bytes / MB), String.format("%.1f", bytes / MB / seconds));
+
+		if (failed > 0)
+		{
+			logger.warn("{} archives failed to download", failed);
+		}
+
+		if (!work.isEmpty())
+		{
+			throw new IOException("Lost every connection to the server with " + work.size() + " archives left to download");
+		}
+	}
+
+	/**
+	 * Update the indexes in the store from the server
+	 *
+	 * @return the archives which are out of date in the store
+	 * @throws IOException
+	 */
+	private List<Archive> findOutOfDateArchives() throws IOException
+	{
+		List<Archive> outOfDate = new ArrayList<>();
+
 		List<IndexInfo> indexes = requestIndexes();
 		for (IndexInfo indexInfo : indexes)
 		{
@@ -303,7 +520,7 @@ public class CacheClient implements AutoCloseable
 						existing.getNameHash(), ad.getNameHash());
 				}
 
-				final Archive archive = existing == null
+				Archive archive = existing == null
 					? index.addArchive(ad.getId())
 					: existing;
 
@@ -314,68 +531,54 @@ public class CacheClient implements AutoCloseable
 				// Add files
 				archive.setFileData(ad.getFiles());
 
-				CompletableFuture<FileResult> future = requestFile(index.getId(), ad.getId(), false);
-				future.handle((fr, ex) ->
-				{
-					byte[] data = fr.getCompressedData();
-
-					Crc32 crc32 = new Crc32();
-					crc32.update(data, 0, data.length);
-					int hash = crc32.getHash();
-
-					if (hash != archive.getCrc())
-					{
-						logger.warn("crc mismatch on downloaded archive {}/{}: {} != {}",
-							archive.getIndex().getId(), archive.getArchiveId(),
-							hash, archive.getCrc());
-						throw new RuntimeException("crc mismatch");
-					}
-
-					if (watcher != null)
-					{
-						watcher.downloadComplete(archive, data);
-					}
-					else
-					{
-						try
-						{
-							Storage storage = store.getStorage();
-							storage.saveArchive(archive, data);
-						}
-						catch (IOException ex1)
-						{
-							logger.warn("unable to save archive data", ex1);
-						}
-					}
-					return null;
-				});
+				outOfDate.add(archive);
 			}
 		}
 
-		// flush any pending requests
-		channel.flush();
+		return outOfDate;
+	}
+
+	/**
+	 * Check and store a downloaded archive
+	 *
+	 * @return true if the archive was stored, false if its crc does not match
+	 * @throws IOException if the archive could not be saved
+	 */
+	boolean store(Archive archive, byte[] data) throws IOException
+	{
+		Crc32 crc32 = new Crc32();
+		crc32.update(data, 0, data.length);
+		int hash = crc32.getHash();
 
-		while (!requests.isEmpty())
+		if (hash != archive.getCrc())
 		{
-			// wait for pending requests
-			synchronized (this)
-			{
-				try
-				{
-					wait();
-				}
-				catch (InterruptedException ex)
-				{
-					logger.warn(null, ex);
-				}
-			}
+			logger.warn("crc mismatch on downloaded archive {}/{}: {} != {}",
+				archive.getIndex().getId(), archive.getArchiveId(),
+				hash, archive.getCrc());
+			return false;
 		}
 
-		stopwatch.stop();
-		logger.info("Download completed in {}", stopwatch);
+		if (watcher != null)
+		{
+			watcher.downloadComplete(archive, data);
+			return true;
+		}
+
+		// storage isn't thread safe, so only one archive is stored at a time
+		synchronized (storageLock)
+		{
+			Storage storage = store.getStorage();
+			storage.saveArchive(archive, data);
+		}
+		return true;
 	}
 
-	private synchronized CompletableFuture<FileResult> requestFile(int index, int fileId, boolean flush)
+	void flush()
+	{
+		channel.flush();
+	}
+
+	synchronized CompletableFuture<FileResult> requestFile(int index, int fileId, boolean flush)
 	{
 		if (state != ClientState.CONNECTED)
 		{
@@ -384,7 +587,7 @@ public class CacheClient implements AutoCloseable
 
 		if (!flush)
 		{
-			while (requests.size() >= MAX_REQUESTS)
+			while (state == ClientState.CONNECTED && requests.size() >= MAX_REQUESTS)
 			{
 				channel.flush();
 
@@ -397,6 +600,14 @@ public class CacheClient implements AutoCloseable
 					logger.warn("interrupted while waiting for requests", ex);
 				}
 			}
+
+			if (state != ClientState.CONNECTED)
+			{
+				// the connection was lost while waiting
+				CompletableFuture<FileResult> future = new CompletableFuture<>();
+				future.completeExceptionally(new IOException("Connection to the server was lost"));
+				return future;
+			}
 		}
 
 		ArchiveRequestPacket archiveRequest = new ArchiveRequestPacket();
@@ -410,7 +621,7 @@ public class CacheClient implements AutoCloseable
 
 		logger.trace("Sending request for {}/{}", index, fileId);
 
-		requests.add(pf);
+		requests.put(key(index, fileId), pf);
 
 		if (!flush)
 		{
@@ -424,21 +635,14 @@ public class CacheClient implements AutoCloseable
 		return future;
 	}
 
-	private PendingFileRequest findRequest(int index, int file)
+	private static int key(int index, int archive)
 	{
-		for (PendingFileRequest pr : requests)
-		{
-			if (pr.getIndex() == index && pr.getArchive() == file)
-			{
-				return pr;
-			}
-		}
-		return null;
+		return index << 16 | archive;
 	}
 
 	protected synchronized void onFileFinish(int index, int file, byte[] compressedData)
 	{
-		PendingFileRequest pr = findRequest(index, file);
+		PendingFileRequest pr = requests.remove(key(index, file));
 
 		if (pr == null)
 		{
@@ -446,8 +650,6 @@ public class CacheClient implements AutoCloseable
 			return;
 		}
 
-		requests.remove(pr);
-
 		notify();
 
 		FileResult result = new FileResult(index, file, compressedData);
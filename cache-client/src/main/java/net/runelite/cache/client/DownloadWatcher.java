@@ -29,5 +29,13 @@ import net.runelite.cache.fs.Archive;
 @FunctionalInterface
 public interface DownloadWatcher
 {
+	/**
+	 * Called with each archive once it has been downloaded and its crc
+	 * checked. This is called from the client's storage threads, for
+	 * several archives at once, so must be thread safe.
+	 *
+	 * @param archive archive which was downloaded
+	 * @param data compressed archive data
+	 */
 	void downloadComplete(Archive archive, byte[] data);
 }
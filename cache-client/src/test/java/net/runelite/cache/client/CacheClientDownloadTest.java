@@ -0,0 +1,270 @@
+/*
+ * Copyright (c) 2019, liam909 <https://github.com/liam909>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.client;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import net.runelite.cache.CacheProperties;
+import net.runelite.cache.StoreLocation;
+import net.runelite.cache.fs.Archive;
+import net.runelite.cache.fs.Container;
+import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.Storage;
+import net.runelite.cache.fs.Store;
+import net.runelite.cache.fs.flat.FlatStorage;
+import net.runelite.cache.fs.jagex.CompressionType;
+import net.runelite.cache.fs.jagex.DiskStorage;
+import net.runelite.cache.index.FileData;
+import net.runelite.cache.server.CacheServer;
+import net.runelite.cache.util.Crc32;
+import net.runelite.protocol.api.login.HandshakeResponseType;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.slf4j.impl.SimpleLogger;
+
+/**
+ * Downloads over several connections with {@link CacheClient}, using a
+ * {@link CacheServer} in place of the real update server.
+ */
+public class CacheClientDownloadTest
+{
+	private static final int CONNECTIONS = 4;
+
+	@Rule
+	public TemporaryFolder folder = StoreLocation.getTemporaryFolder();
+
+	@Before
+	public void before()
+	{
+		// the client logs every archive it downloads
+		System.setProperty(SimpleLogger.LOG_KEY_PREFIX + "net.runelite.cache.client", "warn");
+	}
+
+	@Test(timeout = 600_000)
+	@Ignore
+	public void testDownload() throws Exception
+	{
+		int revision = CacheProperties.getRsVersion();
+
+		try (Store store = new Store(new DiskStorage(StoreLocation.LOCATION, true));
+			Store downloaded = new Store(new FlatStorage(folder.newFolder())))
+		{
+			store.load();
+
+			try (CacheServer server = new CacheServer(store, revision))
+			{
+				server.start(0);
+				download(downloaded, server.getPort(), revision);
+			}
+
+			CacheServerLoadTest.verify(store, downloaded);
+		}
+	}
+
+	@Test(timeout = 60_000)
+	public void testRetry() throws Exception
+	{
+		Random random = new Random(42);
+		Set<Archive> corrupted = new HashSet<>();
+
+		// the first response for every archive fails its crc check
+		FlatStorage storage = new FlatStorage(folder.newFolder())
+		{
+			@Override
+			public byte[] loadArchive(Archive archive) throws IOException
+			{
+				byte[] data = super.loadArchive(archive);
+				synchronized (corrupted)
+				{
+					if (data != null && corrupted.add(archive))
+					{
+						data = data.clone();
+						data[data.length - 1] ^= 1;
+					}
+				}
+				return data;
+			}
+		};
+
+		try (Store store = new Store(storage);
+			Store downloaded = new Store(new FlatStorage(folder.newFolder())))
+		{
+			Index index = addArchives(store, random);
+
+			try (CacheServer server = new CacheServer(store, 1))
+			{
+				server.start(0);
+				download(downloaded, server.getPort(), 1);
+			}
+
+			verify(storage, index, downloaded);
+		}
+	}
+
+	@Test(timeout = 60_000)
+	public void testReconnect() throws Exception
+	{
+		Random random = new Random(42);
+		Set<Archive> dropped = new HashSet<>();
+
+		// the server closes the connection the first time either of these
+		// archives is requested, failing everything else in flight on it
+		FlatStorage storage = new FlatStorage(folder.newFolder())
+		{
+			@Override
+			public byte[] loadArchive(Archive archive) throws IOException
+			{
+				int id = archive.getArchiveId();
+				synchronized (dropped)
+				{
+					if ((id == 30 || id == 70) && dropped.add(archive))
+					{
+						return null;
+					}
+				}
+				return super.loadArchive(archive);
+			}
+		};
+
+		try (Store store = new Store(storage);
+			Store downloaded = new Store(new FlatStorage(folder.newFolder())))
+		{
+			Index index = addArchives(store, random);
+
+			try (CacheServer server = new CacheServer(store, 1))
+			{
+				server.start(0);
+				download(downloaded, server.getPort(), 1);
+			}
+
+			Assert.assertEquals(2, dropped.size());
+			verify(storage, index, downloaded);
+		}
+	}
+
+	@Test(timeout = 60_000)
+	public void testLostEveryConnection() throws Exception
+	{
+		Random random = new Random(42);
+		AtomicReference<CacheServer> serverRef = new AtomicReference<>();
+		AtomicInteger loads = new AtomicInteger();
+
+		// the server shuts down once the first archive is requested, so
+		// every connection is lost and can't be reestablished
+		FlatStorage storage = new FlatStorage(folder.newFolder())
+		{
+			@Override
+			public byte[] loadArchive(Archive archive) throws IOException
+			{
+				if (loads.getAndIncrement() == 0)
+				{
+					new Thread(serverRef.get()::close).start();
+				}
+				return null;
+			}
+		};
+
+		try (Store store = new Store(storage);
+			Store downloaded = new Store(new FlatStorage(folder.newFolder())))
+		{
+			addArchives(store, random);
+
+			try (CacheServer server = new CacheServer(store, 1))
+			{
+				serverRef.set(server);
+				server.start(0);
+				download(downloaded, server.getPort(), 1);
+				Assert.fail("download completed without a connection");
+			}
+			catch (IOException ex)
+			{
+				// expected
+			}
+
+			for (Archive archive : downloaded.findIndex(0).getArchives())
+			{
+				Assert.assertNull(downloaded.getStorage().loadArchive(archive));
+			}
+		}
+	}
+
+	/**
+	 * Add an index of 100 archives of random data, saved uncompressed
+	 */
+	private static Index addArchives(Store store, Random random) throws IOException
+	{
+		Index index = store.addIndex(0);
+		index.setRevision(7);
+		index.setCompression(CompressionType.NONE);
+
+		for (int i = 0; i < 100; ++i)
+		{
+			byte[] data = new byte[random.nextInt(2000) + 1];
+			random.nextBytes(data);
+
+			Container container = new Container(CompressionType.NONE, -1);
+			container.compress(data, null);
+
+			Crc32 crc = new Crc32();
+			crc.update(container.data, 0, container.data.length);
+
+			Archive archive = index.addArchive(i);
+			archive.setCrc(crc.getHash());
+			archive.setFileData(new FileData[]{new FileData()});
+			store.getStorage().saveArchive(archive, container.data);
+		}
+
+		return index;
+	}
+
+	private static void verify(Storage storage, Index index, Store downloaded) throws IOException
+	{
+		Index downloadedIndex = downloaded.findIndex(0);
+		Assert.assertEquals(index.getArchives().size(), downloadedIndex.getArchives().size());
+		for (Archive archive : index.getArchives())
+		{
+			Archive downloadedArchive = downloadedIndex.getArchive(archive.getArchiveId());
+			Assert.assertArrayEquals(storage.loadArchive(archive), downloaded.getStorage().loadArchive(downloadedArchive));
+		}
+	}
+
+	private static void download(Store store, int port, int revision) throws Exception
+	{
+		try (CacheClient client = new CacheClient(store, "localhost", port, revision))
+		{
+			client.connect();
+			Assert.assertEquals(HandshakeResponseType.RESPONSE_OK, client.handshake().get());
+			client.download(CONNECTIONS);
+		}
+	}
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2019, liam909 <https://github.com/liam909>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.client;
+
+import com.google.common.base.Stopwatch;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import net.runelite.cache.fs.Archive;
+import net.runelite.cache.fs.Container;
+import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.Store;
+import net.runelite.cache.fs.flat.FlatStorage;
+import net.runelite.cache.fs.jagex.CompressionType;
+import net.runelite.cache.index.FileData;
+import net.runelite.cache.server.CacheServer;
+import net.runelite.cache.util.Crc32;
+import net.runelite.protocol.api.login.HandshakeResponseType;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.impl.SimpleLogger;
+
+/**
+ * Has a number of {@link CacheClient}s download a generated cache from a
+ * {@link CacheServer} at once, and checks every archive they got.
+ */
+public class CacheServerLoadTest
+{
+	private static final Logger logger = LoggerFactory.getLogger(CacheServerLoadTest.class);
+
+	private static final int CLIENTS = 8;
+	private static final int INDEXES = 4;
+	private static final int ARCHIVES = 250;
+	private static final int REVISION = 1;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Before
+	public void before()
+	{
+		// the client logs every archive it downloads
+		System.setProperty(SimpleLogger.LOG_KEY_PREFIX + "net.runelite.cache.client", "warn");
+	}
+
+	@Test(timeout = 120_000)
+	public void testLoad() throws Exception
+	{
+		try (Store store = new Store(new FlatStorage(folder.newFolder())))
+		{
+			createCache(store, new Random(42));
+
+			try (CacheServer server = new CacheServer(store, REVISION))
+			{
+				server.start(0);
+
+				ExecutorService executor = Executors.newFixedThreadPool(CLIENTS);
+				List<Future<Store>> downloads = new ArrayList<>();
+
+				Stopwatch stopwatch = Stopwatch.createStarted();
+				for (int i = 0; i < CLIENTS; ++i)
+				{
+					File directory = folder.newFolder();
+					downloads.add(executor.submit(() -> download(directory, server.getPort(), REVISION)));
+				}
+
+				List<Store> stores = new ArrayList<>();
+				for (Future<Store> download : downloads)
+				{
+					stores.add(download.get());
+				}
+				stopwatch.stop();
+				executor.shutdown();
+
+				long bytes = 0;
+				for (Store downloaded : stores)
+				{
+					bytes += verify(store, downloaded);
+					downloaded.close();
+				}
+
+				double seconds = stopwatch.elapsed(TimeUnit.MILLISECONDS) / 1000.0;
+				logger.info("{} clients downloaded {} bytes in {} ({} MB/s)",
+					CLIENTS, bytes, stopwatch, String.format("%.1f", bytes / seconds / (1024 * 1024)));
+			}
+		}
+	}
+
+	/**
+	 * Fill the store with indexes of random archives, alternating
+	 * between uncompressed and gzipped ones
+	 */
+	private static void createCache(Store store, Random random) throws IOException
+	{
+		for (int i = 0; i < INDEXES; ++i)
+		{
+			Index index = store.addIndex(i);
+			index.setRevision(random.nextInt(100));
+			index.setCompression(CompressionType.NONE);
+
+			for (int j = 0; j < ARCHIVES; ++j)
+			{
+				// random data doesn't compress, so keep some runs of zeros
+				byte[] data = new byte[random.nextInt(20_000) + 1];
+				for (int k = 0; k < data.length; k += 64)
+				{
+					if (random.nextBoolean())
+					{
+						byte[] chunk = new byte[Math.min(64, data.length - k)];
+						random.nextBytes(chunk);
+						System.arraycopy(chunk, 0, data, k, chunk.length);
+					}
+				}
+
+				Container container = new Container(j % 2 == 0 ? CompressionType.NONE : CompressionType.GZ, -1);
+				container.compress(data, null);
+
+				Crc32 crc = new Crc32();
+				crc.update(container.data, 0, container.data.length);
+
+				Archive archive = index.addArchive(j);
+				archive.setCrc(crc.getHash());
+				archive.setFileData(new FileData[]{new FileData()});
+				store.getStorage().saveArchive(archive, container.data);
+			}
+		}
+	}
+
+	private static Store download(File directory, int port, int revision) throws Exception
+	{
+		Store store = new Store(new FlatStorage(directory));
+
+		CacheClient client = new CacheClient(store, "localhost", port, revision);
+		client.connect();
+		Assert.assertEquals(HandshakeResponseType.RESPONSE_OK, client.handshake().get());
+		client.download();
+		client.close();
+
+		return store;
+	}
+
+	static long verify(Store expected, Store actual) throws IOException
+	{
+		long bytes = 0;
+
+		Assert.assertEquals(expected.getIndexes().size(), actual.getIndexes().size());
+		for (Index index : expected.getIndexes())
+		{
+			Index downloadedIndex = actual.findIndex(index.getId());
+			Assert.assertEquals(index.getRevision(), downloadedIndex.getRevision());
+			Assert.assertEquals(index.getArchives().size(), downloadedIndex.getArchives().size());
+
+			for (Archive archive : index.getArchives())
+			{
+				Archive downloaded = downloadedIndex.getArchive(archive.getArchiveId());
+				byte[] data = actual.getStorage().loadArchive(downloaded);
+				Assert.assertNotNull(data);
+
+				// the stored archive may have its revision appended
+				ByteBuffer stored = ByteBuffer.wrap(expected.getStorage().loadArchive(archive));
+				stored.limit(containerLength(stored));
+				Assert.assertEquals(stored, ByteBuffer.wrap(data));
+
+				bytes += data.length;
+			}
+		}
+
+		return bytes;
+	}
+
+	/**
+	 * Length of the container at the start of the buffer, without any
+	 * trailing revision
+	 */
+	private static int containerLength(ByteBuffer buf)
+	{
+		int compression = buf.get(0) & 0xff;
+		int length = buf.getInt(1);
+		return 1 + 4 + (compression != CompressionType.NONE ? 4 : 0) + length;
+	}
+}
@@ -0,0 +1,255 @@
+/*
+ * Copyright (c) 2019, liam909 <https://github.com/liam909>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.server;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import net.runelite.cache.fs.Archive;
+import net.runelite.cache.fs.Container;
+import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.Storage;
+import net.runelite.cache.fs.Store;
+import net.runelite.cache.fs.jagex.CompressionType;
+import net.runelite.cache.fs.jagex.DiskStorage;
+import net.runelite.cache.util.Crc32;
+
+/**
+ * Encodes archive responses for a store. The checksum table and index
+ * responses are encoded once up front and shared between connections,
+ * archives are framed on request straight from the store's storage.
+ * <p>
+ * Archive responses are the archive's container, preceded by the index
+ * and archive id, split into 512 byte chunks with every chunk after the
+ * first starting with a 0xFF break.
+ */
+class ArchiveResponses
+{
+	private static final int CHUNK_SIZE = 512;
+	private static final int HEADER_SIZE = 3; // index, archive
+
+	private final Storage storage;
+	private final DiskStorage diskStorage;
+	private final Index[] indexes;
+	private final ByteBuf[] indexResponses;
+	private final ByteBuf checksumTable;
+
+	ArchiveResponses(Store store) throws IOException
+	{
+		storage = store.getStorage();
+		diskStorage = storage instanceof DiskStorage ? (DiskStorage) storage : null;
+
+		int count = store.getIndexes().stream()
+			.mapToInt(Index::getId)
+			.max()
+			.orElse(-1) + 1;
+
+		indexes = new Index[count];
+		indexResponses = new ByteBuf[count];
+
+		ByteBuf table = Unpooled.buffer(count * 8);
+		for (int i = 0; i < count; ++i)
+		{
+			Index index = store.findIndex(i);
+			if (index == null)
+			{
+				table.writeInt(0);
+				table.writeInt(0);
+				continue;
+			}
+
+			byte[] data = encodeIndex(index);
+			int length = containerLength(ByteBuffer.wrap(data));
+
+			Crc32 crc = new Crc32();
+			crc.update(data, 0, length);
+			table.writeInt(crc.getHash());
+			table.writeInt(index.getRevision());
+
+			indexes[i] = index;
+			indexResponses[i] = preEncode(255, i, data);
+		}
+
+		Container container = new Container(CompressionType.NONE, -1);
+		container.compress(table.array(), null);
+		checksumTable = preEncode(255, 255, container.data);
+	}
+
+	/**
+	 * Encode the response to an archive request
+	 *
+	 * @param alloc allocator for the response
+	 * @param index requested index
+	 * @param archive requested archive
+	 * @return the response, or null if the archive does not exist
+	 * @throws IOException
+	 */
+	ByteBuf encode(ByteBufAllocator alloc, int index, int archive) throws IOException
+	{
+		if (index == 255)
+		{
+			ByteBuf response = archive == 255 ? checksumTable
+				: archive < indexResponses.length ? indexResponses[archive]
+				: null;
+			// the shared responses are never released, so a duplicate
+			// with its own reader index is all each write needs
+			return response == null ? null : response.duplicate();
+		}
+
+		Index idx = index < indexes.length ? indexes[index] : null;
+		Archive a = idx == null ? null : idx.getArchive(archive);
+		if (a == null)
+		{
+			return null;
+		}
+
+		ByteBuffer[] data;
+		if (diskStorage != null)
+		{
+			data = diskStorage.loadArchiveBuffers(a);
+		}
+		else
+		{
+			byte[] archiveData = storage.loadArchive(a);
+			data = archiveData == null ? null : new ByteBuffer[]{ByteBuffer.wrap(archiveData)};
+		}
+
+		if (data == null || data.length == 0 || !data[0].hasRemaining())
+		{
+			// a zero length archive is as good as missing
+			return null;
+		}
+
+		int length = containerLength(data[0]);
+		ByteBuf out = alloc.directBuffer(framedLength(length));
+		try
+		{
+			frame(out, index, archive, data, length);
+		}
+		catch (IOException ex)
+		{
+			out.release();
+			throw ex;
+		}
+		return out;
+	}
+
+	private byte[] encodeIndex(Index index) throws IOException
+	{
+		if (diskStorage != null)
+		{
+			// serve the index exactly as it is stored
+			return diskStorage.readIndex(index.getId());
+		}
+
+		Container container = new Container(index.getCompression(), -1);
+		container.compress(index.toIndexData().writeIndexData(), null);
+		return container.data;
+	}
+
+	private static ByteBuf preEncode(int index, int archive, byte[] data) throws IOException
+	{
+		int length = containerLength(ByteBuffer.wrap(data));
+		ByteBuf out = Unpooled.directBuffer(framedLength(length));
+		frame(out, index, archive, new ByteBuffer[]{ByteBuffer.wrap(data)}, length);
+		return Unpooled.unreleasableBuffer(out);
+	}
+
+	/**
+	 * Length of the container at the start of the buffer, excluding the
+	 * archive revision which may trail it in storage
+	 */
+	static int containerLength(ByteBuffer buf) throws IOException
+	{
+		if (buf.remaining() < 5)
+		{
+			throw new IOException("short container");
+		}
+
+		int compression = buf.get(buf.position()) & 0xFF;
+		int compressedLength = buf.getInt(buf.position() + 1);
+		if (compressedLength < 0)
+		{
+			throw new IOException("invalid container length " + compressedLength);
+		}
+
+		return compressedLength
+			+ 5 // compression type, compressed length
+			+ (compression != CompressionType.NONE ? 4 : 0); // decompressed length
+	}
+
+	/**
+	 * Length of the response for a container of the given length,
+	 * including the header and chunk breaks
+	 */
+	static int framedLength(int length)
+	{
+		int first = CHUNK_SIZE - HEADER_SIZE;
+		int breaks = length <= first ? 0 : (length - first + CHUNK_SIZE - 2) / (CHUNK_SIZE - 1);
+		return HEADER_SIZE + length + breaks;
+	}
+
+	/**
+	 * Write a response into an empty buffer, copying the container once
+	 * from the source buffers
+	 */
+	static void frame(ByteBuf out, int index, int archive, ByteBuffer[] data, int length) throws IOException
+	{
+		assert out.writerIndex() == 0;
+
+		out.writeByte(index);
+		out.writeShort(archive);
+
+		int remaining = length;
+		for (ByteBuffer buffer : data)
+		{
+			ByteBuffer buf = buffer.duplicate();
+			int limit = buf.limit();
+
+			while (remaining > 0 && buf.hasRemaining())
+			{
+				int chunkRemaining = CHUNK_SIZE - out.writerIndex() % CHUNK_SIZE;
+				if (chunkRemaining == CHUNK_SIZE)
+				{
+					out.writeByte(0xFF);
+					continue;
+				}
+
+				int n = Math.min(chunkRemaining, Math.min(remaining, buf.remaining()));
+				buf.limit(buf.position() + n);
+				out.writeBytes(buf);
+				buf.limit(limit);
+				remaining -= n;
+			}
+		}
+
+		if (remaining > 0)
+		{
+			throw new IOException("archive " + index + "/" + archive + " is truncated");
+		}
+	}
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2019, liam909 <https://github.com/liam909>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.server;
+
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import net.runelite.cache.fs.Storage;
+import net.runelite.cache.fs.Store;
+import net.runelite.cache.fs.flat.FlatStorage;
+import net.runelite.cache.fs.jagex.DiskStorage;
+import net.runelite.protocol.handshake.HandshakeDecoder;
+import net.runelite.protocol.handshake.HandshakeResponseEncoder;
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.CommandLineParser;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A JS5 update server serving the archives of a store, eg. as a local
+ * mirror of the game's update server.
+ */
+public class CacheServer implements AutoCloseable
+{
+	private static final Logger logger = LoggerFactory.getLogger(CacheServer.class);
+
+	private static final int PORT = 43594;
+
+	/**
+	 * Responses a connection may have written but not yet sent, which is
+	 * about what the game client keeps outstanding
+	 */
+	private static final int MAX_IN_FLIGHT = 20;
+
+	private final int revision;
+	private final int maxInFlight;
+	private final ArchiveResponses responses;
+
+	private final EventLoopGroup bossGroup = new NioEventLoopGroup(1);
+	private final EventLoopGroup workerGroup = new NioEventLoopGroup();
+	private Channel channel;
+
+	public CacheServer(Store store, int revision) throws IOException
+	{
+		this(store, revision, MAX_IN_FLIGHT);
+	}
+
+	/**
+	 * @param store store to serve, which must not be modified while the
+	 * server is running
+	 * @param revision client revision to accept
+	 * @param maxInFlight responses each connection may have in flight
+	 * @throws IOException
+	 */
+	public CacheServer(Store store, int revision, int maxInFlight) throws IOException
+	{
+		this.revision = revision;
+		this.maxInFlight = maxInFlight;
+		this.responses = new ArchiveResponses(store);
+	}
+
+	public void start(int port)
+	{
+		ServerBootstrap b = new ServerBootstrap();
+		b.group(bossGroup, workerGroup)
+			.channel(NioServerSocketChannel.class)
+			.childOption(ChannelOption.TCP_NODELAY, true)
+			.childHandler(new ChannelInitializer<SocketChannel>()
+			{
+				@Override
+				public void initChannel(SocketChannel ch) throws Exception
+				{
+					ChannelPipeline p = ch.pipeline();
+					p.addLast("handshake", new HandshakeDecoder());
+					p.addLast("handshakeEncoder", new HandshakeResponseEncoder());
+					p.addLast("handler", new HandshakeHandler(CacheServer.this));
+				}
+			});
+
+		channel = b.bind(port).syncUninterruptibly().channel();
+		logger.info("Cache server listening on {}", channel.localAddress());
+	}
+
+	@Override
+	public void close()
+	{
+		if (channel != null)
+		{
+			channel.close().syncUninterruptibly();
+		}
+		bossGroup.shutdownGracefully();
+		workerGroup.shutdownGracefully();
+	}
+
+	public int getPort()
+	{
+		return ((InetSocketAddress) channel.localAddress()).getPort();
+	}
+
+	int getRevision()
+	{
+		return revision;
+	}
+
+	int getMaxInFlight()
+	{
+		return maxInFlight;
+	}
+
+	ArchiveResponses getResponses()
+	{
+		return responses;
+	}
+
+	public static void main(String[] args) throws IOException
+	{
+		Options options = new Options();
+
+		options.addOption("c", "cache", true, "cache base");
+		options.addOption("r", "revision", true, "client revision");
+		options.addOption("p", "port", true, "port to listen on");
+
+		CommandLineParser parser = new DefaultParser();
+		CommandLine cmd;
+		try
+		{
+			cmd = parser.parse(options, args);
+		}
+		catch (ParseException ex)
+		{
+			System.err.println("Error parsing command line options: " + ex.getMessage());
+			System.exit(-1);
+			return;
+		}
+
+		if (!cmd.hasOption("cache") || !cmd.hasOption("revision"))
+		{
+			System.err.println("Cache and revision must be specified");
+			System.exit(-1);
+			return;
+		}
+
+		File cache = new File(cmd.getOptionValue("cache"));
+		int revision = Integer.parseInt(cmd.getOptionValue("revision"));
+		int port = Integer.parseInt(cmd.getOptionValue("port", Integer.toString(PORT)));
+
+		// a disk cache is mapped, so archives are sent from the mapping
+		Storage storage = new File(cache, "main_file_cache.dat2").exists()
+			? new DiskStorage(cache, true)
+			: new FlatStorage(cache);
+
+		Store store = new Store(storage);
+		store.load();
+
+		CacheServer server = new CacheServer(store, revision);
+		Runtime.getRuntime().addShutdownHook(new Thread(() ->
+		{
+			server.close();
+			try
+			{
+				store.close();
+			}
+			catch (IOException ex)
+			{
+				logger.warn("unable to close store", ex);
+			}
+		}));
+		server.start(port);
+	}
+}
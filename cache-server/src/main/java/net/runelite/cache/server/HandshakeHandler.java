@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2019, liam909 <https://github.com/liam909>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.server;
+
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.handler.codec.FixedLengthFrameDecoder;
+import net.runelite.protocol.api.handshake.HandshakePacket;
+import net.runelite.protocol.api.handshake.HandshakeResponsePacket;
+import net.runelite.protocol.api.handshake.UpdateHandshakePacket;
+import net.runelite.protocol.api.login.HandshakeResponseType;
+import net.runelite.protocol.update.decoders.ArchiveRequestDecoder;
+import net.runelite.protocol.update.decoders.EncryptionDecoder;
+import net.runelite.protocol.update.decoders.LoggedInDecoder;
+import net.runelite.protocol.update.decoders.LoggedOutDecoder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+class HandshakeHandler extends SimpleChannelInboundHandler<HandshakePacket>
+{
+	private static final Logger logger = LoggerFactory.getLogger(HandshakeHandler.class);
+
+	private static final int REQUEST_SIZE = 4;
+
+	private final CacheServer server;
+
+	HandshakeHandler(CacheServer server)
+	{
+		this.server = server;
+	}
+
+	@Override
+	protected void channelRead0(ChannelHandlerContext ctx, HandshakePacket handshake) throws Exception
+	{
+		if (!(handshake instanceof UpdateHandshakePacket))
+		{
+			logger.debug("Unsupported handshake {} from {}", handshake, ctx.channel().remoteAddress());
+			ctx.close();
+			return;
+		}
+
+		int revision = ((UpdateHandshakePacket) handshake).getRevision();
+		if (revision != server.getRevision())
+		{
+			logger.debug("Client {} has revision {}, expected {}",
+				ctx.channel().remoteAddress(), revision, server.getRevision());
+			respond(ctx, HandshakeResponseType.RESPONSE_OUTDATED)
+				.addListener(ChannelFutureListener.CLOSE);
+			return;
+		}
+
+		respond(ctx, HandshakeResponseType.RESPONSE_OK);
+
+		// Every update request is 4 bytes. Splitting the stream into frames
+		// first means each of the opcode decoders sees exactly one request,
+		// and passes on the ones it doesn't handle untouched.
+		ChannelPipeline p = ctx.pipeline();
+		p.replace(this, "session", new UpdateSessionHandler(server.getResponses(), server.getMaxInFlight()));
+		p.addAfter("handshake", "archive", new ArchiveRequestDecoder());
+		p.addAfter("archive", "encryption", new EncryptionDecoder());
+		p.addAfter("encryption", "loggedIn", new LoggedInDecoder());
+		p.addAfter("loggedIn", "loggedOut", new LoggedOutDecoder());
+		p.remove("handshakeEncoder");
+		// replaced last, so anything the client sent after its handshake is
+		// forwarded into the complete pipeline
+		p.replace("handshake", "frame", new FixedLengthFrameDecoder(REQUEST_SIZE));
+	}
+
+	private static ChannelFuture respond(ChannelHandlerContext ctx, HandshakeResponseType type)
+	{
+		HandshakeResponsePacket response = new HandshakeResponsePacket();
+		response.setResponse(type);
+		return ctx.writeAndFlush(response);
+	}
+}
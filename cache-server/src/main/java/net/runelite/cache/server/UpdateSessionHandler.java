@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2019, liam909 <https://github.com/liam909>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.server;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.util.ReferenceCountUtil;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import net.runelite.protocol.api.update.ArchiveRequestPacket;
+import net.runelite.protocol.api.update.EncryptionPacket;
+import net.runelite.protocol.update.encoders.XorEncoder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Serves the archive requests of one connection. Urgent requests are
+ * served before prefetch requests, and at most a fixed number of
+ * responses are written to the connection and not yet sent at once,
+ * so one slow client can't queue up the whole cache in memory.
+ */
+class UpdateSessionHandler extends ChannelInboundHandlerAdapter
+{
+	private static final Logger logger = LoggerFactory.getLogger(UpdateSessionHandler.class);
+
+	/**
+	 * Requests a client may have queued before it is disconnected
+	 */
+	private static final int MAX_QUEUED = 1000;
+
+	private final ArchiveResponses responses;
+	private final int maxInFlight;
+
+	private final Queue<ArchiveRequestPacket> urgent = new ArrayDeque<>();
+	private final Queue<ArchiveRequestPacket> prefetch = new ArrayDeque<>();
+	private int inFlight;
+	private boolean drainScheduled;
+	private XorEncoder xorEncoder;
+
+	private ChannelHandlerContext ctx;
+	private final ChannelFutureListener writeListener = future ->
+	{
+		--inFlight;
+		if (!future.isSuccess())
+		{
+			logger.debug("Write to {} failed", future.channel().remoteAddress(), future.cause());
+			future.channel().close();
+			return;
+		}
+		scheduleDrain();
+	};
+
+	UpdateSessionHandler(ArchiveResponses responses, int maxInFlight)
+	{
+		this.responses = responses;
+		this.maxInFlight = maxInFlight;
+	}
+
+	@Override
+	public void handlerAdded(ChannelHandlerContext ctx)
+	{
+		this.ctx = ctx;
+	}
+
+	@Override
+	public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception
+	{
+		if (msg instanceof ArchiveRequestPacket)
+		{
+			ArchiveRequestPacket request = (ArchiveRequestPacket) msg;
+			(request.isPriority() ? urgent : prefetch).add(request);
+
+			if (urgent.size() + prefetch.size() > MAX_QUEUED)
+			{
+				logger.debug("Too many queued requests from {}", ctx.channel().remoteAddress());
+				ctx.close();
+			}
+		}
+		else if (msg instanceof EncryptionPacket)
+		{
+			setKey(((EncryptionPacket) msg).getKey());
+		}
+		else
+		{
+			if (msg instanceof ByteBuf)
+			{
+				ByteBuf buf = (ByteBuf) msg;
+				logger.debug("Unknown opcode {} from {}", buf.getByte(buf.readerIndex()), ctx.channel().remoteAddress());
+				// consume it, so the decoders ahead of us don't hold on to it
+				buf.skipBytes(buf.readableBytes());
+			}
+			ReferenceCountUtil.release(msg);
+			ctx.close();
+		}
+	}
+
+	@Override
+	public void channelReadComplete(ChannelHandlerContext ctx) throws Exception
+	{
+		drain();
+		ctx.fireChannelReadComplete();
+	}
+
+	@Override
+	public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception
+	{
+		if (ctx.channel().isWritable())
+		{
+			drain();
+		}
+		ctx.fireChannelWritabilityChanged();
+	}
+
+	@Override
+	public void channelInactive(ChannelHandlerContext ctx) throws Exception
+	{
+		urgent.clear();
+		prefetch.clear();
+		ctx.fireChannelInactive();
+	}
+
+	@Override
+	public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause)
+	{
+		logger.debug("Closing connection to {}", ctx.channel().remoteAddress(), cause);
+		ctx.close();
+	}
+
+	private void setKey(byte key)
+	{
+		if (key == 0)
+		{
+			if (xorEncoder != null)
+			{
+				ctx.pipeline().remove(xorEncoder);
+				xorEncoder = null;
+			}
+			return;
+		}
+
+		if (xorEncoder == null)
+		{
+			xorEncoder = new XorEncoder();
+			ctx.pipeline().addFirst("xor", xorEncoder);
+		}
+		xorEncoder.setKey(key);
+	}
+
+	/**
+	 * Drain from a write completion, which is called from within a flush
+	 * and so can't flush itself
+	 */
+	private void scheduleDrain()
+	{
+		if (!drainScheduled)
+		{
+			drainScheduled = true;
+			ctx.executor().execute(() ->
+			{
+				drainScheduled = false;
+				drain();
+			});
+		}
+	}
+
+	private void drain()
+	{
+		Channel channel = ctx.channel();
+		boolean written = false;
+
+		while (inFlight < maxInFlight && channel.isActive() && channel.isWritable())
+		{
+			ArchiveRequestPacket request = urgent.poll();
+			if (request == null)
+			{
+				request = prefetch.poll();
+				if (request == null)
+				{
+					break;
+				}
+			}
+
+			ByteBuf response;
+			try
+			{
+				response = responses.encode(ctx.alloc(), request.getIndex(), request.getArchive());
+			}
+			catch (IOException ex)
+			{
+				logger.warn("Unable to load archive {}/{}", request.getIndex(), request.getArchive(), ex);
+				response = null;
+			}
+
+			if (response == null)
+			{
+				logger.debug("Request for missing archive {}/{} from {}",
+					request.getIndex(), request.getArchive(), channel.remoteAddress());
+				ctx.close();
+				break;
+			}
+
+			++inFlight;
+			ctx.write(response).addListener(writeListener);
+			written = true;
+		}
+
+		if (written)
+		{
+			ctx.flush();
+		}
+	}
+}
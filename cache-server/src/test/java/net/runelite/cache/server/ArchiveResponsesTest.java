@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2019, liam909 <https://github.com/liam909>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.server;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.io.IOException;
+import java.util.Random;
+import net.runelite.cache.fs.Archive;
+import net.runelite.cache.fs.Container;
+import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.Store;
+import net.runelite.cache.fs.flat.FlatStorage;
+import net.runelite.cache.fs.jagex.CompressionType;
+import net.runelite.cache.index.FileData;
+import net.runelite.cache.util.Crc32;
+import net.runelite.protocol.api.update.ArchiveResponsePacket;
+import net.runelite.protocol.update.decoders.ArchiveResponseDecoder;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ArchiveResponsesTest
+{
+	// sizes around the chunk boundaries, given the 5 byte container header
+	private static final int[] SIZES = {0, 1, 504, 505, 506, 1015, 1016, 1017, 100_000};
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testFramedLength()
+	{
+		Assert.assertEquals(3 + 509, ArchiveResponses.framedLength(509));
+		Assert.assertEquals(3 + 510 + 1, ArchiveResponses.framedLength(510));
+		Assert.assertEquals(3 + 509 + 511 + 1, ArchiveResponses.framedLength(509 + 511));
+		Assert.assertEquals(3 + 509 + 512 + 2, ArchiveResponses.framedLength(509 + 512));
+	}
+
+	@Test
+	public void testEncode() throws IOException
+	{
+		Random random = new Random(42);
+
+		try (Store store = new Store(new FlatStorage(folder.getRoot())))
+		{
+			Index index = store.addIndex(2);
+			index.setRevision(7);
+			index.setCompression(CompressionType.NONE);
+
+			byte[][] containers = new byte[SIZES.length][];
+			for (int i = 0; i < SIZES.length; ++i)
+			{
+				byte[] data = new byte[SIZES[i]];
+				random.nextBytes(data);
+
+				// with a trailing revision, which isn't part of the response
+				Container container = new Container(CompressionType.NONE, 3);
+				container.compress(data, null);
+
+				Archive archive = index.addArchive(i);
+				archive.setFileData(new FileData[]{new FileData()});
+				store.getStorage().saveArchive(archive, container.data);
+				containers[i] = container.data;
+			}
+
+			Archive empty = index.addArchive(SIZES.length + 1);
+			empty.setFileData(new FileData[]{new FileData()});
+			store.getStorage().saveArchive(empty, new byte[0]);
+
+			ArchiveResponses responses = new ArchiveResponses(store);
+
+			for (int i = 0; i < SIZES.length; ++i)
+			{
+				ArchiveResponsePacket response = decode(responses.encode(ByteBufAllocator.DEFAULT, 2, i));
+				Assert.assertEquals(2, response.getIndex());
+				Assert.assertEquals(i, response.getArchive());
+
+				byte[] expected = new byte[containers[i].length - 2];
+				System.arraycopy(containers[i], 0, expected, 0, expected.length);
+				Assert.assertArrayEquals(expected, response.getData());
+			}
+
+			Assert.assertNull(responses.encode(ByteBufAllocator.DEFAULT, 2, SIZES.length));
+			Assert.assertNull(responses.encode(ByteBufAllocator.DEFAULT, 2, SIZES.length + 1));
+			Assert.assertNull(responses.encode(ByteBufAllocator.DEFAULT, 3, 0));
+			Assert.assertNull(responses.encode(ByteBufAllocator.DEFAULT, 255, 3));
+
+			// the checksum table has an entry per index up to the last one
+			ArchiveResponsePacket table = decode(responses.encode(ByteBufAllocator.DEFAULT, 255, 255));
+			ByteBuf entries = Unpooled.wrappedBuffer(Container.decompress(table.getData(), null).data);
+			Assert.assertEquals(3 * 8, entries.readableBytes());
+			entries.skipBytes(2 * 8);
+			int crc = entries.readInt();
+			Assert.assertEquals(7, entries.readInt());
+
+			ArchiveResponsePacket indexResponse = decode(responses.encode(ByteBufAllocator.DEFAULT, 255, 2));
+			Crc32 crc32 = new Crc32();
+			crc32.update(indexResponse.getData(), 0, indexResponse.getData().length);
+			Assert.assertEquals(crc, crc32.getHash());
+
+			// the shared responses can be written any number of times
+			Assert.assertNotNull(decode(responses.encode(ByteBufAllocator.DEFAULT, 255, 2)));
+		}
+	}
+
+	private static ArchiveResponsePacket decode(ByteBuf response)
+	{
+		EmbeddedChannel channel = new EmbeddedChannel(new ArchiveResponseDecoder());
+		channel.writeInbound(response);
+		ArchiveResponsePacket packet = (ArchiveResponsePacket) channel.readInbound();
+		Assert.assertNotNull(packet);
+		Assert.assertNull(channel.readInbound());
+		channel.finish();
+		return packet;
+	}
+}
@@ -24,8 +24,12 @@
  */
 package net.runelite.cache.updater;
 
+import com.google.common.collect.Lists;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import net.runelite.cache.fs.Archive;
+import net.runelite.cache.index.FileData;
 import net.runelite.cache.updater.beans.ArchiveEntry;
 import net.runelite.cache.updater.beans.CacheEntry;
 import net.runelite.cache.updater.beans.IndexEntry;
@@ -35,10 +39,11 @@ import org.sql2o.ResultSetIterable;
 
 class CacheDAO
 {
+	// Rows per multi-row insert
+	private static final int MAX_INSERT_ROWS = 500;
+
 	// cache prepared statements for high volume queries
-	private Query associateArchive;
-	private Query findArchive, insertArchive;
-	private Query associateFile;
+	private Query findArchive;
 
 	public CacheEntry findMostRecent(Connection con)
 	{
@@ -96,18 +101,6 @@ class CacheDAO
 		return entry;
 	}
 
-	public void associateArchiveToIndex(Connection con, ArchiveEntry archive, IndexEntry index)
-	{
-		if (associateArchive == null)
-		{
-			associateArchive = con.createQuery("insert into index_archive (`index`, archive) values (:index, :archive)");
-		}
-		associateArchive
-			.addParameter("index", index.getId())
-			.addParameter("archive", archive.getId())
-			.executeUpdate();
-	}
-
 	public ArchiveEntry findArchive(Connection con, IndexEntry index,
 		int archiveId, int nameHash, int crc, int revision)
 	{
@@ -134,44 +127,134 @@ class CacheDAO
 		return entry;
 	}
 
-	public ArchiveEntry createArchive(Connection con, IndexEntry index,
-		int archiveId, int nameHash, int crc, int revision, byte[] hash)
+	/**
+	 * Insert new archives
+	 *
+	 * @param archives archives to insert
+	 * @return an entry for each archive, in the same order
+	 */
+	public List<ArchiveEntry> createArchives(Connection con, List<Archive> archives)
 	{
-		if (insertArchive == null)
+		List<ArchiveEntry> entries = new ArrayList<>(archives.size());
+
+		for (List<Archive> chunk : Lists.partition(archives, MAX_INSERT_ROWS))
 		{
-			insertArchive = con.createQuery("insert into archive (archiveId, nameHash, crc, revision, hash) values "
-				+ "(:archiveId, :nameHash, :crc, :revision, :hash)");
+			StringBuilder sql = new StringBuilder("insert into archive (archiveId, nameHash, crc, revision, hash) values ");
+			for (int i = 0; i < chunk.size(); ++i)
+			{
+				if (i > 0)
+				{
+					sql.append(',');
+				}
+				sql.append("(:archiveId").append(i)
+					.append(", :nameHash").append(i)
+					.append(", :crc").append(i)
+					.append(", :revision").append(i)
+					.append(", :hash").append(i).append(')');
+			}
+
+			Query query = con.createQuery(sql.toString(), true);
+			for (int i = 0; i < chunk.size(); ++i)
+			{
+				Archive archive = chunk.get(i);
+				query.addParameter("archiveId" + i, archive.getArchiveId())
+					.addParameter("nameHash" + i, archive.getNameHash())
+					.addParameter("crc" + i, archive.getCrc())
+					.addParameter("revision" + i, archive.getRevision())
+					.addParameter("hash" + i, archive.getHash());
+			}
+
+			// The driver derives the key of each row from the first generated id, so pairing keys with
+			// rows by position assumes the insert got consecutive ids. InnoDB only guarantees that for
+			// multi-row inserts with innodb_autoinc_lock_mode 0 or 1, not with 2 (the default since
+			// MySQL 8.0), where concurrent inserts may interleave.
+			List<Integer> ids = query.executeUpdate().getKeys(Integer.class);
+			if (ids.size() != chunk.size())
+			{
+				throw new IllegalStateException("expected " + chunk.size() + " archive ids, got " + ids.size());
+			}
+
+			for (int i = 0; i < chunk.size(); ++i)
+			{
+				Archive archive = chunk.get(i);
+
+				ArchiveEntry entry = new ArchiveEntry();
+				entry.setId(ids.get(i));
+				entry.setArchiveId(archive.getArchiveId());
+				entry.setNameHash(archive.getNameHash());
+				entry.setCrc(archive.getCrc());
+				entry.setRevision(archive.getRevision());
+				entry.setHash(archive.getHash());
+				entries.add(entry);
+			}
 		}
 
-		int id = insertArchive
-			.addParameter("archiveId", archiveId)
-			.addParameter("nameHash", nameHash)
-			.addParameter("crc", crc)
-			.addParameter("revision", revision)
-			.addParameter("hash", hash)
-			.executeUpdate()
-			.getKey(int.class);
+		return entries;
+	}
 
-		ArchiveEntry entry = new ArchiveEntry();
-		entry.setId(id);
-		entry.setArchiveId(archiveId);
-		entry.setNameHash(nameHash);
-		entry.setCrc(crc);
-		entry.setRevision(revision);
-		entry.setHash(hash);
-		return entry;
+	/**
+	 * Insert the files of newly created archives
+	 *
+	 * @param entries archive entries, as returned by {@link #createArchives(Connection, List)}
+	 * @param archives the archives the entries were created for
+	 */
+	public void associateFilesToArchives(Connection con, List<ArchiveEntry> entries, List<Archive> archives)
+	{
+		List<int[]> files = new ArrayList<>();
+		for (int i = 0; i < archives.size(); ++i)
+		{
+			int archiveId = entries.get(i).getId();
+			for (FileData file : archives.get(i).getFileData())
+			{
+				files.add(new int[]{archiveId, file.getId(), file.getNameHash()});
+			}
+		}
+
+		for (List<int[]> chunk : Lists.partition(files, MAX_INSERT_ROWS))
+		{
+			StringBuilder sql = new StringBuilder("insert into file (archive, fileId, nameHash) values ");
+			for (int i = 0; i < chunk.size(); ++i)
+			{
+				if (i > 0)
+				{
+					sql.append(',');
+				}
+				sql.append("(:archive").append(i).append(", :fileId").append(i).append(", :nameHash").append(i).append(')');
+			}
+
+			Query query = con.createQuery(sql.toString());
+			for (int i = 0; i < chunk.size(); ++i)
+			{
+				int[] file = chunk.get(i);
+				query.addParameter("archive" + i, file[0])
+					.addParameter("fileId" + i, file[1])
+					.addParameter("nameHash" + i, file[2]);
+			}
+			query.executeUpdate();
+		}
 	}
 
-	public void associateFileToArchive(Connection con, ArchiveEntry archive, int fileId, int nameHash)
+	public void associateArchivesToIndex(Connection con, List<ArchiveEntry> archives, IndexEntry index)
 	{
-		if (associateFile == null)
+		for (List<ArchiveEntry> chunk : Lists.partition(archives, MAX_INSERT_ROWS))
 		{
-			associateFile = con.createQuery("insert into file (archive, fileId, nameHash) values (:archive, :fileId, :nameHash)");
+			StringBuilder sql = new StringBuilder("insert into index_archive (`index`, archive) values ");
+			for (int i = 0; i < chunk.size(); ++i)
+			{
+				if (i > 0)
+				{
+					sql.append(',');
+				}
+				sql.append("(:index, :archive").append(i).append(')');
+			}
+
+			Query query = con.createQuery(sql.toString())
+				.addParameter("index", index.getId());
+			for (int i = 0; i < chunk.size(); ++i)
+			{
+				query.addParameter("archive" + i, chunk.get(i).getId());
+			}
+			query.executeUpdate();
 		}
-		associateFile
-			.addParameter("archive", archive.getId())
-			.addParameter("fileId", fileId)
-			.addParameter("nameHash", nameHash)
-			.executeUpdate();
 	}
 }
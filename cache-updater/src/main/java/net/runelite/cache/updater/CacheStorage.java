@@ -25,12 +25,14 @@
 package net.runelite.cache.updater;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import net.runelite.cache.fs.Archive;
 import net.runelite.cache.fs.Index;
 import net.runelite.cache.fs.Storage;
 import net.runelite.cache.fs.Store;
-import net.runelite.cache.index.FileData;
 import net.runelite.cache.updater.beans.ArchiveEntry;
 import net.runelite.cache.updater.beans.CacheEntry;
 import net.runelite.cache.updater.beans.IndexEntry;
@@ -43,6 +45,9 @@ public class CacheStorage implements Storage
 	private final CacheDAO cacheDao;
 	private final Connection con;
 
+	// entries of the archives loaded from the database, by index and archive id
+	private final Map<Long, ArchiveEntry> loadedArchives = new HashMap<>();
+
 	public CacheStorage(CacheEntry cacheEntry, CacheDAO cacheDao, Connection con)
 	{
 		this.cacheEntry = cacheEntry;
@@ -95,6 +100,8 @@ public class CacheStorage implements Storage
 					archive.setRevision(archiveEntry.getRevision());
 					archive.setHash(archiveEntry.getHash());
 
+					loadedArchives.put(key(index.getId(), archive.getArchiveId()), archiveEntry);
+
 					// File data is not necessary for cache updating
 				}
 			}
@@ -108,25 +115,49 @@ public class CacheStorage implements Storage
 		{
 			IndexEntry entry = cacheDao.createIndex(con, cacheEntry, index.getId(), index.getCrc(), index.getRevision());
 
+			List<ArchiveEntry> archiveEntries = new ArrayList<>(index.getArchives().size());
+			List<Archive> created = new ArrayList<>();
+
 			for (Archive archive : index.getArchives())
 			{
-				ArchiveEntry archiveEntry = cacheDao.findArchive(con, entry, archive.getArchiveId(),
-					archive.getNameHash(), archive.getCrc(), archive.getRevision());
+				ArchiveEntry archiveEntry = findArchive(entry, archive);
 				if (archiveEntry == null)
 				{
-					byte[] hash = archive.getHash();
-					archiveEntry = cacheDao.createArchive(con, entry, archive.getArchiveId(),
-						archive.getNameHash(), archive.getCrc(), archive.getRevision(), hash);
-
-					for (FileData file : archive.getFileData())
-					{
-						cacheDao.associateFileToArchive(con, archiveEntry, file.getId(), file.getNameHash());
-					}
+					created.add(archive);
+				}
+				else
+				{
+					archiveEntries.add(archiveEntry);
 				}
-
-				cacheDao.associateArchiveToIndex(con, archiveEntry, entry);
 			}
+
+			List<ArchiveEntry> createdEntries = cacheDao.createArchives(con, created);
+			cacheDao.associateFilesToArchives(con, createdEntries, created);
+			archiveEntries.addAll(createdEntries);
+
+			cacheDao.associateArchivesToIndex(con, archiveEntries, entry);
+		}
+	}
+
+	private ArchiveEntry findArchive(IndexEntry index, Archive archive)
+	{
+		// most archives are unchanged from the loaded cache
+		ArchiveEntry loaded = loadedArchives.get(key(index.getIndexId(), archive.getArchiveId()));
+		if (loaded != null
+			&& loaded.getNameHash() == archive.getNameHash()
+			&& loaded.getCrc() == archive.getCrc()
+			&& loaded.getRevision() == archive.getRevision())
+		{
+			return loaded;
 		}
+
+		return cacheDao.findArchive(con, index, archive.getArchiveId(),
+			archive.getNameHash(), archive.getCrc(), archive.getRevision());
+	}
+
+	private static long key(int index, int archive)
+	{
+		return (long) index << 32 | archive;
 	}
 
 	@Override
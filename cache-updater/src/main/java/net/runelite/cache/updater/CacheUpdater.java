@@ -24,18 +24,15 @@
  */
 package net.runelite.cache.updater;
 
+import com.google.common.base.Stopwatch;
 import io.minio.MinioClient;
 import io.minio.errors.InvalidEndpointException;
 import io.minio.errors.InvalidPortException;
 import java.io.IOException;
 import java.time.Instant;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
 import net.runelite.cache.client.CacheClient;
 import net.runelite.cache.client.IndexInfo;
-import net.runelite.cache.fs.Archive;
 import net.runelite.cache.fs.Store;
 import net.runelite.cache.updater.beans.CacheEntry;
 import net.runelite.cache.updater.beans.IndexEntry;
@@ -88,14 +85,19 @@ public class CacheUpdater implements CommandLineRunner
 				cache = cacheDao.createCache(con, rsVersion, Instant.now());
 			}
 
+			Stopwatch total = Stopwatch.createStarted();
+			Stopwatch phase = Stopwatch.createStarted();
+
 			CacheStorage storage = new CacheStorage(cache, cacheDao, con);
 			Store store = new Store(storage);
 			store.load();
 
-			ExecutorService executor = Executors.newSingleThreadExecutor();
+			CacheUploader uploader = new CacheUploader(minioClient, minioBucket);
+			uploader.addExisting(store);
+
+			logger.info("Loaded cache {} in {}", cache.getRevision(), phase);
 
-			CacheClient client = new CacheClient(store, rsVersion,
-				(Archive archive, byte[] data) -> executor.submit(new CacheUploader(minioClient, minioBucket, archive, data)));
+			CacheClient client = new CacheClient(store, rsVersion, uploader::upload);
 
 			client.connect();
 			HandshakeResponseType result = client.handshake().join();
@@ -115,23 +117,27 @@ public class CacheUpdater implements CommandLineRunner
 				return;
 			}
 
+			phase.reset().start();
 			client.download();
+			logger.info("Downloaded cache in {}", phase);
 
 			CacheEntry newCache = created ? cache : cacheDao.createCache(con, rsVersion, Instant.now());
 
+			phase.reset().start();
 			storage.setCacheEntry(newCache);
 			store.save();
+			logger.info("Saved cache to the database in {}", phase);
 
 			// ensure objects are added to the store before they become
 			// visible in the database
-			executor.shutdown();
-			while (!executor.awaitTermination(1, TimeUnit.SECONDS))
-			{
-				logger.debug("Waiting for termination of executor...");
-			}
+			phase.reset().start();
+			uploader.finish();
+			logger.info("Finished uploads in {}", phase);
 
 			// commit database
+			phase.reset().start();
 			con.commit();
+			logger.info("Committed in {}, updated cache in {}", phase, total);
 		}
 	}
 
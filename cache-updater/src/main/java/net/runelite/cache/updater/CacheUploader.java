@@ -26,6 +26,7 @@ package net.runelite.cache.updater;
 
 import com.google.common.hash.Hashing;
 import com.google.common.io.BaseEncoding;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.minio.MinioClient;
 import io.minio.errors.ErrorResponseException;
 import io.minio.errors.InsufficientDataException;
@@ -35,39 +36,118 @@ import io.minio.errors.InvalidBucketNameException;
 import io.minio.errors.NoResponseException;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import net.runelite.cache.fs.Archive;
+import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.Store;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.xmlpull.v1.XmlPullParserException;
 
-public class CacheUploader implements Runnable
+/**
+ * Uploads archive data to the object store, keyed by the sha256 of the
+ * data. Uploads run on a bounded pool of threads; once too many are
+ * queued, the caller waits for one to finish. Data which is already in the object
+ * store, either because an archive in the store has the same hash or
+ * because the object store already has it, is not uploaded again.
+ */
+public class CacheUploader
 {
 	private static final Logger logger = LoggerFactory.getLogger(CacheUploader.class);
 
+	private static final int UPLOAD_THREADS = 8;
+	private static final int MAX_QUEUED_UPLOADS = 64;
+
 	private final MinioClient minioClient;
 	private final String minioBucket;
-	private final Archive archive;
-	private final byte[] data;
 
-	public CacheUploader(MinioClient minioClient, String minioBucket, Archive archive, byte[] data)
+	private final ExecutorService executor = Executors.newFixedThreadPool(UPLOAD_THREADS,
+		new ThreadFactoryBuilder().setNameFormat("cache-uploader-%d").setDaemon(true).build());
+
+	// uploads queued or running, each holding its data
+	private final Semaphore pending = new Semaphore(UPLOAD_THREADS + MAX_QUEUED_UPLOADS);
+
+	// hashes of data known to be in the object store, or being uploaded
+	private final Set<String> uploaded = ConcurrentHashMap.newKeySet();
+
+	private final AtomicInteger uploads = new AtomicInteger();
+	private final AtomicInteger skipped = new AtomicInteger();
+	private final AtomicInteger failed = new AtomicInteger();
+	private final AtomicLong bytes = new AtomicLong();
+
+	public CacheUploader(MinioClient minioClient, String minioBucket)
 	{
 		this.minioClient = minioClient;
 		this.minioBucket = minioBucket;
-		this.archive = archive;
-		this.data = data;
 	}
 
-	@Override
-	public void run()
+	/**
+	 * Mark the data of every archive already in the store as uploaded
+	 *
+	 * @param store store loaded from the database
+	 */
+	public void addExisting(Store store)
+	{
+		for (Index index : store.getIndexes())
+		{
+			for (Archive archive : index.getArchives())
+			{
+				byte[] hash = archive.getHash();
+				if (hash != null)
+				{
+					uploaded.add(BaseEncoding.base16().encode(hash));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Set the hash of an archive, and upload its data if the object store
+	 * does not already have it
+	 *
+	 * @param archive archive
+	 * @param data archive data
+	 */
+	public void upload(Archive archive, byte[] data)
 	{
 		byte[] hash = Hashing.sha256().hashBytes(data).asBytes();
 		String hashStr = BaseEncoding.base16().encode(hash);
 
+		// the hash is set here rather than by the upload, so it is
+		// there when the store is saved
 		archive.setHash(hash);
 
+		if (!uploaded.add(hashStr))
+		{
+			skipped.incrementAndGet();
+			return;
+		}
+
+		pending.acquireUninterruptibly();
+		executor.execute(() ->
+		{
+			try
+			{
+				upload(hashStr, data);
+			}
+			finally
+			{
+				pending.release();
+			}
+		});
+	}
+
+	private void upload(String hashStr, byte[] data)
+	{
 		String path = new StringBuilder()
 			.append(hashStr.substring(0, 2))
 			.append('/')
@@ -76,8 +156,10 @@ public class CacheUploader implements Runnable
 
 		try
 		{
-			try (InputStream in = minioClient.getObject(minioBucket, path))
+			try
 			{
+				minioClient.statObject(minioBucket, path);
+				skipped.incrementAndGet();
 				return; // already exists
 			}
 			catch (ErrorResponseException ex)
@@ -86,11 +168,35 @@ public class CacheUploader implements Runnable
 			}
 
 			minioClient.putObject(minioBucket, path, new ByteArrayInputStream(data), data.length, "binary/octet-stream");
+			uploads.incrementAndGet();
+			bytes.addAndGet(data.length);
 		}
 		catch (ErrorResponseException | InsufficientDataException | InternalException | InvalidArgumentException | InvalidBucketNameException | NoResponseException | IOException | InvalidKeyException | NoSuchAlgorithmException | XmlPullParserException ex)
 		{
 			logger.warn("unable to upload data to store", ex);
+			failed.incrementAndGet();
 		}
 	}
 
+	/**
+	 * Wait for all uploads to finish
+	 *
+	 * @throws IOException if any upload failed
+	 * @throws InterruptedException
+	 */
+	public void finish() throws IOException, InterruptedException
+	{
+		executor.shutdown();
+		while (!executor.awaitTermination(1, TimeUnit.SECONDS))
+		{
+			logger.debug("Waiting for termination of executor...");
+		}
+
+		logger.info("Uploaded {} objects ({} bytes), skipped {} already stored", uploads.get(), bytes.get(), skipped.get());
+
+		if (failed.get() > 0)
+		{
+			throw new IOException("Unable to upload " + failed.get() + " objects");
+		}
+	}
 }
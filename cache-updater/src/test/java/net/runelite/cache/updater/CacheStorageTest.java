@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2019, liam909 <https://github.com/liam909>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.updater;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import net.runelite.cache.fs.Archive;
+import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.Store;
+import net.runelite.cache.index.FileData;
+import net.runelite.cache.updater.beans.ArchiveEntry;
+import net.runelite.cache.updater.beans.CacheEntry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.After;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import org.junit.Before;
+import org.junit.Test;
+import org.sql2o.Connection;
+import org.sql2o.Sql2o;
+import org.sql2o.converters.Converter;
+import org.sql2o.quirks.NoQuirks;
+
+public class CacheStorageTest
+{
+	private static final String[] SCHEMA = {
+		"create table cache (id int auto_increment primary key, revision int not null, date timestamp not null)",
+		"create table `index` (id int auto_increment primary key, cache int not null, indexId int not null,"
+			+ " crc int not null, revision int not null)",
+		"create table archive (id int auto_increment primary key, archiveId int not null, nameHash int not null,"
+			+ " crc int not null, revision int not null, hash binary(32) not null)",
+		"create table index_archive (id int auto_increment primary key, `index` int not null, archive int not null)",
+		"create table file (id int auto_increment primary key, archive int not null, fileId int not null,"
+			+ " nameHash int not null)"
+	};
+
+	private final CacheDAO cacheDao = new CacheDAO();
+	private Connection con;
+
+	@Before
+	public void before()
+	{
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setURL("jdbc:h2:mem:cache;MODE=MySQL;DATABASE_TO_UPPER=false");
+		Map<Class, Converter> converters = new HashMap<>();
+		converters.put(Instant.class, new InstantConverter());
+		Sql2o sql2o = new Sql2o(dataSource, new NoQuirks(converters));
+
+		con = sql2o.open();
+		for (String sql : SCHEMA)
+		{
+			con.createQuery(sql)
+				.executeUpdate();
+		}
+	}
+
+	@After
+	public void after()
+	{
+		con.close();
+	}
+
+	@Test
+	public void testCreateArchives() throws IOException
+	{
+		// spans several multi-row inserts
+		int count = 1234;
+
+		List<Archive> archives = new ArrayList<>();
+		try (Store store = new Store(new CacheStorage(null, cacheDao, con)))
+		{
+			Index index = store.addIndex(2);
+			for (int i = 0; i < count; ++i)
+			{
+				archives.add(addArchive(index, i, i * 7));
+			}
+		}
+
+		List<ArchiveEntry> entries = cacheDao.createArchives(con, archives);
+		cacheDao.associateFilesToArchives(con, entries, archives);
+		assertEquals(count, entries.size());
+
+		List<ArchiveEntry> rows = con.createQuery("select id, archiveId, nameHash, crc, revision, hash from archive")
+			.executeAndFetch(ArchiveEntry.class);
+		Map<Integer, ArchiveEntry> rowsById = new HashMap<>();
+		for (ArchiveEntry row : rows)
+		{
+			rowsById.put(row.getId(), row);
+		}
+		assertEquals(count, rowsById.size());
+
+		for (int i = 0; i < count; ++i)
+		{
+			Archive archive = archives.get(i);
+			ArchiveEntry entry = entries.get(i);
+
+			// the entry has the id of the row inserted for its archive
+			ArchiveEntry row = rowsById.get(entry.getId());
+			assertEquals(archive.getArchiveId(), row.getArchiveId());
+			assertEquals(archive.getCrc(), row.getCrc());
+			assertEquals(archive.getRevision(), row.getRevision());
+			assertArrayEquals(archive.getHash(), row.getHash());
+			assertEquals(row, entry);
+
+			int fileNameHash = con.createQuery("select nameHash from file where archive = :archive and fileId = 0")
+				.addParameter("archive", entry.getId())
+				.executeScalar(Integer.class);
+			assertEquals(archive.getArchiveId() + 1, fileNameHash);
+		}
+	}
+
+	@Test
+	public void testSaveReusesArchives() throws IOException
+	{
+		CacheEntry first = cacheDao.createCache(con, 1, Instant.ofEpochSecond(1));
+		try (Store store = new Store(new CacheStorage(first, cacheDao, con)))
+		{
+			Index index = store.addIndex(0);
+			for (int i = 0; i < 10; ++i)
+			{
+				addArchive(index, i, 100);
+			}
+			store.save();
+		}
+		assertEquals(10, count("archive"));
+
+		CacheEntry second = cacheDao.createCache(con, 1, Instant.ofEpochSecond(2));
+		CacheStorage storage = new CacheStorage(first, cacheDao, con);
+		try (Store store = new Store(storage))
+		{
+			store.load();
+
+			Index index = store.findIndex(0);
+			assertEquals(10, index.getArchives().size());
+
+			// one archive changes and one is added, the rest are reused
+			Archive changed = index.getArchive(3);
+			changed.setCrc(changed.getCrc() + 1);
+			changed.setRevision(101);
+			changed.setHash(hash(changed.getCrc()));
+			changed.setFileData(new FileData[]{new FileData()});
+			addArchive(index, 10, 101);
+
+			storage.setCacheEntry(second);
+			store.save();
+		}
+
+		assertEquals(12, count("archive"));
+		assertEquals(12, count("file"));
+
+		List<Integer> firstArchives = archivesOfCache(first);
+		List<Integer> secondArchives = archivesOfCache(second);
+		assertEquals(10, firstArchives.size());
+		assertEquals(11, secondArchives.size());
+
+		int shared = 0;
+		for (int id : secondArchives)
+		{
+			if (firstArchives.contains(id))
+			{
+				++shared;
+			}
+		}
+		assertEquals(9, shared);
+	}
+
+	private static Archive addArchive(Index index, int archiveId, int revision)
+	{
+		Archive archive = index.addArchive(archiveId);
+		archive.setNameHash(archiveId * 31);
+		archive.setCrc(archiveId * 1_000_003);
+		archive.setRevision(revision);
+		archive.setHash(hash(archive.getCrc()));
+
+		FileData file = new FileData();
+		file.setNameHash(archiveId + 1);
+		archive.setFileData(new FileData[]{file});
+		return archive;
+	}
+
+	private static byte[] hash(int seed)
+	{
+		byte[] hash = new byte[32];
+		for (int i = 0; i < hash.length; ++i)
+		{
+			hash[i] = (byte) (seed >> (i % 4 * 8));
+		}
+		return hash;
+	}
+
+	private int count(String table)
+	{
+		return con.createQuery("select count(*) from " + table)
+			.executeScalar(Integer.class);
+	}
+
+	private List<Integer> archivesOfCache(CacheEntry cache)
+	{
+		return con.createQuery("select index_archive.archive from index_archive"
+			+ " join `index` on index.id = index_archive.index where index.cache = :cache")
+			.addParameter("cache", cache.getId())
+			.executeScalarList(Integer.class);
+	}
+}
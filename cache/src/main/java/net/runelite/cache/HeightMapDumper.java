@@ -39,6 +39,8 @@ public class HeightMapDumper
 
 	private static final int MAP_SCALE = 1;
 	private static final float MAX_HEIGHT = 2048f;
+	// each region is only visited once, so keep few decoded
+	private static final int MAX_LOADED_REGIONS = 64;
 
 	private final Store store;
 	private RegionLoader regionLoader;
@@ -51,7 +53,7 @@ public class HeightMapDumper
 	public void load() throws IOException
 	{
 		regionLoader = new RegionLoader(store);
-		regionLoader.loadRegions();
+		regionLoader.indexRegions(MAX_LOADED_REGIONS);
 		regionLoader.calculateBounds();
 	}
 
@@ -81,8 +83,9 @@ public class HeightMapDumper
 		int max = Integer.MIN_VALUE;
 		int min = Integer.MAX_VALUE;
 
-		for (Region region : regionLoader.getRegions())
+		for (int regionId : regionLoader.getRegionIds())
 		{
+			Region region = regionLoader.getRegion(regionId);
 			int baseX = region.getBaseX();
 			int baseY = region.getBaseY();
 
@@ -24,13 +24,23 @@
  */
 package net.runelite.cache;
 
+import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
 import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.Image;
 import java.awt.image.BufferedImage;
+import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import javax.imageio.ImageIO;
 import lombok.Getter;
 import lombok.Setter;
 import net.runelite.cache.definitions.AreaDefinition;
@@ -158,6 +168,159 @@ public class MapImageDumper
 		return image;
 	}
 
+	/**
+	 * Render the map as a grid of fixed size tiles, each covering a square
+	 * block of regions, and write them to outDir/z/x/y.png. Tile x
+	 * increases eastward from the west most region and tile y increases
+	 * southward from the north most region. Tiles are rendered concurrently
+	 * on the given executor and written as they finish, so only the tiles
+	 * in flight are held in memory.
+	 *
+	 * @param z plane to render
+	 * @param regionsPerTile width and height of each tile in regions
+	 * @param outDir base output directory
+	 * @param executor executor to render tiles on
+	 * @return number of tiles written
+	 * @throws IOException
+	 */
+	public int drawMapTiles(int z, int regionsPerTile, File outDir, ExecutorService executor) throws IOException
+	{
+		Preconditions.checkArgument(regionsPerTile > 0);
+
+		int minRegionX = regionLoader.getLowestX().getRegionX();
+		int maxRegionX = regionLoader.getHighestX().getRegionX();
+		int minRegionY = regionLoader.getLowestY().getRegionY();
+		int maxRegionY = regionLoader.getHighestY().getRegionY();
+
+		int tilesX = (maxRegionX - minRegionX) / regionsPerTile + 1;
+		int tilesY = (maxRegionY - minRegionY) / regionsPerTile + 1;
+
+		logger.info("Drawing {}x{} tiles of {}px for plane {}", tilesX, tilesY,
+			regionsPerTile * Region.X * MAP_SCALE, z);
+
+		List<Future<Boolean>> futures = new ArrayList<>();
+		for (int tileX = 0; tileX < tilesX; ++tileX)
+		{
+			for (int tileY = 0; tileY < tilesY; ++tileY)
+			{
+				// tile y is top down, region y is bottom up
+				final int regionX = minRegionX + tileX * regionsPerTile;
+				final int topRegionY = maxRegionY - tileY * regionsPerTile;
+				final File file = new File(outDir, z + File.separator + tileX + File.separator + tileY + ".png");
+
+				futures.add(executor.submit(() ->
+				{
+					BufferedImage tile = drawMapTile(z, regionX, topRegionY, regionsPerTile);
+					if (tile == null)
+					{
+						return false;
+					}
+
+					file.getParentFile().mkdirs();
+					ImageIO.write(tile, "png", file);
+					return true;
+				}));
+			}
+		}
+
+		int written = 0;
+		for (Future<Boolean> future : futures)
+		{
+			try
+			{
+				if (future.get())
+				{
+					++written;
+				}
+			}
+			catch (InterruptedException ex)
+			{
+				Thread.currentThread().interrupt();
+				throw new IOException(ex);
+			}
+			catch (ExecutionException ex)
+			{
+				Throwables.propagateIfPossible(ex.getCause(), IOException.class);
+				throw new IOException(ex.getCause());
+			}
+		}
+
+		logger.info("Wrote {} tiles to {}", written, outDir);
+		return written;
+	}
+
+	/**
+	 * Render a single block of regions
+	 *
+	 * @param z plane
+	 * @param regionX region x of the west most column of the tile
+	 * @param topRegionY region y of the north most row of the tile
+	 * @param regionsPerTile width and height of the tile in regions
+	 * @return the tile, or null if the tile contains no regions
+	 */
+	public BufferedImage drawMapTile(int z, int regionX, int topRegionY, int regionsPerTile)
+	{
+		List<Region> inside = new ArrayList<>();
+		List<Region> border = new ArrayList<>();
+
+		// include the ring of regions around the tile, so that objects and
+		// icons overhanging the tile edge are drawn on both sides of the seam
+		for (int rx = regionX - 1; rx <= regionX + regionsPerTile; ++rx)
+		{
+			for (int ry = topRegionY + 1; ry >= topRegionY - regionsPerTile; --ry)
+			{
+				Region region = regionLoader.findRegionForWorldCoordinates(rx << 6, ry << 6);
+				if (region == null)
+				{
+					continue;
+				}
+
+				if (rx >= regionX && rx < regionX + regionsPerTile
+					&& ry <= topRegionY && ry > topRegionY - regionsPerTile)
+				{
+					inside.add(region);
+				}
+				else
+				{
+					border.add(region);
+				}
+			}
+		}
+
+		if (inside.isEmpty())
+		{
+			return null;
+		}
+
+		int pixels = regionsPerTile * Region.X * MAP_SCALE;
+		BufferedImage image = new BufferedImage(pixels, pixels, BufferedImage.TYPE_INT_RGB);
+
+		int originX = regionX << 6;
+		int topY = topRegionY << 6;
+
+		// terrain blending reads the neighbouring regions through the
+		// region loader, so each region can be drawn on its own
+		for (Region region : inside)
+		{
+			drawMap(image, region.getBaseX() - originX, topY - region.getBaseY(), z, region);
+		}
+
+		List<Region> all = new ArrayList<>(inside);
+		all.addAll(border);
+
+		for (Region region : all)
+		{
+			drawObjects(image, region.getBaseX() - originX, topY - region.getBaseY(), region, z);
+		}
+
+		for (Region region : all)
+		{
+			drawMapIcons(image, region.getBaseX() - originX, topY - region.getBaseY(), region, z);
+		}
+
+		return image;
+	}
+
 	private void drawMap(BufferedImage image, int drawBaseX, int drawBaseY, int z, Region region)
 	{
 		int[][] map = new int[Region.X * MAP_SCALE][Region.Y * MAP_SCALE];
@@ -546,7 +709,7 @@ public class MapImageDumper
 				if (object.getMapSceneID() != -1)
 				{
 					Image spriteImage = scaledMapIcons.get(object.getMapSceneID());
-					graphics.drawImage(spriteImage, drawX * MAP_SCALE, drawY * MAP_SCALE, null);
+					graphics.drawImage(spriteImage, drawX, drawY, null);
 				}
 				else
 				{
@@ -554,31 +717,31 @@ public class MapImageDumper
 					{
 						if (rotation == 0)
 						{
-							image.setRGB(drawX + 0, drawY + 0, rgb);
-							image.setRGB(drawX + 0, drawY + 1, rgb);
-							image.setRGB(drawX + 0, drawY + 2, rgb);
-							image.setRGB(drawX + 0, drawY + 3, rgb);
+							setPixel(image, drawX + 0, drawY + 0, rgb);
+							setPixel(image, drawX + 0, drawY + 1, rgb);
+							setPixel(image, drawX + 0, drawY + 2, rgb);
+							setPixel(image, drawX + 0, drawY + 3, rgb);
 						}
 						else if (rotation == 1)
 						{
-							image.setRGB(drawX + 0, drawY + 0, rgb);
-							image.setRGB(drawX + 1, drawY + 0, rgb);
-							image.setRGB(drawX + 2, drawY + 0, rgb);
-							image.setRGB(drawX + 3, drawY + 0, rgb);
+							setPixel(image, drawX + 0, drawY + 0, rgb);
+							setPixel(image, drawX + 1, drawY + 0, rgb);
+							setPixel(image, drawX + 2, drawY + 0, rgb);
+							setPixel(image, drawX + 3, drawY + 0, rgb);
 						}
 						else if (rotation == 2)
 						{
-							image.setRGB(drawX + 3, drawY + 0, rgb);
-							image.setRGB(drawX + 3, drawY + 1, rgb);
-							image.setRGB(drawX + 3, drawY + 2, rgb);
-							image.setRGB(drawX + 3, drawY + 3, rgb);
+							setPixel(image, drawX + 3, drawY + 0, rgb);
+							setPixel(image, drawX + 3, drawY + 1, rgb);
+							setPixel(image, drawX + 3, drawY + 2, rgb);
+							setPixel(image, drawX + 3, drawY + 3, rgb);
 						}
 						else if (rotation == 3)
 						{
-							image.setRGB(drawX + 0, drawY + 3, rgb);
-							image.setRGB(drawX + 1, drawY + 3, rgb);
-							image.setRGB(drawX + 2, drawY + 3, rgb);
-							image.setRGB(drawX + 3, drawY + 3, rgb);
+							setPixel(image, drawX + 0, drawY + 3, rgb);
+							setPixel(image, drawX + 1, drawY + 3, rgb);
+							setPixel(image, drawX + 2, drawY + 3, rgb);
+							setPixel(image, drawX + 3, drawY + 3, rgb);
 						}
 					}
 
@@ -586,19 +749,19 @@ public class MapImageDumper
 					{
 						if (rotation == 0)
 						{
-							image.setRGB(drawX + 0, drawY + 0, rgb);
+							setPixel(image, drawX + 0, drawY + 0, rgb);
 						}
 						else if (rotation == 1)
 						{
-							image.setRGB(drawX + 3, drawY + 0, rgb);
+							setPixel(image, drawX + 3, drawY + 0, rgb);
 						}
 						else if (rotation == 2)
 						{
-							image.setRGB(drawX + 3, drawY + 3, rgb);
+							setPixel(image, drawX + 3, drawY + 3, rgb);
 						}
 						else if (rotation == 3)
 						{
-							image.setRGB(drawX + 0, drawY + 3, rgb);
+							setPixel(image, drawX + 0, drawY + 3, rgb);
 						}
 					}
 
@@ -606,31 +769,31 @@ public class MapImageDumper
 					{
 						if (rotation == 3)
 						{
-							image.setRGB(drawX + 0, drawY + 0, rgb);
-							image.setRGB(drawX + 0, drawY + 1, rgb);
-							image.setRGB(drawX + 0, drawY + 2, rgb);
-							image.setRGB(drawX + 0, drawY + 3, rgb);
+							setPixel(image, drawX + 0, drawY + 0, rgb);
+							setPixel(image, drawX + 0, drawY + 1, rgb);
+							setPixel(image, drawX + 0, drawY + 2, rgb);
+							setPixel(image, drawX + 0, drawY + 3, rgb);
 						}
 						else if (rotation == 0)
 						{
-							image.setRGB(drawX + 0, drawY + 0, rgb);
-							image.setRGB(drawX + 1, drawY + 0, rgb);
-							image.setRGB(drawX + 2, drawY + 0, rgb);
-							image.setRGB(drawX + 3, drawY + 0, rgb);
+							setPixel(image, drawX + 0, drawY + 0, rgb);
+							setPixel(image, drawX + 1, drawY + 0, rgb);
+							setPixel(image, drawX + 2, drawY + 0, rgb);
+							setPixel(image, drawX + 3, drawY + 0, rgb);
 						}
 						else if (rotation == 1)
 						{
-							image.setRGB(drawX + 3, drawY + 0, rgb);
-							image.setRGB(drawX + 3, drawY + 1, rgb);
-							image.setRGB(drawX + 3, drawY + 2, rgb);
-							image.setRGB(drawX + 3, drawY + 3, rgb);
+							setPixel(image, drawX + 3, drawY + 0, rgb);
+							setPixel(image, drawX + 3, drawY + 1, rgb);
+							setPixel(image, drawX + 3, drawY + 2, rgb);
+							setPixel(image, drawX + 3, drawY + 3, rgb);
 						}
 						else if (rotation == 2)
 						{
-							image.setRGB(drawX + 0, drawY + 3, rgb);
-							image.setRGB(drawX + 1, drawY + 3, rgb);
-							image.setRGB(drawX + 2, drawY + 3, rgb);
-							image.setRGB(drawX + 3, drawY + 3, rgb);
+							setPixel(image, drawX + 0, drawY + 3, rgb);
+							setPixel(image, drawX + 1, drawY + 3, rgb);
+							setPixel(image, drawX + 2, drawY + 3, rgb);
+							setPixel(image, drawX + 3, drawY + 3, rgb);
 						}
 					}
 				}
@@ -663,17 +826,17 @@ public class MapImageDumper
 
 				if (rotation != 0 && rotation != 2)
 				{
-					image.setRGB(drawX + 0, drawY + 0, rgb);
-					image.setRGB(drawX + 1, drawY + 1, rgb);
-					image.setRGB(drawX + 2, drawY + 2, rgb);
-					image.setRGB(drawX + 3, drawY + 3, rgb);
+					setPixel(image, drawX + 0, drawY + 0, rgb);
+					setPixel(image, drawX + 1, drawY + 1, rgb);
+					setPixel(image, drawX + 2, drawY + 2, rgb);
+					setPixel(image, drawX + 3, drawY + 3, rgb);
 				}
 				else
 				{
-					image.setRGB(drawX + 0, drawY + 3, rgb);
-					image.setRGB(drawX + 1, drawY + 2, rgb);
-					image.setRGB(drawX + 2, drawY + 1, rgb);
-					image.setRGB(drawX + 3, drawY + 0, rgb);
+					setPixel(image, drawX + 0, drawY + 3, rgb);
+					setPixel(image, drawX + 1, drawY + 2, rgb);
+					setPixel(image, drawX + 2, drawY + 1, rgb);
+					setPixel(image, drawX + 3, drawY + 0, rgb);
 				}
 			}
 			else if (type == 22 || (type >= 9 && type <= 11))
@@ -752,6 +915,15 @@ public class MapImageDumper
 		}
 	}
 
+	private static void setPixel(BufferedImage image, int x, int y, int rgb)
+	{
+		// objects of neighbouring regions may be partially outside of a tile
+		if (x >= 0 && y >= 0 && x < image.getWidth() && y < image.getHeight())
+		{
+			image.setRGB(x, y, rgb);
+		}
+	}
+
 	private ObjectDefinition findObject(int id)
 	{
 		return objectManager.getObject(id);
@@ -894,7 +1066,7 @@ public class MapImageDumper
 	private void loadRegions(Store store) throws IOException
 	{
 		regionLoader = new RegionLoader(store);
-		regionLoader.loadRegions();
+		regionLoader.loadRegions(ForkJoinPool.commonPool());
 		regionLoader.calculateBounds();
 
 		logger.info("North most region: {}", regionLoader.getLowestY().getBaseY());
@@ -951,13 +1123,13 @@ public class MapImageDumper
 
 	private void loadSprites() throws IOException
 	{
-		Storage storage = store.getStorage();
 		Index index = store.getIndex(IndexType.SPRITES);
 		final int mapsceneHash = Djb2.hash("mapscene");
 
-		for (Archive a : index.getArchives())
+		for (Map.Entry<Archive, byte[]> entry : store.loadArchivesParallel(index).entrySet())
 		{
-			byte[] contents = a.decompress(storage.loadArchive(a));
+			Archive a = entry.getKey();
+			byte[] contents = entry.getValue();
 
 			SpriteLoader loader = new SpriteLoader();
 			SpriteDefinition[] sprites = loader.load(a.getArchiveId(), contents);
@@ -145,7 +145,17 @@ public class Archive
 	public ArchiveFiles getFiles(byte[] data, int[] keys) throws IOException
 	{
 		byte[] decompressedData = decompress(data, keys);
+		return loadFiles(decompressedData);
+	}
 
+	/**
+	 * Split already decompressed archive data into its files
+	 *
+	 * @param decompressedData decompressed archive data
+	 * @return
+	 */
+	public ArchiveFiles loadFiles(byte[] decompressedData)
+	{
 		ArchiveFiles files = new ArchiveFiles();
 		for (FileData fileEntry : fileData)
 		{
@@ -169,7 +179,14 @@ public class Archive
 
 	public void setNameHash(int nameHash)
 	{
-		this.nameHash = nameHash;
+		if (this.nameHash != nameHash)
+		{
+			this.nameHash = nameHash;
+			if (index != null)
+			{
+				index.nameHashChanged();
+			}
+		}
 	}
 
 	public int getCrc()
@@ -76,7 +76,12 @@ public class Container
 				throw new RuntimeException("Unknown compression type");
 		}
 
-		compressedData = encrypt(compressedData, compressedData.length, keys);
+		if (keys != null && compressedData == data)
+		{
+			// don't encrypt the caller's data in place
+			compressedData = data.clone();
+		}
+		encrypt(compressedData, compressedData.length, keys);
 
 		stream.writeByte(compression);
 		stream.writeInt(length);
@@ -114,7 +119,8 @@ public class Container
 				stream.readBytes(encryptedData, 0, compressedLength);
 
 				crc32.update(encryptedData, 0, compressedLength);
-				byte[] decryptedData = decrypt(encryptedData, encryptedData.length, keys);
+				decrypt(encryptedData, encryptedData.length, keys);
+				byte[] decryptedData = encryptedData;
 
 				if (stream.remaining() >= 2)
 				{
@@ -127,40 +133,33 @@ public class Container
 				break;
 			}
 			case CompressionType.BZ2:
+			case CompressionType.GZ:
 			{
-				byte[] encryptedData = new byte[compressedLength + 4];
-				stream.readBytes(encryptedData);
-
-				crc32.update(encryptedData, 0, encryptedData.length);
-				byte[] decryptedData = decrypt(encryptedData, encryptedData.length, keys);
-
-				if (stream.remaining() >= 2)
+				int payloadLength = compressedLength + 4; // decompressed length + compressed data
+				if (stream.remaining() < payloadLength)
 				{
-					revision = stream.readUnsignedShort();
-					assert revision != -1;
+					throw new RuntimeException("Invalid data");
 				}
 
-				stream = new InputStream(decryptedData);
+				crc32.update(b, stream.getOffset(), payloadLength);
 
-				int decompressedLength = stream.readInt();
-				data = BZip2.decompress(stream.getRemaining(), compressedLength);
-
-				if (data == null)
+				// without keys the payload can be decompressed straight
+				// out of the input, otherwise decrypt a copy in place
+				byte[] payload;
+				int payloadOffset;
+				if (keys == null)
 				{
-					return null;
+					payload = b;
+					payloadOffset = stream.getOffset();
+					stream.skip(payloadLength);
+				}
+				else
+				{
+					payload = new byte[payloadLength];
+					payloadOffset = 0;
+					stream.readBytes(payload);
+					decrypt(payload, payloadLength, keys);
 				}
-
-				assert data.length == decompressedLength;
-
-				break;
-			}
-			case CompressionType.GZ:
-			{
-				byte[] encryptedData = new byte[compressedLength + 4];
-				stream.readBytes(encryptedData);
-
-				crc32.update(encryptedData, 0, encryptedData.length);
-				byte[] decryptedData = decrypt(encryptedData, encryptedData.length, keys);
 
 				if (stream.remaining() >= 2)
 				{
@@ -168,17 +167,16 @@ public class Container
 					assert revision != -1;
 				}
 
-				stream = new InputStream(decryptedData);
-
-				int decompressedLength = stream.readInt();
-				data = GZip.decompress(stream.getRemaining(), compressedLength);
-
-				if (data == null)
+				int decompressedLength = Ints.fromBytes(payload[payloadOffset], payload[payloadOffset + 1],
+					payload[payloadOffset + 2], payload[payloadOffset + 3]);
+				if (decompressedLength < 0)
 				{
-					return null;
+					throw new IOException("Invalid decompressed length " + decompressedLength);
 				}
 
-				assert data.length == decompressedLength;
+				data = compression == CompressionType.BZ2
+					? BZip2.decompress(payload, payloadOffset + 4, compressedLength, decompressedLength)
+					: GZip.decompress(payload, payloadOffset + 4, compressedLength, decompressedLength);
 
 				break;
 			}
@@ -192,25 +190,25 @@ public class Container
 		return container;
 	}
 
-	private static byte[] decrypt(byte[] data, int length, int[] keys)
+	private static void decrypt(byte[] data, int length, int[] keys)
 	{
 		if (keys == null)
 		{
-			return data;
+			return;
 		}
 
 		Xtea xtea = new Xtea(keys);
-		return xtea.decrypt(data, length);
+		xtea.decrypt(data, 0, length);
 	}
 
-	private static byte[] encrypt(byte[] data, int length, int[] keys)
+	private static void encrypt(byte[] data, int length, int[] keys)
 	{
 		if (keys == null)
 		{
-			return data;
+			return;
 		}
 
 		Xtea xtea = new Xtea(keys);
-		return xtea.encrypt(data, length);
+		xtea.encrypt(data, 0, length);
 	}
 }
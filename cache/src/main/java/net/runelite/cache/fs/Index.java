@@ -25,12 +25,14 @@
 package net.runelite.cache.fs;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import net.runelite.cache.index.ArchiveData;
 import net.runelite.cache.index.FileData;
 import net.runelite.cache.index.IndexData;
 import net.runelite.cache.util.Djb2;
+import net.runelite.cache.util.IntObjectMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -47,6 +49,9 @@ public class Index
 	private int compression; // compression method of this index's data in 255
 
 	private final List<Archive> archives = new ArrayList<>();
+	private final IntObjectMap<Archive> archivesById = new IntObjectMap<>();
+	// rebuilt lazily as name hashes are assigned after archives are added
+	private volatile IntObjectMap<Archive> archivesByName;
 
 	public Index(int id)
 	{
@@ -145,41 +150,92 @@ public class Index
 		this.compression = compression;
 	}
 
+	/**
+	 * Get the archives of this index. The list is read only, use
+	 * {@link #addArchive(int)} and {@link #removeArchive(Archive)} to
+	 * modify it so the id and name lookups stay in sync.
+	 */
 	public List<Archive> getArchives()
 	{
-		return archives;
+		return Collections.unmodifiableList(archives);
 	}
 
 	public Archive addArchive(int id)
 	{
 		Archive archive = new Archive(this, id);
 		this.archives.add(archive);
+		archivesById.putIfAbsent(id, archive);
+		archivesByName = null;
 		return archive;
 	}
 
-	public Archive getArchive(int id)
+	public void removeArchive(Archive archive)
 	{
-		for (Archive a : archives)
+		assert archives.contains(archive);
+		archives.remove(archive);
+
+		if (archivesById.get(archive.getArchiveId()) == archive)
 		{
-			if (a.getArchiveId() == id)
+			archivesById.remove(archive.getArchiveId());
+
+			// another archive may share the id
+			for (Archive a : archives)
 			{
-				return a;
+				if (a.getArchiveId() == archive.getArchiveId())
+				{
+					archivesById.put(a.getArchiveId(), a);
+					break;
+				}
 			}
 		}
-		return null;
+		archivesByName = null;
+	}
+
+	/**
+	 * Called by archives of this index when their name hash changes
+	 */
+	void nameHashChanged()
+	{
+		archivesByName = null;
+	}
+
+	public Archive getArchive(int id)
+	{
+		return archivesById.get(id);
 	}
 
 	public Archive findArchiveByName(String name)
 	{
 		int hash = Djb2.hash(name);
+		return findArchiveByNameHash(hash);
+	}
+
+	public Archive findArchiveByNameHash(int hash)
+	{
+		IntObjectMap<Archive> byName = archivesByName;
+		if (byName == null)
+		{
+			byName = buildNameMap();
+		}
+		return byName.get(hash);
+	}
+
+	private synchronized IntObjectMap<Archive> buildNameMap()
+	{
+		IntObjectMap<Archive> byName = archivesByName;
+		if (byName != null)
+		{
+			return byName;
+		}
+
+		byName = new IntObjectMap<>(archives.size());
 		for (Archive a : archives)
 		{
-			if (a.getNameHash() == hash)
-			{
-				return a;
-			}
+			// the first archive with a given name wins
+			byName.putIfAbsent(a.getNameHash(), a);
 		}
-		return null;
+		archivesByName = byName;
+		return byName;
 	}
 
 	public IndexData toIndexData()
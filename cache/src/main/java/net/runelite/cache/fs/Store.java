@@ -29,8 +29,14 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import net.runelite.cache.IndexType;
 import net.runelite.cache.fs.jagex.DiskStorage;
 import org.slf4j.Logger;
@@ -126,6 +132,59 @@ public final class Store implements Closeable
 		storage.save(this);
 	}
 
+	/**
+	 * Load and decompress every archive of an index in parallel. The
+	 * storage must support concurrent calls to {@link Storage#loadArchive(Archive)}.
+	 *
+	 * @param index index to load
+	 * @param executor executor to read and decompress archives on
+	 * @return map of archive to decompressed archive data, in archive order
+	 * @throws IOException
+	 */
+	public Map<Archive, byte[]> loadArchivesParallel(Index index, Executor executor) throws IOException
+	{
+		List<Archive> archives = index.getArchives();
+		List<CompletableFuture<byte[]>> futures = new ArrayList<>(archives.size());
+
+		for (Archive archive : archives)
+		{
+			futures.add(CompletableFuture.supplyAsync(() ->
+			{
+				try
+				{
+					return archive.decompress(storage.loadArchive(archive));
+				}
+				catch (IOException ex)
+				{
+					throw new CompletionException(ex);
+				}
+			}, executor));
+		}
+
+		Map<Archive, byte[]> result = new LinkedHashMap<>(archives.size());
+		for (int i = 0; i < archives.size(); ++i)
+		{
+			try
+			{
+				result.put(archives.get(i), futures.get(i).join());
+			}
+			catch (CompletionException ex)
+			{
+				if (ex.getCause() instanceof IOException)
+				{
+					throw (IOException) ex.getCause();
+				}
+				throw ex;
+			}
+		}
+		return result;
+	}
+
+	public Map<Archive, byte[]> loadArchivesParallel(Index index) throws IOException
+	{
+		return loadArchivesParallel(index, ForkJoinPool.commonPool());
+	}
+
 	public List<Index> getIndexes()
 	{
 		return indexes;
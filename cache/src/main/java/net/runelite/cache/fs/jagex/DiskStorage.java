@@ -28,6 +28,7 @@ import com.google.common.primitives.Ints;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import net.runelite.cache.fs.Archive;
@@ -51,14 +52,30 @@ public class DiskStorage implements Storage
 	private final File folder;
 
 	private final DataFile data;
+	private final MappedDataFile mappedData;
 	private final IndexFile index255;
 	private final List<IndexFile> indexFiles = new ArrayList<>();
 
+	private volatile boolean mappingStale;
+
 	public DiskStorage(File folder) throws IOException
+	{
+		this(folder, false);
+	}
+
+	/**
+	 * @param folder cache folder
+	 * @param mapped whether to read archives through a memory mapping of
+	 * the data file instead of seeking through it
+	 * @throws IOException
+	 */
+	public DiskStorage(File folder, boolean mapped) throws IOException
 	{
 		this.folder = folder;
 
-		this.data = new DataFile(new File(folder, MAIN_FILE_CACHE_DAT));
+		File dataFile = new File(folder, MAIN_FILE_CACHE_DAT);
+		this.data = new DataFile(dataFile);
+		this.mappedData = mapped ? new MappedDataFile(dataFile) : null;
 		this.index255 = new IndexFile(255, new File(folder, MAIN_FILE_CACHE_IDX + "255"));
 	}
 
@@ -78,6 +95,10 @@ public class DiskStorage implements Storage
 	public void close() throws IOException
 	{
 		data.close();
+		if (mappedData != null)
+		{
+			mappedData.close();
+		}
 		index255.close();
 		for (IndexFile indexFile : indexFiles)
 		{
@@ -85,7 +106,7 @@ public class DiskStorage implements Storage
 		}
 	}
 
-	private IndexFile getIndex(int i) throws FileNotFoundException
+	private synchronized IndexFile getIndex(int i) throws FileNotFoundException
 	{
 		for (IndexFile indexFile : indexFiles)
 		{
@@ -112,10 +133,52 @@ public class DiskStorage implements Storage
 	public byte[] readIndex(int indexId) throws IOException
 	{
 		IndexEntry entry = index255.read(indexId);
-		byte[] indexData = data.read(index255.getIndexFileId(), entry.getId(), entry.getSector(), entry.getLength());
+		byte[] indexData = readData(index255.getIndexFileId(), entry.getId(), entry.getSector(), entry.getLength());
 		return indexData;
 	}
 
+	private byte[] readData(int indexId, int archiveId, int sector, int length) throws IOException
+	{
+		if (mappedData == null)
+		{
+			return data.read(indexId, archiveId, sector, length);
+		}
+
+		return getMappedData().read(indexId, archiveId, sector, length);
+	}
+
+	private MappedDataFile getMappedData() throws IOException
+	{
+		if (mappingStale)
+		{
+			synchronized (mappedData)
+			{
+				// sectors have been appended since the file was mapped. the
+				// flag is only cleared once the new mapping is in place, so
+				// other readers can't read through the old one
+				if (mappingStale)
+				{
+					mappedData.remap();
+					mappingStale = false;
+				}
+			}
+		}
+		return mappedData;
+	}
+
+	private void markMappingStale()
+	{
+		if (mappedData != null)
+		{
+			// taken under the remap lock so a remap in progress, which may
+			// not cover this write, can't clear it afterwards
+			synchronized (mappedData)
+			{
+				mappingStale = true;
+			}
+		}
+	}
+
 	private void loadIndex(Index index) throws IOException
 	{
 		logger.trace("Loading index {}", index.getId());
@@ -149,6 +212,45 @@ public class DiskStorage implements Storage
 
 	@Override
 	public byte[] loadArchive(Archive archive) throws IOException
+	{
+		IndexEntry entry = findArchive(archive);
+		if (entry == null)
+		{
+			return null;
+		}
+
+		byte[] archiveData = readData(archive.getIndex().getId(), entry.getId(), entry.getSector(), entry.getLength());
+		return archiveData;
+	}
+
+	/**
+	 * Load an archive as a sequence of read only buffers. When the data file
+	 * is mapped these are slices of the mapping, one per sector, so nothing
+	 * is copied; otherwise the archive is read as by
+	 * {@link #loadArchive(Archive)} and returned as a single buffer.
+	 *
+	 * @param archive archive to load
+	 * @return the archive data, or null if it could not be read
+	 * @throws IOException
+	 */
+	public ByteBuffer[] loadArchiveBuffers(Archive archive) throws IOException
+	{
+		if (mappedData == null)
+		{
+			byte[] archiveData = loadArchive(archive);
+			return archiveData == null ? null : new ByteBuffer[]{ByteBuffer.wrap(archiveData).asReadOnlyBuffer()};
+		}
+
+		IndexEntry entry = findArchive(archive);
+		if (entry == null)
+		{
+			return null;
+		}
+
+		return getMappedData().readSectors(archive.getIndex().getId(), entry.getId(), entry.getSector(), entry.getLength());
+	}
+
+	private IndexEntry findArchive(Archive archive) throws IOException
 	{
 		Index index = archive.getIndex();
 		IndexFile indexFile = getIndex(index.getId());
@@ -167,8 +269,7 @@ public class DiskStorage implements Storage
 		logger.trace("Loading archive {} for index {} from sector {} length {}",
 			archive.getArchiveId(), index.getId(), entry.getSector(), entry.getLength());
 
-		byte[] archiveData = data.read(index.getId(), entry.getId(), entry.getSector(), entry.getLength());
-		return archiveData;
+		return entry;
 	}
 
 	@Override
@@ -191,6 +292,7 @@ public class DiskStorage implements Storage
 		container.compress(data, null);
 		byte[] compressedData = container.data;
 		DataFileWriteResult res = this.data.write(index255.getIndexFileId(), index.getId(), compressedData);
+		markMappingStale();
 
 		index255.write(new IndexEntry(index255, index.getId(), res.sector, res.compressedLength));
 
@@ -207,6 +309,7 @@ public class DiskStorage implements Storage
 		assert indexFile.getIndexFileId() == index.getId();
 
 		DataFileWriteResult res = data.write(index.getId(), a.getArchiveId(), archiveData);
+		markMappingStale();
 		indexFile.write(new IndexEntry(indexFile, a.getArchiveId(), res.sector, res.compressedLength));
 
 		byte compression = archiveData[0];
@@ -29,6 +29,8 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.Objects;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,7 +44,7 @@ public class IndexFile implements Closeable
 	private final int indexFileId;
 	private final File file;
 	private final RandomAccessFile idx;
-	private final byte[] buffer = new byte[INDEX_ENTRY_LEN];
+	private final byte[] writeBuffer = new byte[INDEX_ENTRY_LEN];
 
 	public IndexFile(int indexFileId, File file) throws FileNotFoundException
 	{
@@ -98,21 +100,33 @@ public class IndexFile implements Closeable
 	{
 		idx.seek(entry.getId() * INDEX_ENTRY_LEN);
 
-		buffer[0] = (byte) (entry.getLength() >> 16);
-		buffer[1] = (byte) (entry.getLength() >> 8);
-		buffer[2] = (byte) entry.getLength();
+		writeBuffer[0] = (byte) (entry.getLength() >> 16);
+		writeBuffer[1] = (byte) (entry.getLength() >> 8);
+		writeBuffer[2] = (byte) entry.getLength();
 
-		buffer[3] = (byte) (entry.getSector() >> 16);
-		buffer[4] = (byte) (entry.getSector() >> 8);
-		buffer[5] = (byte) entry.getSector();
+		writeBuffer[3] = (byte) (entry.getSector() >> 16);
+		writeBuffer[4] = (byte) (entry.getSector() >> 8);
+		writeBuffer[5] = (byte) entry.getSector();
 
-		idx.write(buffer);
+		idx.write(writeBuffer);
 	}
 
-	public synchronized IndexEntry read(int id) throws IOException
+	public IndexEntry read(int id) throws IOException
 	{
-		idx.seek(id * INDEX_ENTRY_LEN);
-		int i = idx.read(buffer);
+		// positional read, so this can be called concurrently with other reads
+		byte[] buffer = new byte[INDEX_ENTRY_LEN];
+		ByteBuffer buf = ByteBuffer.wrap(buffer);
+		FileChannel channel = idx.getChannel();
+		long position = (long) id * INDEX_ENTRY_LEN;
+		while (buf.hasRemaining())
+		{
+			if (channel.read(buf, position + buf.position()) == -1)
+			{
+				break;
+			}
+		}
+
+		int i = buf.position();
 		if (i != INDEX_ENTRY_LEN)
 		{
 			logger.debug("short read for id {} on index {}: {}", id, indexFileId, i);
@@ -0,0 +1,285 @@
+/*
+ * Copyright (c) 2019, liam909 <https://github.com/liam909>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.fs.jagex;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A read only view of main_file_cache.dat2 which walks sector chains
+ * directly over a memory mapping of the file, instead of seeking and
+ * reading each sector through a {@link RandomAccessFile}.
+ */
+public class MappedDataFile implements Closeable
+{
+	private static final Logger logger = LoggerFactory.getLogger(MappedDataFile.class);
+
+	private static final int SECTOR_SIZE = 520;
+
+	private final RandomAccessFile dat;
+	private volatile MappedByteBuffer buffer;
+
+	public MappedDataFile(File file) throws IOException
+	{
+		this.dat = new RandomAccessFile(file, "r");
+		remap();
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		buffer = null;
+		dat.close();
+	}
+
+	/**
+	 * Remaps the data file, picking up any sectors which have been
+	 * appended to it since it was last mapped.
+	 *
+	 * @throws IOException
+	 */
+	public synchronized void remap() throws IOException
+	{
+		long length = dat.length();
+		if (length > Integer.MAX_VALUE)
+		{
+			throw new IOException("data file is too large to map: " + length);
+		}
+
+		buffer = dat.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, length);
+	}
+
+	/**
+	 * Read an archive into a newly allocated array
+	 *
+	 * @param indexId expected index of archive of contents being read
+	 * @param archiveId expected archive of contents being read
+	 * @param sector sector to start reading at
+	 * @param size size of file
+	 * @return the archive data, or null if it could not be read
+	 */
+	public byte[] read(int indexId, int archiveId, int sector, int size)
+	{
+		byte[] out = new byte[size];
+		if (!read(indexId, archiveId, sector, size, out, 0))
+		{
+			return null;
+		}
+		return out;
+	}
+
+	/**
+	 * Read an archive into a caller supplied array, allowing the caller
+	 * to reuse (pool) the destination buffer between reads.
+	 *
+	 * @param indexId expected index of archive of contents being read
+	 * @param archiveId expected archive of contents being read
+	 * @param sector sector to start reading at
+	 * @param size size of file
+	 * @param out destination array
+	 * @param offset offset into the destination array
+	 * @return true if the archive was read successfully
+	 */
+	public boolean read(int indexId, int archiveId, int sector, int size, byte[] out, int offset)
+	{
+		if (out.length - offset < size)
+		{
+			throw new IllegalArgumentException("buffer too small for archive of size " + size);
+		}
+
+		return walk(indexId, archiveId, sector, size, (buf, pos, length, readBytesCount) ->
+		{
+			buf.position(pos);
+			buf.get(out, offset + readBytesCount, length);
+		});
+	}
+
+	/**
+	 * Read an archive as one read only slice of the mapping per sector,
+	 * without copying any of it. The slices are in order and together
+	 * hold exactly {@code size} bytes.
+	 *
+	 * @param indexId expected index of archive of contents being read
+	 * @param archiveId expected archive of contents being read
+	 * @param sector sector to start reading at
+	 * @param size size of file
+	 * @return the sector slices, or null if the archive could not be read
+	 */
+	public ByteBuffer[] readSectors(int indexId, int archiveId, int sector, int size)
+	{
+		int headerSize = archiveId > 0xFFFF ? 10 : 8;
+		int dataSize = SECTOR_SIZE - headerSize;
+		ByteBuffer[] slices = new ByteBuffer[(size + dataSize - 1) / dataSize];
+
+		boolean ok = walk(indexId, archiveId, sector, size, (buf, pos, length, readBytesCount) ->
+		{
+			buf.position(pos);
+			buf.limit(pos + length);
+			slices[readBytesCount / dataSize] = buf.slice().asReadOnlyBuffer();
+			buf.limit(buf.capacity());
+		});
+		return ok ? slices : null;
+	}
+
+	@FunctionalInterface
+	private interface SectorVisitor
+	{
+		void visit(ByteBuffer buf, int pos, int length, int readBytesCount);
+	}
+
+	/**
+	 * Walk the sector chain of an archive, validating each sector header
+	 * and passing the position of its data to the visitor.
+	 */
+	private boolean walk(int indexId, int archiveId, int sector, int size, SectorVisitor visitor)
+	{
+		// duplicate so concurrent readers each get their own position
+		ByteBuffer buf = buffer.duplicate();
+		int sectors = buf.capacity() / SECTOR_SIZE;
+
+		if (sector <= 0 || sectors < sector)
+		{
+			logger.warn("bad read, dat length {}, requested sector {}", buf.capacity(), sector);
+			return false;
+		}
+
+		final boolean extended = archiveId > 0xFFFF;
+		final int headerSize = extended ? 10 : 8;
+
+		for (int part = 0, readBytesCount = 0, nextSector;
+			size > readBytesCount;
+			sector = nextSector)
+		{
+			if (sector == 0)
+			{
+				logger.warn("Unexpected end of file");
+				return false;
+			}
+
+			int dataBlockSize = Math.min(size - readBytesCount, SECTOR_SIZE - headerSize);
+			int pos = sector * SECTOR_SIZE;
+			if (pos + headerSize + dataBlockSize > buf.capacity())
+			{
+				logger.warn("Short read when reading file data for {}/{}", indexId, archiveId);
+				return false;
+			}
+
+			int currentArchive;
+			int currentPart;
+			int currentIndex;
+			if (extended)
+			{
+				currentArchive = buf.getInt(pos);
+				currentPart = buf.getShort(pos + 4) & 0xFFFF;
+				nextSector = ((buf.get(pos + 6) & 0xFF) << 16)
+					| (buf.getShort(pos + 7) & 0xFFFF);
+				currentIndex = buf.get(pos + 9) & 0xFF;
+			}
+			else
+			{
+				currentArchive = buf.getShort(pos) & 0xFFFF;
+				currentPart = buf.getShort(pos + 2) & 0xFFFF;
+				nextSector = ((buf.get(pos + 4) & 0xFF) << 16)
+					| (buf.getShort(pos + 5) & 0xFFFF);
+				currentIndex = buf.get(pos + 7) & 0xFF;
+			}
+
+			if (archiveId != currentArchive || currentPart != part || indexId != currentIndex)
+			{
+				logger.warn("data mismatch {} != {}, {} != {}, {} != {}",
+					archiveId, currentArchive,
+					part, currentPart,
+					indexId, currentIndex);
+				return false;
+			}
+
+			if (nextSector < 0 || sectors < nextSector)
+			{
+				logger.warn("Invalid next sector");
+				return false;
+			}
+
+			visitor.visit(buf, pos + headerSize, dataBlockSize, readBytesCount);
+			readBytesCount += dataBlockSize;
+
+			++part;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Read an archive as a read only buffer. Archives which fit in a single
+	 * sector are returned as a slice of the mapping without copying, larger
+	 * archives are split across sectors and have to be copied out.
+	 *
+	 * @param indexId expected index of archive of contents being read
+	 * @param archiveId expected archive of contents being read
+	 * @param sector sector to start reading at
+	 * @param size size of file
+	 * @return the archive data, or null if it could not be read
+	 */
+	public ByteBuffer readBuffer(int indexId, int archiveId, int sector, int size)
+	{
+		int headerSize = archiveId > 0xFFFF ? 10 : 8;
+		if (size > SECTOR_SIZE - headerSize)
+		{
+			byte[] data = read(indexId, archiveId, sector, size);
+			return data == null ? null : ByteBuffer.wrap(data).asReadOnlyBuffer();
+		}
+
+		ByteBuffer buf = buffer.duplicate();
+		long pos = (long) sector * SECTOR_SIZE;
+		if (sector <= 0 || pos + headerSize + size > buf.capacity())
+		{
+			logger.warn("bad read, dat length {}, requested sector {}", buf.capacity(), sector);
+			return null;
+		}
+
+		int p = (int) pos;
+		int currentArchive = headerSize == 10 ? buf.getInt(p) : buf.getShort(p) & 0xFFFF;
+		int currentPart = buf.getShort(p + headerSize - 6) & 0xFFFF;
+		int currentIndex = buf.get(p + headerSize - 1) & 0xFF;
+		if (archiveId != currentArchive || currentPart != 0 || indexId != currentIndex)
+		{
+			logger.warn("data mismatch {} != {}, {} != {}, {} != {}",
+				archiveId, currentArchive,
+				0, currentPart,
+				indexId, currentIndex);
+			return null;
+		}
+
+		buf.position(p + headerSize);
+		buf.limit(p + headerSize + size);
+		return buf.slice().asReadOnlyBuffer();
+	}
+}
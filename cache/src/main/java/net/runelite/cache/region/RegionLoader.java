@@ -24,10 +24,21 @@
  */
 package net.runelite.cache.region;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import net.runelite.cache.IndexType;
 import net.runelite.cache.definitions.LocationsDefinition;
 import net.runelite.cache.definitions.MapDefinition;
@@ -51,7 +62,10 @@ public class RegionLoader
 	private final Index index;
 	private final XteaKeyManager keyManager;
 
-	private final Map<Integer, Region> regions = new HashMap<>();
+	private final Map<Integer, Region> regions = new ConcurrentHashMap<>();
+	// lazy mode: ids of regions which exist, and the regions decoded so far
+	private List<Integer> regionIds;
+	private LoadingCache<Integer, Region> regionCache;
 	private Region lowestX = null, lowestY = null;
 	private Region highestX = null, highestY = null;
 
@@ -75,6 +89,133 @@ public class RegionLoader
 		}
 	}
 
+	/**
+	 * Load all regions, decoding them concurrently on the given executor
+	 *
+	 * @param executor
+	 * @throws IOException
+	 */
+	public void loadRegions(Executor executor) throws IOException
+	{
+		List<CompletableFuture<Void>> futures = new ArrayList<>();
+
+		// one task per column of 256 regions
+		for (int x = 0; x < MAX_REGION; x += 256)
+		{
+			final int start = x;
+			futures.add(CompletableFuture.runAsync(() ->
+			{
+				for (int i = start; i < start + 256; ++i)
+				{
+					try
+					{
+						Region region = loadRegionFromArchive(i);
+						if (region != null)
+						{
+							regions.put(i, region);
+						}
+					}
+					catch (IOException ex)
+					{
+						throw new CompletionException(ex);
+					}
+				}
+			}, executor));
+		}
+
+		try
+		{
+			CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+		}
+		catch (CompletionException ex)
+		{
+			if (ex.getCause() instanceof IOException)
+			{
+				throw (IOException) ex.getCause();
+			}
+			throw ex;
+		}
+	}
+
+	/**
+	 * Find which regions exist without decoding them. Regions are then
+	 * decoded on first access through {@link #getRegion(int)}, and at most
+	 * maxLoaded decoded regions are kept.
+	 *
+	 * @param maxLoaded maximum number of decoded regions to keep
+	 */
+	public void indexRegions(int maxLoaded)
+	{
+		List<Integer> ids = new ArrayList<>();
+		for (int i = 0; i < MAX_REGION; ++i)
+		{
+			int x = i >> 8;
+			int y = i & 0xFF;
+
+			if (index.findArchiveByName("m" + x + "_" + y) != null
+				&& index.findArchiveByName("l" + x + "_" + y) != null)
+			{
+				ids.add(i);
+			}
+		}
+
+		regionIds = Collections.unmodifiableList(ids);
+		regionCache = CacheBuilder.newBuilder()
+			.maximumSize(maxLoaded)
+			.build(new CacheLoader<Integer, Region>()
+			{
+				@Override
+				public Region load(Integer id) throws IOException
+				{
+					return loadRegionFromArchive(id);
+				}
+			});
+
+		logger.debug("Indexed {} regions", ids.size());
+	}
+
+	/**
+	 * Get a region, decoding it if regions are being loaded lazily
+	 *
+	 * @param id region id
+	 * @return the region, or null if it does not exist
+	 */
+	public Region getRegion(int id)
+	{
+		if (regionCache == null)
+		{
+			return regions.get(id);
+		}
+
+		if (Collections.binarySearch(regionIds, id) < 0)
+		{
+			return null;
+		}
+
+		try
+		{
+			return regionCache.getUnchecked(id);
+		}
+		catch (UncheckedExecutionException ex)
+		{
+			if (ex.getCause() instanceof IOException)
+			{
+				throw new UncheckedIOException((IOException) ex.getCause());
+			}
+			throw ex;
+		}
+	}
+
+	/**
+	 * Ids of all regions, whether or not they have been decoded
+	 *
+	 * @return
+	 */
+	public Collection<Integer> getRegionIds()
+	{
+		return regionCache != null ? regionIds : regions.keySet();
+	}
+
 	public Region loadRegionFromArchive(int i) throws IOException
 	{
 		int x = i >> 8;
@@ -118,6 +259,12 @@ public class RegionLoader
 
 	public void calculateBounds()
 	{
+		if (regionCache != null)
+		{
+			calculateLazyBounds();
+			return;
+		}
+
 		for (Region region : regions.values())
 		{
 			if (lowestX == null || region.getBaseX() < lowestX.getBaseX())
@@ -142,8 +289,55 @@ public class RegionLoader
 		}
 	}
 
+	private void calculateLazyBounds()
+	{
+		// region ids are x << 8 | y, so the bounds can be found
+		// without decoding every region
+		int lowX = -1, highX = -1, lowY = -1, highY = -1;
+		for (int id : regionIds)
+		{
+			int x = id >> 8;
+			int y = id & 0xFF;
+
+			if (lowX == -1 || x < lowX >> 8)
+			{
+				lowX = id;
+			}
+			if (highX == -1 || x > highX >> 8)
+			{
+				highX = id;
+			}
+			if (lowY == -1 || y < (lowY & 0xFF))
+			{
+				lowY = id;
+			}
+			if (highY == -1 || y > (highY & 0xFF))
+			{
+				highY = id;
+			}
+		}
+
+		if (lowX != -1)
+		{
+			lowestX = getRegion(lowX);
+			highestX = getRegion(highX);
+			lowestY = getRegion(lowY);
+			highestY = getRegion(highY);
+		}
+	}
+
+	/**
+	 * Get the loaded regions. When regions are loaded lazily this is only
+	 * the regions which are currently decoded, see {@link #getRegionIds()}.
+	 *
+	 * @return
+	 */
 	public Collection<Region> getRegions()
 	{
+		if (regionCache != null)
+		{
+			return Collections.unmodifiableCollection(regionCache.asMap().values());
+		}
 		return regions.values();
 	}
 
@@ -151,7 +345,7 @@ public class RegionLoader
 	{
 		x >>>= 6;
 		y >>>= 6;
-		return regions.get((x << 8) | y);
+		return getRegion((x << 8) | y);
 	}
 
 	public Region getLowestX()
@@ -24,6 +24,7 @@
  */
 package net.runelite.cache.util;
 
+import com.google.common.io.ByteStreams;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
@@ -40,6 +41,8 @@ public class BZip2
 {
 	private static final Logger logger = LoggerFactory.getLogger(BZip2.class);
 
+	private static final int MAX_DECOMPRESSED_LENGTH = 64 * 1024 * 1024;
+
 	private static final byte[] BZIP_HEADER = new byte[]
 	{
 		'B', 'Z', // magic
@@ -47,6 +50,16 @@ public class BZip2
 		'1'       // block size
 	};
 
+	private static final byte[] BLOCK_MAGIC = new byte[]
+	{
+		0x31, 0x41, 0x59, 0x26, 0x53, 0x59 // pi
+	};
+
+	private static final byte[] EOS_MAGIC = new byte[]
+	{
+		0x17, 0x72, 0x45, 0x38, 0x50, (byte) 0x90 // sqrt(pi)
+	};
+
 	public static byte[] compress(byte[] bytes) throws IOException
 	{
 		InputStream is = new ByteArrayInputStream(bytes);
@@ -66,21 +79,130 @@ public class BZip2
 		return Arrays.copyOfRange(out, BZIP_HEADER.length, out.length); // remove header..
 	}
 
-	public static byte[] decompress(byte[] bytes, int len) throws IOException
+	/**
+	 * Decompress headerless bzip2 data of a known decompressed length
+	 *
+	 * @param in compressed data, without the bzip2 header
+	 * @param off offset of the compressed data
+	 * @param len length of the compressed data
+	 * @param decompressedLength decompressed length
+	 * @return
+	 * @throws IOException
+	 */
+	public static byte[] decompress(byte[] in, int off, int len, int decompressedLength) throws IOException
 	{
-		byte[] data = new byte[len + BZIP_HEADER.length];
+		// check the data looks like bzip2 before trusting the length,
+		// which is garbage if the data was decrypted with the wrong keys
+		if (len < BLOCK_MAGIC.length
+			|| (!startsWith(in, off, BLOCK_MAGIC) && !startsWith(in, off, EOS_MAGIC)))
+		{
+			throw new IOException("Stream is not in the BZip2 format");
+		}
 
-		// add header
-		System.arraycopy(BZIP_HEADER, 0, data, 0, BZIP_HEADER.length);
-		System.arraycopy(bytes, 0, data, BZIP_HEADER.length, len);
+		if (decompressedLength < 0 || decompressedLength > MAX_DECOMPRESSED_LENGTH)
+		{
+			throw new IOException("Invalid decompressed length " + decompressedLength);
+		}
 
-		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		byte[] out = new byte[decompressedLength];
+		decompress(in, off, len, out, 0, decompressedLength);
+		return out;
+	}
 
-		try (InputStream is = new BZip2CompressorInputStream(new ByteArrayInputStream(data)))
+	private static boolean startsWith(byte[] in, int off, byte[] magic)
+	{
+		for (int i = 0; i < magic.length; ++i)
 		{
-			IOUtils.copy(is, os);
+			if (in[off + i] != magic[i])
+			{
+				return false;
+			}
 		}
+		return true;
+	}
 
-		return os.toByteArray();
+	/**
+	 * Decompress headerless bzip2 data of a known decompressed length
+	 * directly into an output buffer, without copying the input.
+	 *
+	 * @param in compressed data, without the bzip2 header
+	 * @param off offset of the compressed data
+	 * @param len length of the compressed data
+	 * @param out buffer to decompress into
+	 * @param outOff offset into out
+	 * @param outLen decompressed length
+	 * @throws IOException if the data is invalid or does not decompress to exactly outLen bytes
+	 */
+	public static void decompress(byte[] in, int off, int len, byte[] out, int outOff, int outLen) throws IOException
+	{
+		try (InputStream is = new BZip2CompressorInputStream(new HeaderInputStream(in, off, len)))
+		{
+			ByteStreams.readFully(is, out, outOff, outLen);
+
+			if (is.read() != -1)
+			{
+				throw new IOException("Data decompresses to more than " + outLen + " bytes");
+			}
+		}
+	}
+
+	/**
+	 * Stream of the bzip2 header followed by a region of an array,
+	 * so the header doesn't have to be copied in front of the data
+	 */
+	private static class HeaderInputStream extends InputStream
+	{
+		private final byte[] data;
+		private final int end;
+		private int headerPos;
+		private int pos;
+
+		HeaderInputStream(byte[] data, int off, int len)
+		{
+			this.data = data;
+			this.pos = off;
+			this.end = off + len;
+		}
+
+		@Override
+		public int read()
+		{
+			if (headerPos < BZIP_HEADER.length)
+			{
+				return BZIP_HEADER[headerPos++] & 0xFF;
+			}
+			return pos < end ? data[pos++] & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len)
+		{
+			if (len == 0)
+			{
+				return 0;
+			}
+
+			int n = 0;
+			while (headerPos < BZIP_HEADER.length && n < len)
+			{
+				b[off + n++] = BZIP_HEADER[headerPos++];
+			}
+
+			int count = Math.min(len - n, end - pos);
+			if (count <= 0)
+			{
+				return n == 0 ? -1 : n;
+			}
+
+			System.arraycopy(data, pos, b, off + n, count);
+			pos += count;
+			return n + count;
+		}
+
+		@Override
+		public int available()
+		{
+			return BZIP_HEADER.length - headerPos + end - pos;
+		}
 	}
 }
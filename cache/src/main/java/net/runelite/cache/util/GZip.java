@@ -25,6 +25,7 @@
 
 package net.runelite.cache.util;
 
+import com.google.common.io.ByteStreams;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
@@ -32,6 +33,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
 import org.apache.commons.compress.utils.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -40,6 +42,8 @@ public class GZip
 {
 	private static final Logger logger = LoggerFactory.getLogger(GZip.class);
 
+	private static final int MAX_DECOMPRESSED_LENGTH = 64 * 1024 * 1024;
+
 	public static byte[] compress(byte[] bytes) throws IOException
 	{
 		InputStream is = new ByteArrayInputStream(bytes);
@@ -53,15 +57,57 @@ public class GZip
 		return bout.toByteArray();
 	}
 
-	public static byte[] decompress(byte[] bytes, int len) throws IOException
+	/**
+	 * Decompress gzip data of a known decompressed length
+	 *
+	 * @param in compressed data
+	 * @param off offset of the compressed data
+	 * @param len length of the compressed data
+	 * @param decompressedLength decompressed length
+	 * @return
+	 * @throws IOException
+	 */
+	public static byte[] decompress(byte[] in, int off, int len, int decompressedLength) throws IOException
 	{
-		ByteArrayOutputStream os = new ByteArrayOutputStream();
-		
-		try (InputStream is = new GZIPInputStream(new ByteArrayInputStream(bytes, 0, len)))
+		// check the data looks like gzip before trusting the length,
+		// which is garbage if the data was decrypted with the wrong keys
+		if (len < 2 || (in[off] & 0xFF) != 0x1F || (in[off + 1] & 0xFF) != 0x8B)
 		{
-			IOUtils.copy(is, os);
+			throw new ZipException("Not in GZIP format");
+		}
+
+		if (decompressedLength < 0 || decompressedLength > MAX_DECOMPRESSED_LENGTH)
+		{
+			throw new IOException("Invalid decompressed length " + decompressedLength);
 		}
 
-		return os.toByteArray();
+		byte[] out = new byte[decompressedLength];
+		decompress(in, off, len, out, 0, decompressedLength);
+		return out;
+	}
+
+	/**
+	 * Decompress gzip data of a known decompressed length directly into
+	 * an output buffer, without copying the input.
+	 *
+	 * @param in compressed data
+	 * @param off offset of the compressed data
+	 * @param len length of the compressed data
+	 * @param out buffer to decompress into
+	 * @param outOff offset into out
+	 * @param outLen decompressed length
+	 * @throws IOException if the data is invalid or does not decompress to exactly outLen bytes
+	 */
+	public static void decompress(byte[] in, int off, int len, byte[] out, int outOff, int outLen) throws IOException
+	{
+		try (InputStream is = new GZIPInputStream(new ByteArrayInputStream(in, off, len)))
+		{
+			ByteStreams.readFully(is, out, outOff, outLen);
+
+			if (is.read() != -1)
+			{
+				throw new IOException("Data decompresses to more than " + outLen + " bytes");
+			}
+		}
 	}
 }
@@ -25,9 +25,14 @@
 package net.runelite.cache.fs;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Random;
+import static net.runelite.cache.fs.jagex.CompressionType.BZ2;
 import static net.runelite.cache.fs.jagex.CompressionType.GZ;
+import static net.runelite.cache.fs.jagex.CompressionType.NONE;
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 import org.junit.Test;
 
 public class ContainerTest
@@ -52,4 +57,77 @@ public class ContainerTest
 		assertArrayEquals(data, container.data);
 	}
 
+	@Test
+	public void testRoundTrip() throws IOException
+	{
+		int[] keys = new int[]
+		{
+			4, 8, 15, 16
+		};
+		Random random = new Random(42L);
+		byte[] data = new byte[4096];
+		for (int i = 0; i < data.length; ++i)
+		{
+			data[i] = (byte) random.nextInt(8);
+		}
+		byte[] copy = data.clone();
+
+		for (int compression : new int[]{NONE, BZ2, GZ})
+		{
+			for (int[] k : new int[][]{null, keys})
+			{
+				Container container = new Container(compression, 42);
+				container.compress(data, k);
+				// input must not be modified
+				assertArrayEquals(copy, data);
+
+				Container decompressed = Container.decompress(container.data, k);
+				assertArrayEquals(data, decompressed.data);
+				assertEquals(42, decompressed.revision);
+			}
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void testWrongKeys() throws IOException
+	{
+		byte[] data = new byte[1024];
+		new Random(42L).nextBytes(data);
+
+		Container container = new Container(BZ2, -1);
+		container.compress(data, new int[]{4, 8, 15, 16});
+
+		Container.decompress(container.data, new int[]{1, 2, 3, 4});
+	}
+
+	@Test
+	public void testBadDecompressedLength() throws IOException
+	{
+		byte[] data = new byte[1024];
+		new Random(42L).nextBytes(data);
+
+		for (int compression : new int[]{BZ2, GZ})
+		{
+			// too large to allocate, longer than the data, and shorter than the data
+			for (int length : new int[]{Integer.MAX_VALUE - 8, data.length + 1, data.length - 1})
+			{
+				Container container = new Container(compression, -1);
+				container.compress(data, null);
+				byte[] compressed = container.data;
+				// compression type, then compressed and decompressed length
+				ByteBuffer.wrap(compressed).putInt(5, length);
+
+				try
+				{
+					Container.decompress(compressed, null);
+					fail("decompressed with length " + length);
+				}
+				catch (IOException ex)
+				{
+					// expected
+				}
+			}
+		}
+	}
+
 }
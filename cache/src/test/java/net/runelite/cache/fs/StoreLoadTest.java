@@ -27,6 +27,10 @@ package net.runelite.cache.fs;
 import com.google.common.io.Files;
 import java.io.File;
 import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import net.runelite.cache.IndexType;
 import net.runelite.cache.StoreLocation;
 import org.junit.Assert;
 import org.junit.Rule;
@@ -47,6 +51,30 @@ public class StoreLoadTest
 		}
 	}
 
+	@Test
+	public void testLoadArchivesParallel() throws IOException
+	{
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try (Store store = new Store(StoreLocation.LOCATION))
+		{
+			store.load();
+
+			Index index = store.getIndex(IndexType.SPRITES);
+			Map<Archive, byte[]> archives = store.loadArchivesParallel(index, executor);
+
+			Assert.assertEquals(index.getArchives().size(), archives.size());
+			for (Archive archive : index.getArchives())
+			{
+				byte[] data = archive.decompress(store.getStorage().loadArchive(archive));
+				Assert.assertArrayEquals(data, archives.get(archive));
+			}
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+	}
+
 	@Test
 	public void testSave() throws IOException
 	{
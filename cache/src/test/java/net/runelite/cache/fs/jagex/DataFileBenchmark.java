@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2019, liam909 <https://github.com/liam909>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.fs.jagex;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.runelite.cache.StoreLocation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares reading every archive of the test cache through
+ * {@link DataFile} and {@link MappedDataFile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DataFileBenchmark
+{
+	private DataFile dataFile;
+	private MappedDataFile mappedDataFile;
+	private final List<IndexFile> indexFiles = new ArrayList<>();
+	private final List<IndexEntry> entries = new ArrayList<>();
+	private byte[] pool;
+
+	@Setup
+	public void setup() throws IOException
+	{
+		File base = StoreLocation.LOCATION;
+		File dat = new File(base, "main_file_cache.dat2");
+
+		dataFile = new DataFile(dat);
+		mappedDataFile = new MappedDataFile(dat);
+
+		int maxLength = 0;
+		try (IndexFile index255 = new IndexFile(255, new File(base, "main_file_cache.idx255")))
+		{
+			for (int i = 0; i < index255.getIndexCount(); ++i)
+			{
+				IndexFile indexFile = new IndexFile(i, new File(base, "main_file_cache.idx" + i));
+				indexFiles.add(indexFile);
+				for (int j = 0; j < indexFile.getIndexCount(); ++j)
+				{
+					IndexEntry entry = indexFile.read(j);
+					if (entry != null)
+					{
+						entries.add(entry);
+						maxLength = Math.max(maxLength, entry.getLength());
+					}
+				}
+			}
+		}
+
+		pool = new byte[maxLength];
+	}
+
+	@TearDown
+	public void teardown() throws IOException
+	{
+		dataFile.close();
+		mappedDataFile.close();
+		for (IndexFile indexFile : indexFiles)
+		{
+			indexFile.close();
+		}
+	}
+
+	@Benchmark
+	public void randomAccessFile(Blackhole bh) throws IOException
+	{
+		for (IndexEntry entry : entries)
+		{
+			bh.consume(dataFile.read(entry.getIndexFile().getIndexFileId(), entry.getId(), entry.getSector(), entry.getLength()));
+		}
+	}
+
+	@Benchmark
+	public void mapped(Blackhole bh)
+	{
+		for (IndexEntry entry : entries)
+		{
+			bh.consume(mappedDataFile.read(entry.getIndexFile().getIndexFileId(), entry.getId(), entry.getSector(), entry.getLength()));
+		}
+	}
+
+	@Benchmark
+	public void mappedPooled(Blackhole bh)
+	{
+		for (IndexEntry entry : entries)
+		{
+			bh.consume(mappedDataFile.read(entry.getIndexFile().getIndexFileId(), entry.getId(), entry.getSector(), entry.getLength(), pool, 0));
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException
+	{
+		new Runner(new OptionsBuilder()
+			.include(DataFileBenchmark.class.getSimpleName())
+			.build()).run();
+	}
+}
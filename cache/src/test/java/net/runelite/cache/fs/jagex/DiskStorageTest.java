@@ -25,6 +25,8 @@
 package net.runelite.cache.fs.jagex;
 
 import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.Random;
 import net.runelite.cache.StoreLocation;
 import net.runelite.cache.fs.Archive;
 import net.runelite.cache.fs.Container;
@@ -99,4 +101,36 @@ public class DiskStorageTest
 		}
 	}
 
+	@Test
+	public void testLoadArchiveBuffers() throws Exception
+	{
+		byte[] data = new byte[2000];
+		new Random(42).nextBytes(data);
+
+		File file = folder.newFolder();
+		for (boolean mapped : new boolean[]{true, false})
+		{
+			DiskStorage storage = new DiskStorage(file, mapped);
+			try (Store store = new Store(storage))
+			{
+				Index index = store.addIndex(0);
+				Archive archive = index.addArchive(0);
+
+				Container container = new Container(CompressionType.NONE, -1);
+				container.compress(data, null);
+				storage.saveArchive(archive, container.data);
+
+				ByteBuffer[] buffers = storage.loadArchiveBuffers(archive);
+				assertEquals(mapped ? 4 : 1, buffers.length);
+
+				ByteBuffer out = ByteBuffer.allocate(container.data.length);
+				for (ByteBuffer buffer : buffers)
+				{
+					out.put(buffer);
+				}
+				assertArrayEquals(container.data, out.array());
+				assertArrayEquals(storage.loadArchive(archive), out.array());
+			}
+		}
+	}
 }
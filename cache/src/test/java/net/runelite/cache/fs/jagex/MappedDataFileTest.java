@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2019, liam909 <https://github.com/liam909>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.fs.jagex;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import net.runelite.cache.StoreLocation;
+import net.runelite.cache.fs.Container;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MappedDataFileTest
+{
+	@Rule
+	public TemporaryFolder folder = StoreLocation.getTemporaryFolder();
+
+	@Test
+	public void testRead() throws IOException
+	{
+		File file = folder.newFile();
+
+		Container container = new Container(CompressionType.NONE, 0);
+		container.compress("test".getBytes(), null);
+		byte[] compressedData = container.data;
+
+		DataFileWriteResult res;
+		try (DataFile df = new DataFile(file))
+		{
+			res = df.write(42, 3, compressedData);
+		}
+
+		try (MappedDataFile mdf = new MappedDataFile(file))
+		{
+			byte[] data = mdf.read(42, 3, res.sector, res.compressedLength);
+			Assert.assertArrayEquals(compressedData, data);
+
+			ByteBuffer buffer = mdf.readBuffer(42, 3, res.sector, res.compressedLength);
+			Assert.assertTrue(buffer.isReadOnly());
+			Assert.assertEquals(compressedData.length, buffer.remaining());
+
+			data = new byte[buffer.remaining()];
+			buffer.get(data);
+			Assert.assertArrayEquals(compressedData, data);
+
+			// wrong archive
+			Assert.assertNull(mdf.read(42, 4, res.sector, res.compressedLength));
+		}
+	}
+
+	@Test
+	public void testReadLarge() throws IOException
+	{
+		byte[] b = new byte[4096];
+		for (int i = 0; i < b.length; ++i)
+		{
+			b[i] = (byte) i;
+		}
+
+		File file = folder.newFile();
+
+		DataFileWriteResult res, res2;
+		try (DataFile df = new DataFile(file))
+		{
+			res = df.write(42, 0x1FFFF, b);
+			res2 = df.write(7, 3, b);
+		}
+
+		try (MappedDataFile mdf = new MappedDataFile(file))
+		{
+			Assert.assertArrayEquals(b, mdf.read(42, 0x1FFFF, res.sector, res.compressedLength));
+
+			byte[] pooled = new byte[8192];
+			Assert.assertTrue(mdf.read(7, 3, res2.sector, res2.compressedLength, pooled, 16));
+			for (int i = 0; i < b.length; ++i)
+			{
+				Assert.assertEquals(b[i], pooled[16 + i]);
+			}
+
+			ByteBuffer buffer = mdf.readBuffer(7, 3, res2.sector, res2.compressedLength);
+			byte[] data = new byte[buffer.remaining()];
+			buffer.get(data);
+			Assert.assertArrayEquals(b, data);
+		}
+	}
+
+	@Test
+	public void testReadSectors() throws IOException
+	{
+		byte[] b = new byte[4096];
+		for (int i = 0; i < b.length; ++i)
+		{
+			b[i] = (byte) (i * 7);
+		}
+
+		File file = folder.newFile();
+
+		DataFileWriteResult res, res2;
+		try (DataFile df = new DataFile(file))
+		{
+			res = df.write(42, 0x1FFFF, b);
+			res2 = df.write(7, 3, b);
+		}
+
+		try (MappedDataFile mdf = new MappedDataFile(file))
+		{
+			ByteBuffer[] sectors = mdf.readSectors(42, 0x1FFFF, res.sector, res.compressedLength);
+			Assert.assertEquals((4096 + 509) / 510, sectors.length);
+			Assert.assertArrayEquals(b, concat(sectors));
+
+			sectors = mdf.readSectors(7, 3, res2.sector, res2.compressedLength);
+			Assert.assertEquals(8, sectors.length);
+			for (ByteBuffer sector : sectors)
+			{
+				Assert.assertTrue(sector.isReadOnly());
+			}
+			Assert.assertArrayEquals(b, concat(sectors));
+
+			// wrong index
+			Assert.assertNull(mdf.readSectors(8, 3, res2.sector, res2.compressedLength));
+		}
+	}
+
+	private static byte[] concat(ByteBuffer[] buffers)
+	{
+		ByteBuffer out = ByteBuffer.allocate(Arrays.stream(buffers).mapToInt(ByteBuffer::remaining).sum());
+		for (ByteBuffer buffer : buffers)
+		{
+			out.put(buffer.duplicate());
+		}
+		return out.array();
+	}
+
+	@Test
+	public void testRemap() throws IOException
+	{
+		File file = folder.newFile();
+
+		try (DataFile df = new DataFile(file);
+			MappedDataFile mdf = new MappedDataFile(file))
+		{
+			DataFileWriteResult res = df.write(1, 1, "test".getBytes());
+			Assert.assertNull(mdf.read(1, 1, res.sector, res.compressedLength));
+
+			mdf.remap();
+			Assert.assertArrayEquals("test".getBytes(), mdf.read(1, 1, res.sector, res.compressedLength));
+		}
+	}
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2019, liam909 <https://github.com/liam909>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.region;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import net.runelite.cache.StoreLocation;
+import net.runelite.cache.fs.Store;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class RegionLoaderTest
+{
+	@Test
+	public void testLoadModes() throws IOException
+	{
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try (Store store = new Store(StoreLocation.LOCATION))
+		{
+			store.load();
+
+			RegionLoader serial = new RegionLoader(store);
+			serial.loadRegions();
+
+			RegionLoader parallel = new RegionLoader(store);
+			parallel.loadRegions(executor);
+
+			RegionLoader lazy = new RegionLoader(store);
+			lazy.indexRegions(8);
+
+			Set<Integer> ids = new HashSet<>(serial.getRegionIds());
+			assertFalse(ids.isEmpty());
+			assertEquals(ids, new HashSet<>(parallel.getRegionIds()));
+			assertEquals(ids, new HashSet<>(lazy.getRegionIds()));
+
+			for (int id : ids)
+			{
+				Region expected = serial.getRegion(id);
+				Region p = parallel.getRegion(id);
+				Region l = lazy.getRegion(id);
+
+				assertEquals(expected.getLocations().size(), p.getLocations().size());
+				assertEquals(expected.getLocations().size(), l.getLocations().size());
+				for (int x = 0; x < Region.X; x += 7)
+				{
+					for (int y = 0; y < Region.Y; y += 7)
+					{
+						assertEquals(expected.getTileHeight(0, x, y), p.getTileHeight(0, x, y));
+						assertEquals(expected.getTileHeight(0, x, y), l.getTileHeight(0, x, y));
+					}
+				}
+			}
+
+			assertTrue(lazy.getRegions().size() <= 8);
+
+			serial.calculateBounds();
+			lazy.calculateBounds();
+			assertEquals(serial.getLowestX().getBaseX(), lazy.getLowestX().getBaseX());
+			assertEquals(serial.getHighestX().getBaseX(), lazy.getHighestX().getBaseX());
+			assertEquals(serial.getLowestY().getBaseY(), lazy.getLowestY().getBaseY());
+			assertEquals(serial.getHighestY().getBaseY(), lazy.getHighestY().getBaseY());
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+	}
+}
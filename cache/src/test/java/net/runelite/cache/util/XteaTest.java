@@ -24,7 +24,10 @@
  */
 package net.runelite.cache.util;
 
+import java.util.Arrays;
+import java.util.Random;
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import org.junit.Test;
 
 public class XteaTest
@@ -52,4 +55,45 @@ public class XteaTest
 
 		assertArrayEquals(data, decData);
 	}
+
+	@Test
+	public void testInPlace()
+	{
+		// crc of the data encrypted by the previous ByteBuf implementation, for each length
+		int[] lengths = {0, 7, 8, 13, 4096, 8191};
+		int[] crcs = {0, 1031697684, 61665550, -59055957, -337230278, 631903454};
+
+		Random random = new Random(42L);
+		for (int i = 0; i < lengths.length; ++i)
+		{
+			int len = lengths[i];
+			byte[] data = new byte[len];
+			random.nextBytes(data);
+
+			int[] key = new int[]
+			{
+				random.nextInt(), random.nextInt(), random.nextInt(), random.nextInt()
+			};
+
+			Xtea xtea = new Xtea(key);
+			byte[] expected = xtea.encrypt(data, len);
+			assertEquals(crcs[i], crc(expected));
+
+			byte[] buf = new byte[len + 5];
+			System.arraycopy(data, 0, buf, 3, len);
+			xtea.encrypt(buf, 3, len);
+			assertArrayEquals(expected, Arrays.copyOfRange(buf, 3, 3 + len));
+
+			xtea.decrypt(buf, 3, len);
+			assertArrayEquals(data, Arrays.copyOfRange(buf, 3, 3 + len));
+			assertArrayEquals(data, xtea.decrypt(expected, len));
+		}
+	}
+
+	private static int crc(byte[] data)
+	{
+		Crc32 crc = new Crc32();
+		crc.update(data, 0, data.length);
+		return crc.getHash();
+	}
 }
@@ -28,6 +28,7 @@ import java.awt.image.BufferedImage;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import javax.imageio.ImageIO;
 import lombok.extern.slf4j.Slf4j;
@@ -39,18 +40,13 @@ import net.runelite.cache.definitions.NpcDefinition;
 import net.runelite.cache.definitions.ObjectDefinition;
 import net.runelite.cache.definitions.SpriteDefinition;
 import net.runelite.cache.definitions.TextureDefinition;
-import net.runelite.cache.definitions.loaders.ItemLoader;
-import net.runelite.cache.definitions.loaders.ModelLoader;
 import net.runelite.cache.definitions.loaders.NpcLoader;
 import net.runelite.cache.definitions.loaders.ObjectLoader;
-import net.runelite.cache.definitions.loaders.SpriteLoader;
-import net.runelite.cache.definitions.loaders.TextureLoader;
 import net.runelite.cache.definitions.providers.ItemProvider;
 import net.runelite.cache.definitions.providers.ModelProvider;
 import net.runelite.cache.definitions.providers.SpriteProvider;
 import net.runelite.cache.definitions.providers.TextureProvider;
 import net.runelite.cache.fs.ArchiveFiles;
-import net.runelite.cache.fs.Container;
 import net.runelite.cache.fs.FSFile;
 import net.runelite.cache.item.ItemSpriteFactory;
 import net.runelite.http.api.cache.Cache;
@@ -59,11 +55,16 @@ import net.runelite.http.api.cache.CacheIndex;
 import net.runelite.http.service.cache.beans.ArchiveEntry;
 import net.runelite.http.service.cache.beans.CacheEntry;
 import net.runelite.http.service.cache.beans.IndexEntry;
+import net.runelite.http.service.util.HttpHeaderUtil;
 import net.runelite.http.service.util.exception.NotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -73,9 +74,17 @@ import org.springframework.web.bind.annotation.RestController;
 @Slf4j
 public class CacheController
 {
+	private static final CacheControl ITEM_IMAGE_CACHE_CONTROL = CacheControl.maxAge(1, TimeUnit.HOURS).cachePublic();
+
 	@Autowired
 	private CacheService cacheService;
 
+	@Autowired
+	private CacheDefinitionCache definitionCache;
+
+	@Autowired
+	private ItemImageCache itemImageCache;
+
 	@GetMapping("/")
 	public List<Cache> listCaches()
 	{
@@ -178,47 +187,42 @@ public class CacheController
 		return cacheService.getArchive(archiveEntry);
 	}
 
-	private ArchiveEntry findConfig(ConfigType config)
+	private CacheEntry findMostRecent()
 	{
-		CacheEntry cache = cacheService.findMostRecent();
+		CacheEntry cache = definitionCache.findMostRecent();
 		if (cache == null)
 		{
 			throw new NotFoundException();
 		}
+		return cache;
+	}
 
-		IndexEntry indexEntry = cacheService.findIndexForCache(cache, IndexType.CONFIGS.getNumber());
-		if (indexEntry == null)
+	private FSFile findConfig(ConfigType config, int id) throws IOException
+	{
+		ArchiveFiles archiveFiles = definitionCache.getArchiveFiles(findMostRecent(), IndexType.CONFIGS, config.getId());
+		if (archiveFiles == null)
 		{
 			throw new NotFoundException();
 		}
 
-		ArchiveEntry archiveEntry = cacheService.findArchiveForIndex(indexEntry, config.getId());
-		if (archiveEntry == null)
+		FSFile file = archiveFiles.findFile(id);
+		if (file == null)
 		{
 			throw new NotFoundException();
 		}
 
-		return archiveEntry;
+		return file;
 	}
 
 	@GetMapping("item/{itemId}")
 	public ItemDefinition getItem(@PathVariable int itemId) throws IOException
 	{
-		ArchiveEntry archiveEntry = findConfig(ConfigType.ITEM);
-
-		ArchiveFiles archiveFiles = cacheService.getArchiveFiles(archiveEntry);
-		if (archiveFiles == null)
+		ItemDefinition itemdef = definitionCache.getItem(findMostRecent(), itemId);
+		if (itemdef == null)
 		{
 			throw new NotFoundException();
 		}
 
-		FSFile file = archiveFiles.findFile(itemId);
-		if (file == null)
-		{
-			throw new NotFoundException();
-		}
-
-		ItemDefinition itemdef = new ItemLoader().load(itemId, file.getContents());
 		return itemdef;
 	}
 
@@ -227,24 +231,64 @@ public class CacheController
 		@PathVariable int itemId,
 		@RequestParam(defaultValue = "1") int quantity,
 		@RequestParam(defaultValue = "1") int border,
-		@RequestParam(defaultValue = "3153952") int shadowColor
+		@RequestParam(defaultValue = "3153952") int shadowColor,
+		@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
 	) throws IOException
 	{
-		final CacheEntry cache = cacheService.findMostRecent();
+		final CacheEntry cache = findMostRecent();
+		// check the item exists first, otherwise If-None-Match: * would get a 304 for any id
+		if (definitionCache.getItem(cache, itemId) == null)
+		{
+			throw new NotFoundException();
+		}
+
+		final ItemImageKey key = new ItemImageKey(cache.getId(), itemId, quantity, border, shadowColor);
+		final String etag = '"' + key.getName() + '"';
+
+		if (HttpHeaderUtil.etagMatches(ifNoneMatch, etag))
+		{
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+				.eTag(etag)
+				.cacheControl(ITEM_IMAGE_CACHE_CONTROL)
+				.build();
+		}
+
+		byte[] png = itemImageCache.get(key);
+		if (png == null)
+		{
+			png = renderItemImage(cache, itemId, quantity, border, shadowColor);
+			itemImageCache.put(key, png);
+		}
+
+		return ResponseEntity.ok()
+			.eTag(etag)
+			.cacheControl(ITEM_IMAGE_CACHE_CONTROL)
+			.body(png);
+	}
+
+	private byte[] renderItemImage(CacheEntry cache, int itemId, int quantity, int border, int shadowColor) throws IOException
+	{
 		ItemProvider itemProvider = new ItemProvider()
 		{
 			@Override
 			public ItemDefinition provide(int itemId)
 			{
+				ItemDefinition itemDef;
 				try
 				{
-					return getItem(itemId);
+					itemDef = definitionCache.decodeItem(cache, itemId);
 				}
 				catch (IOException ex)
 				{
 					log.warn(null, ex);
 					return null;
 				}
+
+				if (itemDef == null)
+				{
+					throw new NotFoundException();
+				}
+				return itemDef;
 			}
 		};
 		ModelProvider modelProvider = new ModelProvider()
@@ -252,10 +296,7 @@ public class CacheController
 			@Override
 			public ModelDefinition provide(int modelId) throws IOException
 			{
-				IndexEntry indexEntry = cacheService.findIndexForCache(cache, IndexType.MODELS.getNumber());
-				ArchiveEntry archiveEntry = cacheService.findArchiveForIndex(indexEntry, modelId);
-				byte[] archiveData = Container.decompress(cacheService.getArchive(archiveEntry), null).data;
-				return new ModelLoader().load(modelId, archiveData);
+				return definitionCache.decodeModel(cache, modelId);
 			}
 		};
 		SpriteProvider spriteProvider = new SpriteProvider()
@@ -265,10 +306,7 @@ public class CacheController
 			{
 				try
 				{
-					IndexEntry indexEntry = cacheService.findIndexForCache(cache, IndexType.SPRITES.getNumber());
-					ArchiveEntry archiveEntry = cacheService.findArchiveForIndex(indexEntry, spriteId);
-					byte[] archiveData = Container.decompress(cacheService.getArchive(archiveEntry), null).data;
-					SpriteDefinition[] defs = new SpriteLoader().load(spriteId, archiveData);
+					SpriteDefinition[] defs = definitionCache.decodeSprites(cache, spriteId);
 					return defs[frameId];
 				}
 				catch (Exception ex)
@@ -286,18 +324,7 @@ public class CacheController
 			{
 				try
 				{
-					IndexEntry indexEntry = cacheService.findIndexForCache(cache, IndexType.TEXTURES.getNumber());
-					ArchiveEntry archiveEntry = cacheService.findArchiveForIndex(indexEntry, 0);
-					ArchiveFiles archiveFiles = cacheService.getArchiveFiles(archiveEntry);
-					TextureLoader loader = new TextureLoader();
-					TextureDefinition[] defs = new TextureDefinition[archiveFiles.getFiles().size()];
-					int i = 0;
-					for (FSFile file : archiveFiles.getFiles())
-					{
-						TextureDefinition def = loader.load(file.getFileId(), file.getContents());
-						defs[i++] = def;
-					}
-					return defs;
+					return definitionCache.decodeTextures(cache);
 				}
 				catch (Exception ex)
 				{
@@ -311,7 +338,7 @@ public class CacheController
 			itemId, quantity, border, shadowColor, false);
 		ByteArrayOutputStream bao = new ByteArrayOutputStream();
 		ImageIO.write(itemImage, "png", bao);
-		return ResponseEntity.ok(bao.toByteArray());
+		return bao.toByteArray();
 	}
 
 	@GetMapping("object/{objectId}")
@@ -319,20 +346,7 @@ public class CacheController
 		@PathVariable int objectId
 	) throws IOException
 	{
-		ArchiveEntry archiveEntry = findConfig(ConfigType.OBJECT);
-
-		ArchiveFiles archiveFiles = cacheService.getArchiveFiles(archiveEntry);
-		if (archiveFiles == null)
-		{
-			throw new NotFoundException();
-		}
-
-		FSFile file = archiveFiles.findFile(objectId);
-		if (file == null)
-		{
-			throw new NotFoundException();
-		}
-
+		FSFile file = findConfig(ConfigType.OBJECT, objectId);
 		ObjectDefinition objectdef = new ObjectLoader().load(objectId, file.getContents());
 		return objectdef;
 	}
@@ -342,20 +356,7 @@ public class CacheController
 		@PathVariable int npcId
 	) throws IOException
 	{
-		ArchiveEntry archiveEntry = findConfig(ConfigType.NPC);
-
-		ArchiveFiles archiveFiles = cacheService.getArchiveFiles(archiveEntry);
-		if (archiveFiles == null)
-		{
-			throw new NotFoundException();
-		}
-
-		FSFile file = archiveFiles.findFile(npcId);
-		if (file == null)
-		{
-			throw new NotFoundException();
-		}
-
+		FSFile file = findConfig(ConfigType.NPC, npcId);
 		NpcDefinition npcdef = new NpcLoader().load(npcId, file.getContents());
 		return npcdef;
 	}
@@ -0,0 +1,321 @@
+/*
+ * Copyright (c) 2019, liam909 <https://github.com/liam909>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.cache;
+
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.cache.ConfigType;
+import net.runelite.cache.IndexType;
+import net.runelite.cache.definitions.ItemDefinition;
+import net.runelite.cache.definitions.ModelDefinition;
+import net.runelite.cache.definitions.SpriteDefinition;
+import net.runelite.cache.definitions.TextureDefinition;
+import net.runelite.cache.definitions.loaders.ItemLoader;
+import net.runelite.cache.definitions.loaders.ModelLoader;
+import net.runelite.cache.definitions.loaders.SpriteLoader;
+import net.runelite.cache.definitions.loaders.TextureLoader;
+import net.runelite.cache.fs.ArchiveFiles;
+import net.runelite.cache.fs.Container;
+import net.runelite.cache.fs.FSFile;
+import net.runelite.http.service.cache.beans.ArchiveEntry;
+import net.runelite.http.service.cache.beans.CacheEntry;
+import net.runelite.http.service.cache.beans.IndexEntry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory cache of archives and definitions from the most recent cache,
+ * so that repeated lookups avoid the database and the object store.
+ * Everything held is dropped once {@link CacheService#findMostRecent()}
+ * reports a different cache.
+ * <p>
+ * {@link net.runelite.cache.item.ItemSpriteFactory} modifies the items,
+ * models and sprites it is given, so the decode methods return a fresh
+ * copy decoded from the cached archive data on every call, whereas
+ * {@link #getItem(CacheEntry, int)} returns a shared instance which must
+ * not be modified.
+ */
+@Component
+@Slf4j
+public class CacheDefinitionCache
+{
+	private static final long MOST_RECENT_TTL_SECONDS = 60;
+	private static final long MAX_ARCHIVE_FILES = 64;
+	private static final long MAX_ARCHIVE_DATA_BYTES = 64 * 1024 * 1024;
+	private static final long MAX_ITEMS = 32768;
+
+	private final CacheService cacheService;
+	private final Supplier<CacheEntry> mostRecent;
+	private volatile Revision revision;
+
+	@Autowired
+	public CacheDefinitionCache(CacheService cacheService)
+	{
+		this.cacheService = cacheService;
+		this.mostRecent = Suppliers.memoizeWithExpiration(cacheService::findMostRecent,
+			MOST_RECENT_TTL_SECONDS, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Get the most recent cache. This is refreshed from the database at most
+	 * once a minute.
+	 *
+	 * @return the most recent cache, or null if there are none
+	 */
+	public CacheEntry findMostRecent()
+	{
+		return mostRecent.get();
+	}
+
+	/**
+	 * Get the files of an archive
+	 *
+	 * @param cache
+	 * @param index
+	 * @param archiveId
+	 * @return the archive files, or null if the archive does not exist
+	 * @throws IOException
+	 */
+	public ArchiveFiles getArchiveFiles(CacheEntry cache, IndexType index, int archiveId) throws IOException
+	{
+		Revision rev = getRevision(cache);
+		long key = key(index, archiveId);
+
+		ArchiveFiles archiveFiles = rev.archiveFiles.getIfPresent(key);
+		if (archiveFiles != null)
+		{
+			return archiveFiles;
+		}
+
+		ArchiveEntry archiveEntry = findArchive(cache, index, archiveId);
+		if (archiveEntry == null)
+		{
+			return null;
+		}
+
+		archiveFiles = cacheService.getArchiveFiles(archiveEntry);
+		if (archiveFiles != null)
+		{
+			rev.archiveFiles.put(key, archiveFiles);
+		}
+		return archiveFiles;
+	}
+
+	/**
+	 * Get the decompressed data of an archive
+	 *
+	 * @param cache
+	 * @param index
+	 * @param archiveId
+	 * @return the archive data, or null if the archive does not exist
+	 * @throws IOException
+	 */
+	public byte[] getArchiveData(CacheEntry cache, IndexType index, int archiveId) throws IOException
+	{
+		Revision rev = getRevision(cache);
+		long key = key(index, archiveId);
+
+		byte[] data = rev.archiveData.getIfPresent(key);
+		if (data != null)
+		{
+			return data;
+		}
+
+		ArchiveEntry archiveEntry = findArchive(cache, index, archiveId);
+		if (archiveEntry == null)
+		{
+			return null;
+		}
+
+		byte[] archive = cacheService.getArchive(archiveEntry);
+		if (archive == null)
+		{
+			return null;
+		}
+
+		Container container = Container.decompress(archive, null);
+		data = container.data;
+		rev.archiveData.put(key, data);
+		return data;
+	}
+
+	/**
+	 * Get an item definition. The returned definition is shared and must
+	 * not be modified, see {@link #decodeItem(CacheEntry, int)}.
+	 *
+	 * @param cache
+	 * @param itemId
+	 * @return the item definition, or null if the item does not exist
+	 * @throws IOException
+	 */
+	public ItemDefinition getItem(CacheEntry cache, int itemId) throws IOException
+	{
+		Revision rev = getRevision(cache);
+
+		ItemDefinition itemDef = rev.items.getIfPresent(itemId);
+		if (itemDef != null)
+		{
+			return itemDef;
+		}
+
+		itemDef = decodeItem(cache, itemId);
+		if (itemDef != null)
+		{
+			rev.items.put(itemId, itemDef);
+		}
+		return itemDef;
+	}
+
+	public ItemDefinition decodeItem(CacheEntry cache, int itemId) throws IOException
+	{
+		ArchiveFiles archiveFiles = getArchiveFiles(cache, IndexType.CONFIGS, ConfigType.ITEM.getId());
+		if (archiveFiles == null)
+		{
+			return null;
+		}
+
+		FSFile file = archiveFiles.findFile(itemId);
+		if (file == null)
+		{
+			return null;
+		}
+
+		return new ItemLoader().load(itemId, file.getContents());
+	}
+
+	public ModelDefinition decodeModel(CacheEntry cache, int modelId) throws IOException
+	{
+		byte[] data = getArchiveData(cache, IndexType.MODELS, modelId);
+		if (data == null)
+		{
+			return null;
+		}
+
+		return new ModelLoader().load(modelId, data);
+	}
+
+	public SpriteDefinition[] decodeSprites(CacheEntry cache, int spriteId) throws IOException
+	{
+		byte[] data = getArchiveData(cache, IndexType.SPRITES, spriteId);
+		if (data == null)
+		{
+			return null;
+		}
+
+		return new SpriteLoader().load(spriteId, data);
+	}
+
+	public TextureDefinition[] decodeTextures(CacheEntry cache) throws IOException
+	{
+		ArchiveFiles archiveFiles = getArchiveFiles(cache, IndexType.TEXTURES, 0);
+		if (archiveFiles == null)
+		{
+			return null;
+		}
+
+		TextureLoader loader = new TextureLoader();
+		TextureDefinition[] defs = new TextureDefinition[archiveFiles.getFiles().size()];
+		int i = 0;
+		for (FSFile file : archiveFiles.getFiles())
+		{
+			defs[i++] = loader.load(file.getFileId(), file.getContents());
+		}
+		return defs;
+	}
+
+	private ArchiveEntry findArchive(CacheEntry cache, IndexType index, int archiveId)
+	{
+		IndexEntry indexEntry = cacheService.findIndexForCache(cache, index.getNumber());
+		if (indexEntry == null)
+		{
+			return null;
+		}
+
+		return cacheService.findArchiveForIndex(indexEntry, archiveId);
+	}
+
+	private Revision getRevision(CacheEntry cache)
+	{
+		Revision rev = revision;
+		if (rev != null && rev.cacheId == cache.getId())
+		{
+			return rev;
+		}
+
+		synchronized (this)
+		{
+			rev = revision;
+			if (rev != null && rev.cacheId == cache.getId())
+			{
+				return rev;
+			}
+
+			CacheEntry current = mostRecent.get();
+			if (current == null || current.getId() != cache.getId())
+			{
+				// not the most recent cache, don't hold onto anything from it
+				return new Revision(cache.getId());
+			}
+
+			log.info("Caching definitions for cache {} (revision {})", cache.getId(), cache.getRevision());
+			rev = new Revision(cache.getId());
+			revision = rev;
+			return rev;
+		}
+	}
+
+	private static long key(IndexType index, int archiveId)
+	{
+		return (long) index.getNumber() << 32 | (archiveId & 0xFFFFFFFFL);
+	}
+
+	private static class Revision
+	{
+		private final int cacheId;
+
+		private final Cache<Long, ArchiveFiles> archiveFiles = CacheBuilder.newBuilder()
+			.maximumSize(MAX_ARCHIVE_FILES)
+			.build();
+
+		private final Cache<Long, byte[]> archiveData = CacheBuilder.newBuilder()
+			.maximumWeight(MAX_ARCHIVE_DATA_BYTES)
+			.<Long, byte[]>weigher((k, v) -> v.length)
+			.build();
+
+		private final Cache<Integer, ItemDefinition> items = CacheBuilder.newBuilder()
+			.maximumSize(MAX_ITEMS)
+			.build();
+
+		private Revision(int cacheId)
+		{
+			this.cacheId = cacheId;
+		}
+	}
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2019, liam909 <https://github.com/liam909>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rendered item images, held in memory and optionally on disk. Images are
+ * keyed by the cache they were rendered from, so entries from older caches
+ * simply stop being requested and age out of the memory tier. The disk
+ * tier lives in its own subdirectory of the configured directory, and keeps
+ * one directory per cache there. It removes the directories of other caches
+ * when a new cache is first written to, and holds a limited number of images
+ * per cache, as the key includes the request parameters.
+ */
+@Component
+@Slf4j
+public class ItemImageCache
+{
+	private static final long MAX_MEMORY_BYTES = 32 * 1024 * 1024;
+	private static final String DIRECTORY_NAME = "item-images";
+	private static final String CACHE_DIRECTORY_PREFIX = "cache-";
+	private static final Pattern CACHE_DIRECTORY = Pattern.compile(CACHE_DIRECTORY_PREFIX + "\\d+");
+
+	private final Cache<ItemImageKey, byte[]> images = CacheBuilder.newBuilder()
+		.maximumWeight(MAX_MEMORY_BYTES)
+		.<ItemImageKey, byte[]>weigher((k, v) -> v.length)
+		.build();
+
+	private final Path directory;
+	private final int maxDiskImages;
+	private final AtomicInteger diskImages = new AtomicInteger();
+	private volatile int directoryCacheId = -1;
+
+	@Autowired
+	public ItemImageCache(
+		@Value("${runelite.cache.item-image-directory:}") String directory,
+		@Value("${runelite.cache.item-image-limit:100000}") int maxDiskImages
+	)
+	{
+		this.directory = directory.isEmpty() ? null : Paths.get(directory, DIRECTORY_NAME);
+		this.maxDiskImages = maxDiskImages;
+	}
+
+	/**
+	 * Look up a rendered image
+	 *
+	 * @param key
+	 * @return the png, or null if it has not been rendered
+	 */
+	public byte[] get(ItemImageKey key)
+	{
+		byte[] png = images.getIfPresent(key);
+		if (png != null || directory == null)
+		{
+			return png;
+		}
+
+		Path file = file(key);
+		if (!Files.exists(file))
+		{
+			return null;
+		}
+
+		try
+		{
+			png = Files.readAllBytes(file);
+		}
+		catch (IOException ex)
+		{
+			log.warn("unable to read item image {}", file, ex);
+			return null;
+		}
+
+		images.put(key, png);
+		return png;
+	}
+
+	public void put(ItemImageKey key, byte[] png)
+	{
+		images.put(key, png);
+
+		if (directory == null)
+		{
+			return;
+		}
+
+		Path file = file(key);
+		try
+		{
+			if (directoryCacheId != key.getCacheId())
+			{
+				switchCache(key.getCacheId());
+			}
+
+			if (Files.exists(file))
+			{
+				return;
+			}
+
+			if (diskImages.incrementAndGet() > maxDiskImages)
+			{
+				diskImages.decrementAndGet();
+				return;
+			}
+
+			// write to a temporary file first so readers never see a partial image
+			Path tmp = Files.createTempFile(file.getParent(), key.getName(), ".tmp");
+			Files.write(tmp, png);
+			Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (IOException ex)
+		{
+			log.warn("unable to write item image {}", file, ex);
+		}
+	}
+
+	private Path file(ItemImageKey key)
+	{
+		return directory.resolve(CACHE_DIRECTORY_PREFIX + key.getCacheId())
+			.resolve(key.getName() + ".png");
+	}
+
+	private synchronized void switchCache(int cacheId) throws IOException
+	{
+		if (directoryCacheId == cacheId)
+		{
+			return;
+		}
+
+		Path cacheDirectory = directory.resolve(CACHE_DIRECTORY_PREFIX + cacheId);
+		Files.createDirectories(cacheDirectory);
+
+		// only remove cache directories this class created
+		try (DirectoryStream<Path> dirs = Files.newDirectoryStream(directory,
+			dir -> Files.isDirectory(dir) && CACHE_DIRECTORY.matcher(dir.getFileName().toString()).matches()))
+		{
+			for (Path dir : dirs)
+			{
+				if (!dir.equals(cacheDirectory))
+				{
+					log.debug("Removing item images from old cache {}", dir);
+					delete(dir);
+				}
+			}
+		}
+
+		try (Stream<Path> images = Files.list(cacheDirectory))
+		{
+			diskImages.set((int) images.filter(path -> path.toString().endsWith(".png")).count());
+		}
+
+		directoryCacheId = cacheId;
+	}
+
+	private static void delete(Path dir) throws IOException
+	{
+		try (Stream<Path> paths = Files.walk(dir))
+		{
+			paths.sorted(Comparator.reverseOrder())
+				.forEach(path -> path.toFile().delete());
+		}
+	}
+}
@@ -28,20 +28,32 @@ import com.google.common.base.Supplier;
 import com.google.common.base.Suppliers;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 import javax.servlet.http.HttpServletResponse;
+import lombok.Value;
+import net.runelite.http.api.RuneLiteAPI;
 import net.runelite.http.api.item.Item;
 import net.runelite.http.api.item.ItemPrice;
 import net.runelite.http.api.item.SearchResult;
+import net.runelite.http.service.util.HttpHeaderUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -52,6 +64,19 @@ public class ItemController
 {
 	private static final String RUNELITE_CACHE = "RuneLite-Cache";
 	private static final int MAX_BATCH_LOOKUP = 1024;
+	private static final CacheControl PRICES_CACHE_CONTROL = CacheControl.maxAge(30, TimeUnit.MINUTES).cachePublic();
+
+	/**
+	 * The /prices response, encoded ahead of time
+	 */
+	@Value
+	private static class EncodedPrices
+	{
+		private final byte[] json;
+		private final byte[] gzip;
+		private final String etag;
+		private final String gzipEtag;
+	}
 
 	private final Cache<Integer, Integer> cachedEmpty = CacheBuilder.newBuilder()
 		.maximumSize(1024L)
@@ -59,14 +84,14 @@ public class ItemController
 
 	private final ItemService itemService;
 
-	private final Supplier<ItemPrice[]> memorizedPrices;
+	private final Supplier<EncodedPrices> memorizedPrices;
 
 	@Autowired
 	public ItemController(ItemService itemService)
 	{
 		this.itemService = itemService;
 
-		memorizedPrices = Suppliers.memoizeWithExpiration(() -> itemService.fetchPrices().stream()
+		memorizedPrices = Suppliers.memoizeWithExpiration(() -> encodePrices(itemService.fetchPrices().stream()
 			.map(priceEntry ->
 			{
 				ItemPrice itemPrice = new ItemPrice();
@@ -76,7 +101,25 @@ public class ItemController
 				itemPrice.setTime(priceEntry.getTime());
 				return itemPrice;
 			})
-			.toArray(ItemPrice[]::new), 30, TimeUnit.MINUTES);
+			.toArray(ItemPrice[]::new)), 30, TimeUnit.MINUTES);
+	}
+
+	private static EncodedPrices encodePrices(ItemPrice[] prices)
+	{
+		byte[] json = RuneLiteAPI.GSON.toJson(prices).getBytes(StandardCharsets.UTF_8);
+
+		ByteArrayOutputStream bao = new ByteArrayOutputStream(json.length / 4);
+		try (GZIPOutputStream out = new GZIPOutputStream(bao))
+		{
+			out.write(json);
+		}
+		catch (IOException ex)
+		{
+			throw new RuntimeException(ex);
+		}
+
+		String hash = Hashing.murmur3_128().hashBytes(json).toString();
+		return new EncodedPrices(json, bao.toByteArray(), '"' + hash + '"', '"' + hash + "-gzip\"");
 	}
 
 	@GetMapping("/{itemId}")
@@ -217,11 +260,37 @@ public class ItemController
 			.toArray(ItemPrice[]::new);
 	}
 
-	@GetMapping("/prices")
-	public ResponseEntity<ItemPrice[]> prices()
+	@GetMapping(path = "/prices", produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<byte[]> prices(
+		@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+		@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+	)
 	{
-		return ResponseEntity.ok()
-			.cacheControl(CacheControl.maxAge(30, TimeUnit.MINUTES).cachePublic())
-			.body(memorizedPrices.get());
+		EncodedPrices prices = memorizedPrices.get();
+		boolean gzip = HttpHeaderUtil.acceptsGzip(acceptEncoding);
+		// the two encodings are different representations, so they have different entity tags
+		String etag = gzip ? prices.getGzipEtag() : prices.getEtag();
+
+		if (HttpHeaderUtil.etagMatches(ifNoneMatch, etag))
+		{
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+				.eTag(etag)
+				.cacheControl(PRICES_CACHE_CONTROL)
+				.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+				.build();
+		}
+
+		ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+			.eTag(etag)
+			.cacheControl(PRICES_CACHE_CONTROL)
+			.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+		if (gzip)
+		{
+			return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+				.body(prices.getGzip());
+		}
+
+		return builder.body(prices.getJson());
 	}
 }
@@ -82,6 +82,22 @@ public class ItemService
 		+ "  KEY `item_fetched_time` (`item`,`fetched_time`)\n"
 		+ ") ENGINE=InnoDB";
 
+	/**
+	 * The most recent row of prices for each item, kept up to date as prices are inserted
+	 */
+	private static final String CREATE_PRICES_LATEST = "CREATE TABLE IF NOT EXISTS `prices_latest` (\n"
+		+ "  `item` int(11) NOT NULL,\n"
+		+ "  `price` int(11) NOT NULL,\n"
+		+ "  `time` timestamp NOT NULL DEFAULT '0000-00-00 00:00:00',\n"
+		+ "  `fetched_time` timestamp NOT NULL DEFAULT '0000-00-00 00:00:00',\n"
+		+ "  PRIMARY KEY (`item`)\n"
+		+ ") ENGINE=InnoDB";
+
+	private static final String POPULATE_PRICES_LATEST = "insert ignore into prices_latest (item, price, time, fetched_time) "
+		+ "select prices.item, prices.price, prices.time, prices.fetched_time from "
+		+ "(select t1.item as item, max(t1.time) as time from prices t1 group by item) t2 "
+		+ "join prices on t2.item=prices.item and t2.time=prices.time";
+
 	private static final int MAX_PENDING = 512;
 
 	private final Sql2o sql2o;
@@ -105,6 +121,20 @@ public class ItemService
 
 			con.createQuery(CREATE_PRICES)
 				.executeUpdate();
+
+			con.createQuery(CREATE_PRICES_LATEST)
+				.executeUpdate();
+
+			Integer latest = con.createQuery("select count(*) from prices_latest")
+				.executeScalar(Integer.class);
+			if (latest == null || latest == 0)
+			{
+				// one time scan of the price history to fill in the table
+				int populated = con.createQuery(POPULATE_PRICES_LATEST)
+					.executeUpdate()
+					.getResult();
+				log.info("Populated latest prices of {} items", populated);
+			}
 		}
 	}
 
@@ -131,7 +161,7 @@ public class ItemService
 		}
 		else
 		{
-			return con.createQuery("select item, name, price, time, fetched_time from prices t1 join items t2 on t1.item=t2.id where item = :item order by time desc limit 1")
+			return con.createQuery("select item, name, price, time, fetched_time from prices_latest t1 join items t2 on t1.item=t2.id where item = :item")
 				.addParameter("item", itemId)
 				.executeAndFetchFirst(PriceEntry.class);
 		}
@@ -258,6 +288,7 @@ public class ItemService
 		{
 			List<PriceEntry> entries = new ArrayList<>();
 			Instant now = Instant.now();
+			PriceEntry latest = null;
 
 			Query query = con.createQuery("insert into prices (item, price, time, fetched_time) values (:item, :price, :time, :fetched_time) "
 				+ "ON DUPLICATE KEY UPDATE price = VALUES(price), fetched_time = VALUES(fetched_time)");
@@ -276,6 +307,11 @@ public class ItemService
 				priceEntry.setFetched_time(now);
 				entries.add(priceEntry);
 
+				if (latest == null || time.isAfter(latest.getTime()))
+				{
+					latest = priceEntry;
+				}
+
 				query
 					.addParameter("item", itemId)
 					.addParameter("price", price)
@@ -285,19 +321,41 @@ public class ItemService
 			}
 
 			query.executeBatch();
+
+			if (latest != null)
+			{
+				updateLatestPrice(con, latest);
+			}
+
 			con.commit(false);
 
 			return entries;
 		}
 	}
 
+	/**
+	 * Record a price in prices_latest if it is newer than the one there.
+	 * MySQL applies the assignments from left to right, so time is updated last.
+	 */
+	private static void updateLatestPrice(Connection con, PriceEntry priceEntry)
+	{
+		con.createQuery("insert into prices_latest (item, price, time, fetched_time) values (:item, :price, :time, :fetched_time) "
+			+ "ON DUPLICATE KEY UPDATE price = IF(VALUES(time) >= time, VALUES(price), price), "
+			+ "fetched_time = IF(VALUES(time) >= time, VALUES(fetched_time), fetched_time), "
+			+ "time = GREATEST(time, VALUES(time))")
+			.addParameter("item", priceEntry.getItem())
+			.addParameter("price", priceEntry.getPrice())
+			.addParameter("time", priceEntry.getTime())
+			.addParameter("fetched_time", priceEntry.getFetched_time())
+			.executeUpdate();
+	}
+
 	public List<PriceEntry> fetchPrices()
 	{
-		try (Connection con = sql2o.beginTransaction())
+		try (Connection con = sql2o.open())
 		{
-			Query query = con.createQuery("select t2.item, t3.name, t2.time, prices.price, prices.fetched_time from (select t1.item as item, max(t1.time) as time from prices t1 group by item) t2 " +
-					" join prices on t2.item=prices.item and t2.time=prices.time" +
-					" join items t3 on t2.item=t3.id");
+			Query query = con.createQuery("select t1.item, t2.name, t1.time, t1.price, t1.fetched_time from prices_latest t1" +
+					" join items t2 on t1.item=t2.id");
 			return query.executeAndFetch(PriceEntry.class);
 		}
 	}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2019, liam909 <https://github.com/liam909>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.loottracker;
+
+import java.time.Instant;
+import lombok.Value;
+
+/**
+ * Position of a kill in an account's loot, which is ordered by time and then id, newest first.
+ * Its string form is the time in epoch milliseconds and the kill id, separated by a '-'.
+ */
+@Value
+class LootCursor
+{
+	private Instant time;
+	private int killId;
+
+	static LootCursor parse(String cursor)
+	{
+		int idx = cursor.indexOf('-');
+		if (idx == -1)
+		{
+			throw new IllegalArgumentException("invalid cursor");
+		}
+
+		long time = Long.parseLong(cursor.substring(0, idx));
+		int killId = Integer.parseInt(cursor.substring(idx + 1));
+		if (time < 0 || killId < 0)
+		{
+			throw new IllegalArgumentException("invalid cursor");
+		}
+		return new LootCursor(Instant.ofEpochMilli(time), killId);
+	}
+
+	@Override
+	public String toString()
+	{
+		return time.toEpochMilli() + "-" + killId;
+	}
+}
@@ -26,26 +26,39 @@
 package net.runelite.http.service.loottracker;
 
 import com.google.api.client.http.HttpStatusCodes;
+import com.google.gson.stream.JsonWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import net.runelite.http.api.RuneLiteAPI;
 import net.runelite.http.api.loottracker.LootRecord;
 import net.runelite.http.service.account.AuthFilter;
 import net.runelite.http.service.account.beans.SessionEntry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/loottracker")
 public class LootTrackerController
 {
+	static final String NEXT_CURSOR = "RuneLite-Next-Cursor";
+	private static final byte[] EMPTY_ARRAY = {'[', ']'};
+	static final int MAX_COUNT = 1024;
+	static final int MAX_BULK_RECORDS = 1024;
+
 	@Autowired
 	private LootTrackerService service;
 
@@ -66,17 +79,94 @@ public class LootTrackerController
 		response.setStatus(HttpStatusCodes.STATUS_CODE_OK);
 	}
 
-	@GetMapping
-	public Collection<LootRecord> getLootRecords(HttpServletRequest request, HttpServletResponse response, @RequestParam(value = "count", defaultValue = "1024") int count, @RequestParam(value = "start", defaultValue = "0") int start) throws IOException
+	@PostMapping("/bulk")
+	public void storeLootRecords(HttpServletRequest request, HttpServletResponse response, @RequestBody Collection<LootRecord> records) throws IOException
 	{
 		SessionEntry e = auth.handle(request, response);
 		if (e == null)
 		{
 			response.setStatus(HttpStatusCodes.STATUS_CODE_UNAUTHORIZED);
-			return null;
+			return;
+		}
+
+		if (records.size() > MAX_BULK_RECORDS)
+		{
+			response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+			return;
+		}
+
+		service.store(records, e.getUser());
+		response.setStatus(HttpStatusCodes.STATUS_CODE_OK);
+	}
+
+	/**
+	 * Get loot records, newest first. Pages are requested by passing the {@link #NEXT_CURSOR} header
+	 * of the previous page as the cursor, the header is absent on the last page. start skips
+	 * that many records and is only used without a cursor. count is limited to {@link #MAX_COUNT}.
+	 */
+	@GetMapping
+	public ResponseEntity<StreamingResponseBody> getLootRecords(HttpServletRequest request, HttpServletResponse response,
+		@RequestParam(value = "count", defaultValue = "" + MAX_COUNT) int count,
+		@RequestParam(value = "start", defaultValue = "0") int start,
+		@RequestParam(value = "cursor", required = false) String cursor) throws IOException
+	{
+		SessionEntry e = auth.handle(request, response);
+		if (e == null)
+		{
+			return ResponseEntity.status(HttpStatusCodes.STATUS_CODE_UNAUTHORIZED).build();
+		}
+
+		if (count <= 0)
+		{
+			return ResponseEntity.badRequest().build();
+		}
+		count = Math.min(count, MAX_COUNT);
+
+		final int accountId = e.getUser();
+		LootCursor pageStart;
+		if (cursor != null)
+		{
+			try
+			{
+				pageStart = LootCursor.parse(cursor);
+			}
+			catch (IllegalArgumentException ex)
+			{
+				return ResponseEntity.badRequest().build();
+			}
+		}
+		else if (start > 0)
+		{
+			pageStart = service.findPageEnd(accountId, null, start);
+			if (pageStart == null)
+			{
+				return ResponseEntity.ok()
+					.contentType(MediaType.APPLICATION_JSON)
+					.body(out -> out.write(EMPTY_ARRAY));
+			}
+		}
+		else
+		{
+			pageStart = null;
+		}
+
+		final LootCursor pageEnd = service.findPageEnd(accountId, pageStart, count);
+
+		ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+			.contentType(MediaType.APPLICATION_JSON);
+		if (pageEnd != null)
+		{
+			builder.header(NEXT_CURSOR, pageEnd.toString());
 		}
 
-		return service.get(e.getUser(), count, start);
+		return builder.body(out ->
+		{
+			JsonWriter writer = new JsonWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+			writer.beginArray();
+			service.get(accountId, pageStart, pageEnd, record -> RuneLiteAPI.GSON.toJson(record, LootRecord.class, writer));
+			writer.endArray();
+			writer.flush();
+		});
 	}
 
 	@DeleteMapping
@@ -25,11 +25,21 @@
  */
 package net.runelite.http.service.loottracker;
 
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 import net.runelite.http.api.loottracker.GameItem;
 import net.runelite.http.api.loottracker.LootRecord;
+import net.runelite.http.api.loottracker.LootRecordType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -37,6 +47,7 @@ import org.springframework.stereotype.Service;
 import org.sql2o.Connection;
 import org.sql2o.Query;
 import org.sql2o.Sql2o;
+import org.sql2o.Sql2oException;
 
 @Service
 public class LootTrackerService
@@ -62,11 +73,22 @@ public class LootTrackerService
 		+ "  FOREIGN KEY (killId) REFERENCES kills(id) ON DELETE CASCADE\n"
 		+ ") ENGINE=InnoDB";
 
-	// Queries for inserting kills
-	private static final String INSERT_KILL_QUERY = "INSERT INTO kills (accountId, type, eventId) VALUES (:accountId, :type, :eventId)";
-	private static final String INSERT_DROP_QUERY = "INSERT INTO drops (killId, itemId, itemQuantity) VALUES (LAST_INSERT_ID(), :itemId, :itemQuantity)";
+	// Rows per multi-row insert
+	private static final int MAX_INSERT_ROWS = 500;
 
-	private static final String SELECT_LOOT_QUERY = "SELECT killId,time,type,eventId,itemId,itemQuantity FROM kills JOIN drops ON drops.killId = kills.id WHERE accountId = :accountId ORDER BY TIME DESC LIMIT :limit OFFSET :offset";
+	// Kills are paged newest first by (time, id), which idx_acc covers as it ends with the primary key
+	private static final String AFTER_CURSOR = " AND (time < :cursorTime OR (time = :cursorTime AND id < :cursorId))";
+
+	// The loot query is run with plain JDBC so its fetch size can be set, which sql2o doesn't allow
+	private static final String AFTER_CURSOR_POSITIONAL = " AND (time < ? OR (time = ? AND id < ?))";
+	private static final String UNTIL_END_POSITIONAL = " AND (time > ? OR (time = ? AND id >= ?))";
+
+	// Only kills with drops are counted, as kills without drops are not part of the loot query
+	private static final String SELECT_PAGE_END_QUERY = "SELECT id AS killId, time FROM kills WHERE accountId = :accountId "
+		+ "AND EXISTS (SELECT 1 FROM drops WHERE drops.killId = kills.id)%s "
+		+ "ORDER BY time DESC, id DESC LIMIT 1 OFFSET :offset";
+	private static final String SELECT_LOOT_QUERY = "SELECT killId,time,type,eventId,itemId,itemQuantity FROM kills "
+		+ "JOIN drops ON drops.killId = kills.id WHERE accountId = ?%s ORDER BY time DESC, id DESC";
 
 	private static final String DELETE_LOOT_ACCOUNT = "DELETE FROM kills WHERE accountId = :accountId";
 	private static final String DELETE_LOOT_ACCOUNT_EVENTID = "DELETE FROM kills WHERE accountId = :accountId AND eventId = :eventId";
@@ -94,74 +116,212 @@ public class LootTrackerService
 	 */
 	public void store(LootRecord record, int accountId)
 	{
+		store(Collections.singletonList(record), accountId);
+	}
+
+	/**
+	 * Store LootRecords in a single transaction
+	 *
+	 * @param records   LootRecords to store
+	 * @param accountId runelite account id to tie data too
+	 */
+	public void store(Collection<LootRecord> records, int accountId)
+	{
+		if (records.isEmpty())
+		{
+			return;
+		}
+
 		try (Connection con = sql2o.beginTransaction())
 		{
-			// Kill Entry Query
-			con.createQuery(INSERT_KILL_QUERY, true)
-				.addParameter("accountId", accountId)
-				.addParameter("type", record.getType())
-				.addParameter("eventId", record.getEventId())
-				.executeUpdate();
+			for (List<LootRecord> chunk : Iterables.partition(records, MAX_INSERT_ROWS))
+			{
+				List<Integer> killIds = insertKills(con, chunk, accountId);
+				insertDrops(con, chunk, killIds);
+			}
 
-			Query insertDrop = con.createQuery(INSERT_DROP_QUERY);
+			con.commit(false);
+		}
+	}
 
-			// Append all queries for inserting drops
-			for (GameItem drop : record.getDrops())
+	private static List<Integer> insertKills(Connection con, List<LootRecord> records, int accountId)
+	{
+		StringBuilder sql = new StringBuilder("INSERT INTO kills (accountId, type, eventId) VALUES ");
+		for (int i = 0; i < records.size(); ++i)
+		{
+			if (i > 0)
 			{
-				insertDrop
-					.addParameter("itemId", drop.getId())
-					.addParameter("itemQuantity", drop.getQty())
-					.addToBatch();
+				sql.append(',');
 			}
+			sql.append("(:accountId, :type").append(i).append(", :eventId").append(i).append(')');
+		}
 
-			insertDrop.executeBatch();
-			con.commit(false);
+		Query query = con.createQuery(sql.toString(), true)
+			.addParameter("accountId", accountId);
+		for (int i = 0; i < records.size(); ++i)
+		{
+			LootRecord record = records.get(i);
+			query.addParameter("type" + i, record.getType())
+				.addParameter("eventId" + i, record.getEventId());
+		}
+
+		// Keys are paired with records by position, which requires the insert to get consecutive ids.
+		// The driver derives them from the first id, which is only right with innodb_autoinc_lock_mode
+		// 0 or 1, as with 2 concurrent inserts may interleave.
+		List<Integer> killIds = query.executeUpdate().getKeys(Integer.class);
+		if (killIds.size() != records.size())
+		{
+			throw new IllegalStateException("expected " + records.size() + " kill ids, got " + killIds.size());
+		}
+		return killIds;
+	}
+
+	private static void insertDrops(Connection con, List<LootRecord> records, List<Integer> killIds)
+	{
+		List<int[]> drops = new ArrayList<>();
+		for (int i = 0; i < records.size(); ++i)
+		{
+			int killId = killIds.get(i);
+			for (GameItem drop : records.get(i).getDrops())
+			{
+				drops.add(new int[]{killId, drop.getId(), drop.getQty()});
+			}
+		}
+
+		for (List<int[]> chunk : Lists.partition(drops, MAX_INSERT_ROWS))
+		{
+			StringBuilder sql = new StringBuilder("INSERT INTO drops (killId, itemId, itemQuantity) VALUES ");
+			for (int i = 0; i < chunk.size(); ++i)
+			{
+				if (i > 0)
+				{
+					sql.append(',');
+				}
+				sql.append("(:killId").append(i).append(", :itemId").append(i).append(", :itemQuantity").append(i).append(')');
+			}
+
+			Query query = con.createQuery(sql.toString());
+			for (int i = 0; i < chunk.size(); ++i)
+			{
+				int[] drop = chunk.get(i);
+				query.addParameter("killId" + i, drop[0])
+					.addParameter("itemId" + i, drop[1])
+					.addParameter("itemQuantity" + i, drop[2]);
+			}
+			query.executeUpdate();
 		}
 	}
 
-	public Collection<LootRecord> get(int accountId, int limit, int offset)
+	/**
+	 * Find the last kill of a page
+	 *
+	 * @param accountId runelite account id
+	 * @param cursor    the kill before the page, or null for the first page
+	 * @param limit     number of kills in the page
+	 * @return the last kill of the page, or null if there are fewer than limit kills
+	 */
+	public LootCursor findPageEnd(int accountId, LootCursor cursor, int limit)
 	{
-		List<LootResult> lootResults;
+		Preconditions.checkArgument(limit > 0, "limit must be positive");
 
 		try (Connection con = sql2o.open())
 		{
-			lootResults = con.createQuery(SELECT_LOOT_QUERY)
+			Query query = con.createQuery(String.format(SELECT_PAGE_END_QUERY, cursor != null ? AFTER_CURSOR : ""))
 				.addParameter("accountId", accountId)
-				.addParameter("limit", limit)
-				.addParameter("offset", offset)
-				.executeAndFetch(LootResult.class);
+				.addParameter("offset", limit - 1);
+			if (cursor != null)
+			{
+				query.addParameter("cursorTime", cursor.getTime())
+					.addParameter("cursorId", cursor.getKillId());
+			}
+
+			LootResult last = query.executeAndFetchFirst(LootResult.class);
+			return last != null ? new LootCursor(last.getTime(), last.getKillId()) : null;
 		}
+	}
 
-		LootResult current = null;
-		List<LootRecord> lootRecords = new ArrayList<>();
-		List<GameItem> gameItems = new ArrayList<>();
+	/**
+	 * Read a page of loot, newest first, without holding the whole page in memory
+	 *
+	 * @param accountId runelite account id
+	 * @param cursor    the kill before the page, or null for the first page
+	 * @param end       the last kill of the page, or null to read to the end
+	 * @param consumer  receives each LootRecord
+	 */
+	public void get(int accountId, LootCursor cursor, LootCursor end, Consumer<LootRecord> consumer)
+	{
+		String where = (cursor != null ? AFTER_CURSOR_POSITIONAL : "") + (end != null ? UNTIL_END_POSITIONAL : "");
 
-		for (LootResult lootResult : lootResults)
+		try (Connection con = sql2o.open();
+			PreparedStatement statement = con.getJdbcConnection().prepareStatement(String.format(SELECT_LOOT_QUERY, where),
+				ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY))
 		{
-			if (current == null || current.getKillId() != lootResult.getKillId())
+			// Connector/J reads the whole result into memory unless the fetch size is Integer.MIN_VALUE,
+			// which other drivers reject
+			if (isMysql(con.getJdbcConnection()))
 			{
-				if (!gameItems.isEmpty())
+				statement.setFetchSize(Integer.MIN_VALUE);
+			}
+
+			int idx = 1;
+			statement.setInt(idx++, accountId);
+			if (cursor != null)
+			{
+				idx = bindCursor(statement, idx, cursor);
+			}
+			if (end != null)
+			{
+				bindCursor(statement, idx, end);
+			}
+
+			try (ResultSet rs = statement.executeQuery())
+			{
+				LootRecord current = null;
+				int currentKill = 0;
+
+				while (rs.next())
 				{
-					LootRecord lootRecord = new LootRecord(current.getEventId(), current.getType(), gameItems, current.getTime());
-					lootRecords.add(lootRecord);
+					int killId = rs.getInt("killId");
+					if (current == null || currentKill != killId)
+					{
+						if (current != null)
+						{
+							consumer.accept(current);
+						}
+
+						current = new LootRecord(rs.getString("eventId"), LootRecordType.valueOf(rs.getString("type")),
+							new ArrayList<>(), rs.getTimestamp("time").toInstant());
+						currentKill = killId;
+					}
 
-					gameItems = new ArrayList<>();
+					current.getDrops().add(new GameItem(rs.getInt("itemId"), rs.getInt("itemQuantity")));
 				}
 
-				current = lootResult;
+				if (current != null)
+				{
+					consumer.accept(current);
+				}
 			}
-
-			GameItem gameItem = new GameItem(lootResult.getItemId(), lootResult.getItemQuantity());
-			gameItems.add(gameItem);
 		}
-
-		if (!gameItems.isEmpty())
+		catch (SQLException ex)
 		{
-			LootRecord lootRecord = new LootRecord(current.getEventId(), current.getType(), gameItems, current.getTime());
-			lootRecords.add(lootRecord);
+			throw new Sql2oException("Unable to read loot", ex);
 		}
+	}
 
-		return lootRecords;
+	private static boolean isMysql(java.sql.Connection con) throws SQLException
+	{
+		String driver = con.getMetaData().getDriverName().toLowerCase();
+		return driver.contains("mysql") || driver.contains("mariadb");
+	}
+
+	private static int bindCursor(PreparedStatement statement, int idx, LootCursor cursor) throws SQLException
+	{
+		Timestamp time = Timestamp.from(cursor.getTime());
+		statement.setTimestamp(idx++, time);
+		statement.setTimestamp(idx++, time);
+		statement.setInt(idx++, cursor.getKillId());
+		return idx;
 	}
 
 	public void delete(int accountId, String eventId)
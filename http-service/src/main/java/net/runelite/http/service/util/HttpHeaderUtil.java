@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2019, liam909 <https://github.com/liam909>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.util;
+
+public class HttpHeaderUtil
+{
+	private HttpHeaderUtil()
+	{
+	}
+
+	/**
+	 * Check if an Accept-Encoding header permits a gzip encoded response.
+	 * A coding with a q-value of 0 is not acceptable, and a gzip coding
+	 * takes precedence over the * wildcard.
+	 *
+	 * @param acceptEncoding Accept-Encoding header, may be null
+	 * @return true if gzip is acceptable
+	 */
+	public static boolean acceptsGzip(String acceptEncoding)
+	{
+		if (acceptEncoding == null)
+		{
+			return false;
+		}
+
+		float gzip = -1f, wildcard = -1f;
+		for (String coding : acceptEncoding.split(","))
+		{
+			String[] params = coding.split(";");
+			String name = params[0].trim();
+			float q = 1f;
+			for (int i = 1; i < params.length; ++i)
+			{
+				String param = params[i].trim();
+				if (param.length() > 2 && param.regionMatches(true, 0, "q=", 0, 2))
+				{
+					try
+					{
+						q = Float.parseFloat(param.substring(2).trim());
+					}
+					catch (NumberFormatException ex)
+					{
+						q = 0f;
+					}
+				}
+			}
+
+			if (name.equalsIgnoreCase("gzip") || name.equalsIgnoreCase("x-gzip"))
+			{
+				gzip = Math.max(gzip, q);
+			}
+			else if (name.equals("*"))
+			{
+				wildcard = q;
+			}
+		}
+
+		return (gzip >= 0f ? gzip : wildcard) > 0f;
+	}
+
+	/**
+	 * Check if an If-None-Match header matches an entity tag, using the
+	 * weak comparison function. The header is a comma separated list of
+	 * quoted entity tags, which may themselves contain commas, or *.
+	 *
+	 * @param ifNoneMatch If-None-Match header, may be null
+	 * @param etag quoted entity tag of the current representation
+	 * @return true if the header matches the entity tag
+	 */
+	public static boolean etagMatches(String ifNoneMatch, String etag)
+	{
+		if (ifNoneMatch == null)
+		{
+			return false;
+		}
+
+		String opaqueTag = etag.startsWith("W/") ? etag.substring(2) : etag;
+		int pos = 0;
+		int len = ifNoneMatch.length();
+		while (pos < len)
+		{
+			char c = ifNoneMatch.charAt(pos);
+			if (c == ',' || Character.isWhitespace(c))
+			{
+				++pos;
+				continue;
+			}
+
+			if (c == '*')
+			{
+				return true;
+			}
+
+			if (ifNoneMatch.startsWith("W/", pos))
+			{
+				pos += 2;
+			}
+
+			if (pos >= len || ifNoneMatch.charAt(pos) != '"')
+			{
+				// malformed
+				return false;
+			}
+
+			int end = ifNoneMatch.indexOf('"', pos + 1);
+			if (end == -1)
+			{
+				return false;
+			}
+
+			if (ifNoneMatch.regionMatches(pos, opaqueTag, 0, opaqueTag.length()) && end + 1 - pos == opaqueTag.length())
+			{
+				return true;
+			}
+
+			pos = end + 1;
+		}
+
+		return false;
+	}
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2019, liam909 <https://github.com/liam909>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.xp;
+
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A lock-free FIFO of usernames which holds each username at most once.
+ * The set of queued usernames deduplicates offers, and a username may be
+ * queued again once it has been polled.
+ */
+class UsernameQueue implements Iterable<String>
+{
+	private final int limit;
+	private final Queue<String> queue = new ConcurrentLinkedQueue<>();
+	private final Set<String> queued = ConcurrentHashMap.newKeySet();
+	private final AtomicInteger size = new AtomicInteger();
+
+	UsernameQueue(int limit)
+	{
+		this.limit = limit;
+	}
+
+	/**
+	 * Add a username to the end of the queue, if it is not already queued
+	 *
+	 * @param username
+	 * @return false if the queue is full and the username is not already queued
+	 */
+	boolean offer(String username)
+	{
+		if (queued.contains(username))
+		{
+			return true;
+		}
+
+		// reserve a slot first so concurrent offers can't exceed the limit
+		if (size.incrementAndGet() > limit)
+		{
+			size.decrementAndGet();
+			return queued.contains(username);
+		}
+
+		if (!queued.add(username))
+		{
+			// queued by another thread in the meantime
+			size.decrementAndGet();
+			return true;
+		}
+
+		queue.add(username);
+		return true;
+	}
+
+	String poll()
+	{
+		String username = queue.poll();
+		if (username != null)
+		{
+			queued.remove(username);
+			size.decrementAndGet();
+		}
+		return username;
+	}
+
+	int size()
+	{
+		return size.get();
+	}
+
+	@Override
+	public Iterator<String> iterator()
+	{
+		return queue.iterator();
+	}
+}
@@ -56,4 +56,10 @@ public class XpTrackerController
 		XpEntity xpEntity = xpTrackerService.findXpAtTime(username, time);
 		return XpMapper.INSTANCE.xpEntityToXpData(xpEntity);
 	}
+
+	@GetMapping("/crawler")
+	public XpCrawlerStats crawler()
+	{
+		return xpTrackerService.getCrawlerStats();
+	}
 }
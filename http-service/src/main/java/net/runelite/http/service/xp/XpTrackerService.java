@@ -26,24 +26,41 @@ package net.runelite.http.service.xp;
 
 import com.google.common.hash.BloomFilter;
 import com.google.common.hash.Funnels;
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.nio.charset.Charset;
 import java.time.Duration;
 import java.time.Instant;
-import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.http.api.hiscore.HiscoreEndpoint;
 import net.runelite.http.api.hiscore.HiscoreResult;
+import net.runelite.http.api.hiscore.HiscoreSkill;
+import net.runelite.http.api.hiscore.Skill;
 import net.runelite.http.api.xp.XpData;
 import net.runelite.http.service.hiscore.HiscoreService;
 import net.runelite.http.service.xp.beans.PlayerEntity;
 import net.runelite.http.service.xp.beans.XpEntity;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.sql2o.Connection;
+import org.sql2o.Query;
 import org.sql2o.Sql2o;
 
 @Service
@@ -52,6 +69,19 @@ public class XpTrackerService
 {
 	private static final int QUEUE_LIMIT = 32768;
 	private static final int BLOOMFILTER_EXPECTED_INSERTIONS = 100_000;
+	private static final int MAX_INSERT_BATCH = 100;
+
+	/**
+	 * Skills in the order of the columns of the xp table
+	 */
+	private static final HiscoreSkill[] XP_SKILLS = {
+		HiscoreSkill.ATTACK, HiscoreSkill.DEFENCE, HiscoreSkill.STRENGTH, HiscoreSkill.HITPOINTS,
+		HiscoreSkill.RANGED, HiscoreSkill.PRAYER, HiscoreSkill.MAGIC, HiscoreSkill.COOKING,
+		HiscoreSkill.WOODCUTTING, HiscoreSkill.FLETCHING, HiscoreSkill.FISHING, HiscoreSkill.FIREMAKING,
+		HiscoreSkill.CRAFTING, HiscoreSkill.SMITHING, HiscoreSkill.MINING, HiscoreSkill.HERBLORE,
+		HiscoreSkill.AGILITY, HiscoreSkill.THIEVING, HiscoreSkill.SLAYER, HiscoreSkill.FARMING,
+		HiscoreSkill.RUNECRAFT, HiscoreSkill.HUNTER, HiscoreSkill.CONSTRUCTION
+	};
 
 	@Autowired
 	@Qualifier("Runelite XP Tracker SQL2O")
@@ -60,9 +90,41 @@ public class XpTrackerService
 	@Autowired
 	private HiscoreService hiscoreService;
 
-	private final Queue<String> usernameUpdateQueue = new ArrayDeque<>();
+	private final UsernameQueue usernameUpdateQueue = new UsernameQueue(QUEUE_LIMIT);
 	private BloomFilter<String> usernameFilter = createFilter();
 
+	private final int concurrency;
+	private final RateLimiter rateLimiter;
+	private final ExecutorService fetchExecutor;
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final Queue<HiscoreUpdate> pendingInserts = new ConcurrentLinkedQueue<>();
+
+	private final AtomicLong fetched = new AtomicLong();
+	private final AtomicLong failed = new AtomicLong();
+	private final AtomicLong inserted = new AtomicLong();
+	private final AtomicLong fetchNanos = new AtomicLong();
+	private long lastSampleNanos;
+	private long lastSampleFetches;
+	private volatile double fetchRate;
+
+	/**
+	 * @param concurrency maximum number of hiscore lookups in progress at once
+	 * @param rate maximum number of hiscore lookups started per second
+	 */
+	@Autowired
+	public XpTrackerService(
+		@Value("${runelite.xp.crawler.concurrency:4}") int concurrency,
+		@Value("${runelite.xp.crawler.rate:4}") double rate
+	)
+	{
+		this.concurrency = concurrency;
+		this.rateLimiter = RateLimiter.create(rate);
+		this.fetchExecutor = Executors.newFixedThreadPool(concurrency, new ThreadFactoryBuilder()
+			.setNameFormat("xp-crawler-%d")
+			.setDaemon(true)
+			.build());
+	}
+
 	public void update(String username) throws ExecutionException
 	{
 		HiscoreResult hiscoreResult = hiscoreService.lookupUsername(username, HiscoreEndpoint.NORMAL);
@@ -89,15 +151,10 @@ public class XpTrackerService
 				return;
 			}
 
-			synchronized (usernameUpdateQueue)
+			if (!usernameUpdateQueue.offer(username))
 			{
-				if (usernameUpdateQueue.size() >= QUEUE_LIMIT)
-				{
-					log.warn("Username update queue is full ({})", QUEUE_LIMIT);
-					return;
-				}
-
-				usernameUpdateQueue.add(username);
+				log.warn("Username update queue is full ({})", QUEUE_LIMIT);
+				return;
 			}
 		}
 
@@ -106,89 +163,161 @@ public class XpTrackerService
 
 	public void update(String username, HiscoreResult hiscoreResult)
 	{
+		List<HiscoreUpdate> updates = Collections.singletonList(new HiscoreUpdate(username, hiscoreResult));
 		try (Connection con = sql2o.open())
 		{
-			PlayerEntity playerEntity = findOrCreatePlayer(con, username);
+			insertXp(con, updates, findOrCreatePlayers(con, updates));
+		}
+	}
 
-			Instant now = Instant.now();
-			XpEntity currentXp = findXpAtTime(con, username, now);
+	/**
+	 * Insert xp for the given players, skipping those whose hiscores are unchanged. The
+	 * current xp of every player is read with one query, and the xp is inserted with a
+	 * single multi-row insert
+	 *
+	 * @param con
+	 * @param updates
+	 * @param players the player of each update
+	 * @return the number of rows inserted
+	 */
+	private int insertXp(Connection con, List<HiscoreUpdate> updates, List<PlayerEntity> players)
+	{
+		List<HiscoreUpdate> changed = new ArrayList<>(updates.size());
+		List<PlayerEntity> changedPlayers = new ArrayList<>(updates.size());
+		Map<Integer, XpEntity> currentXps = findLatestXp(con, players, Instant.now());
+
+		for (int i = 0; i < updates.size(); ++i)
+		{
+			HiscoreUpdate update = updates.get(i);
+			String username = update.getUsername();
+			PlayerEntity playerEntity = players.get(i);
+
+			XpEntity currentXp = currentXps.get(playerEntity.getId());
 			if (currentXp != null)
 			{
-				XpData hiscoreData = XpMapper.INSTANCE.hiscoreResultToXpData(hiscoreResult);
+				XpData hiscoreData = XpMapper.INSTANCE.hiscoreResultToXpData(update.getResult());
 				XpData existingData = XpMapper.INSTANCE.xpEntityToXpData(currentXp);
 
 				if (hiscoreData.equals(existingData))
 				{
 					log.debug("Hiscore for {} already up to date", username);
-					return;
+					continue;
 				}
 			}
 
-			con.createQuery("insert into xp (player,attack_xp,defence_xp,strength_xp,hitpoints_xp,ranged_xp,prayer_xp,magic_xp,cooking_xp,woodcutting_xp,"
-				+ "fletching_xp,fishing_xp,firemaking_xp,crafting_xp,smithing_xp,mining_xp,herblore_xp,agility_xp,thieving_xp,slayer_xp,farming_xp,"
-				+ "runecraft_xp,hunter_xp,construction_xp,attack_rank,defence_rank,strength_rank,hitpoints_rank,ranged_rank,prayer_rank,magic_rank,"
-				+ "cooking_rank,woodcutting_rank,fletching_rank,fishing_rank,firemaking_rank,crafting_rank,smithing_rank,mining_rank,herblore_rank,"
-				+ "agility_rank,thieving_rank,slayer_rank,farming_rank,runecraft_rank,hunter_rank,construction_rank,overall_rank) values (:player,:attack_xp,:defence_xp,"
-				+ ":strength_xp,:hitpoints_xp,:ranged_xp,:prayer_xp,:magic_xp,:cooking_xp,:woodcutting_xp,:fletching_xp,:fishing_xp,:firemaking_xp,"
-				+ ":crafting_xp,:smithing_xp,:mining_xp,:herblore_xp,:agility_xp,:thieving_xp,:slayer_xp,:farming_xp,:runecraft_xp,:hunter_xp,"
-				+ ":construction_xp,:attack_rank,:defence_rank,:strength_rank,:hitpoints_rank,:ranged_rank,:prayer_rank,:magic_rank,:cooking_rank,"
-				+ ":woodcutting_rank,:fletching_rank,:fishing_rank,:firemaking_rank,:crafting_rank,:smithing_rank,:mining_rank,:herblore_rank,"
-				+ ":agility_rank,:thieving_rank,:slayer_rank,:farming_rank,:runecraft_rank,:hunter_rank,:construction_rank,:overall_rank)")
-				.addParameter("player", playerEntity.getId())
-				.addParameter("attack_xp", hiscoreResult.getAttack().getExperience())
-				.addParameter("defence_xp", hiscoreResult.getDefence().getExperience())
-				.addParameter("strength_xp", hiscoreResult.getStrength().getExperience())
-				.addParameter("hitpoints_xp", hiscoreResult.getHitpoints().getExperience())
-				.addParameter("ranged_xp", hiscoreResult.getRanged().getExperience())
-				.addParameter("prayer_xp", hiscoreResult.getPrayer().getExperience())
-				.addParameter("magic_xp", hiscoreResult.getMagic().getExperience())
-				.addParameter("cooking_xp", hiscoreResult.getCooking().getExperience())
-				.addParameter("woodcutting_xp", hiscoreResult.getWoodcutting().getExperience())
-				.addParameter("fletching_xp", hiscoreResult.getFletching().getExperience())
-				.addParameter("fishing_xp", hiscoreResult.getFishing().getExperience())
-				.addParameter("firemaking_xp", hiscoreResult.getFiremaking().getExperience())
-				.addParameter("crafting_xp", hiscoreResult.getCrafting().getExperience())
-				.addParameter("smithing_xp", hiscoreResult.getSmithing().getExperience())
-				.addParameter("mining_xp", hiscoreResult.getMining().getExperience())
-				.addParameter("herblore_xp", hiscoreResult.getHerblore().getExperience())
-				.addParameter("agility_xp", hiscoreResult.getAgility().getExperience())
-				.addParameter("thieving_xp", hiscoreResult.getThieving().getExperience())
-				.addParameter("slayer_xp", hiscoreResult.getSlayer().getExperience())
-				.addParameter("farming_xp", hiscoreResult.getFarming().getExperience())
-				.addParameter("runecraft_xp", hiscoreResult.getRunecraft().getExperience())
-				.addParameter("hunter_xp", hiscoreResult.getHunter().getExperience())
-				.addParameter("construction_xp", hiscoreResult.getConstruction().getExperience())
-				.addParameter("attack_rank", hiscoreResult.getAttack().getRank())
-				.addParameter("defence_rank", hiscoreResult.getDefence().getRank())
-				.addParameter("strength_rank", hiscoreResult.getStrength().getRank())
-				.addParameter("hitpoints_rank", hiscoreResult.getHitpoints().getRank())
-				.addParameter("ranged_rank", hiscoreResult.getRanged().getRank())
-				.addParameter("prayer_rank", hiscoreResult.getPrayer().getRank())
-				.addParameter("magic_rank", hiscoreResult.getMagic().getRank())
-				.addParameter("cooking_rank", hiscoreResult.getCooking().getRank())
-				.addParameter("woodcutting_rank", hiscoreResult.getWoodcutting().getRank())
-				.addParameter("fletching_rank", hiscoreResult.getFletching().getRank())
-				.addParameter("fishing_rank", hiscoreResult.getFishing().getRank())
-				.addParameter("firemaking_rank", hiscoreResult.getFiremaking().getRank())
-				.addParameter("crafting_rank", hiscoreResult.getCrafting().getRank())
-				.addParameter("smithing_rank", hiscoreResult.getSmithing().getRank())
-				.addParameter("mining_rank", hiscoreResult.getMining().getRank())
-				.addParameter("herblore_rank", hiscoreResult.getHerblore().getRank())
-				.addParameter("agility_rank", hiscoreResult.getAgility().getRank())
-				.addParameter("thieving_rank", hiscoreResult.getThieving().getRank())
-				.addParameter("slayer_rank", hiscoreResult.getSlayer().getRank())
-				.addParameter("farming_rank", hiscoreResult.getFarming().getRank())
-				.addParameter("runecraft_rank", hiscoreResult.getRunecraft().getRank())
-				.addParameter("hunter_rank", hiscoreResult.getHunter().getRank())
-				.addParameter("construction_rank", hiscoreResult.getConstruction().getRank())
-				.addParameter("overall_rank", hiscoreResult.getOverall().getRank())
-				.executeUpdate();
-
-			con.createQuery("update player set rank = :rank, last_updated = CURRENT_TIMESTAMP where id = :id")
-				.addParameter("id", playerEntity.getId())
-				.addParameter("rank", hiscoreResult.getOverall().getRank())
-				.executeUpdate();
+			changed.add(update);
+			changedPlayers.add(playerEntity);
+		}
+
+		if (changed.isEmpty())
+		{
+			return 0;
+		}
+
+		StringBuilder sql = new StringBuilder("insert into xp (player");
+		for (HiscoreSkill skill : XP_SKILLS)
+		{
+			sql.append(',').append(column(skill, "_xp"));
+		}
+		for (HiscoreSkill skill : XP_SKILLS)
+		{
+			sql.append(',').append(column(skill, "_rank"));
+		}
+		sql.append(",overall_rank) values ");
+
+		for (int i = 0; i < changed.size(); ++i)
+		{
+			if (i > 0)
+			{
+				sql.append(',');
+			}
+			sql.append("(:player").append(i);
+			for (HiscoreSkill skill : XP_SKILLS)
+			{
+				sql.append(",:").append(column(skill, "_xp")).append(i);
+			}
+			for (HiscoreSkill skill : XP_SKILLS)
+			{
+				sql.append(",:").append(column(skill, "_rank")).append(i);
+			}
+			sql.append(",:overall_rank").append(i).append(')');
+		}
+
+		Query query = con.createQuery(sql.toString());
+		for (int i = 0; i < changed.size(); ++i)
+		{
+			HiscoreResult hiscoreResult = changed.get(i).getResult();
+			query.addParameter("player" + i, changedPlayers.get(i).getId());
+			for (HiscoreSkill skill : XP_SKILLS)
+			{
+				Skill s = hiscoreResult.getSkill(skill);
+				query.addParameter(column(skill, "_xp") + i, s.getExperience());
+				query.addParameter(column(skill, "_rank") + i, s.getRank());
+			}
+			query.addParameter("overall_rank" + i, hiscoreResult.getOverall().getRank());
+		}
+		query.executeUpdate();
+
+		Query updatePlayer = con.createQuery("update player set rank = :rank, last_updated = CURRENT_TIMESTAMP where id = :id");
+		for (int i = 0; i < changed.size(); ++i)
+		{
+			updatePlayer
+				.addParameter("id", changedPlayers.get(i).getId())
+				.addParameter("rank", changed.get(i).getResult().getOverall().getRank())
+				.addToBatch();
+		}
+		updatePlayer.executeBatch();
+
+		return changed.size();
+	}
+
+	private static String column(HiscoreSkill skill, String suffix)
+	{
+		return skill.name().toLowerCase() + suffix;
+	}
+
+	/**
+	 * Find the player of each update with one query. Players which don't exist yet are
+	 * created one at a time, which is rare as tryUpdate creates players before queueing them.
+	 *
+	 * @param con
+	 * @param updates
+	 * @return the player of each update
+	 */
+	private List<PlayerEntity> findOrCreatePlayers(Connection con, List<HiscoreUpdate> updates)
+	{
+		StringBuilder sql = new StringBuilder("select * from player where name in (");
+		for (int i = 0; i < updates.size(); ++i)
+		{
+			sql.append(i > 0 ? ",:name" : ":name").append(i);
+		}
+		sql.append(')');
+
+		Query query = con.createQuery(sql.toString());
+		for (int i = 0; i < updates.size(); ++i)
+		{
+			query.addParameter("name" + i, updates.get(i).getUsername());
+		}
+
+		// names are compared case insensitively by the database
+		Map<String, PlayerEntity> playersByName = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		for (PlayerEntity playerEntity : query.executeAndFetch(PlayerEntity.class))
+		{
+			playersByName.put(playerEntity.getName(), playerEntity);
+		}
+
+		List<PlayerEntity> players = new ArrayList<>(updates.size());
+		for (HiscoreUpdate update : updates)
+		{
+			PlayerEntity playerEntity = playersByName.get(update.getUsername());
+			if (playerEntity == null)
+			{
+				playerEntity = findOrCreatePlayer(con, update.getUsername());
+				playersByName.put(update.getUsername(), playerEntity);
+			}
+			players.add(playerEntity);
 		}
+		return players;
 	}
 
 	private synchronized PlayerEntity findOrCreatePlayer(Connection con, String username)
@@ -217,6 +346,40 @@ public class XpTrackerService
 		return playerEntity;
 	}
 
+	/**
+	 * Find the most recent xp of each of the given players at a time, with one query
+	 *
+	 * @param con
+	 * @param players
+	 * @param time
+	 * @return map of player id to xp, without players who have no xp
+	 */
+	private Map<Integer, XpEntity> findLatestXp(Connection con, List<PlayerEntity> players, Instant time)
+	{
+		StringBuilder sql = new StringBuilder("select xp.* from xp join (select player, max(time) as time from xp"
+			+ " where time <= :time and player in (");
+		for (int i = 0; i < players.size(); ++i)
+		{
+			sql.append(i > 0 ? ",:player" : ":player").append(i);
+		}
+		sql.append(") group by player) latest on latest.player = xp.player and latest.time = xp.time");
+
+		Query query = con.createQuery(sql.toString())
+			.throwOnMappingFailure(false)
+			.addParameter("time", time);
+		for (int i = 0; i < players.size(); ++i)
+		{
+			query.addParameter("player" + i, players.get(i).getId());
+		}
+
+		Map<Integer, XpEntity> xps = new HashMap<>();
+		for (XpEntity xpEntity : query.executeAndFetch(XpEntity.class))
+		{
+			xps.putIfAbsent(xpEntity.getPlayer(), xpEntity);
+		}
+		return xps;
+	}
+
 	private XpEntity findXpAtTime(Connection con, String username, Instant time)
 	{
 		return con.createQuery("select * from xp join player on player.id=xp.player where player.name = :username and time <= :time order by time desc limit 1")
@@ -234,21 +397,132 @@ public class XpTrackerService
 		}
 	}
 
-	@Scheduled(fixedDelay = 1000)
-	public void update() throws ExecutionException
+	/**
+	 * Start hiscore lookups for queued usernames, up to the configured concurrency
+	 */
+	@Scheduled(fixedDelay = 100)
+	public void update()
 	{
-		String next;
-		synchronized (usernameUpdateQueue)
+		while (inFlight.get() < concurrency)
 		{
-			next = usernameUpdateQueue.poll();
+			String next = usernameUpdateQueue.poll();
+			if (next == null)
+			{
+				return;
+			}
+
+			inFlight.incrementAndGet();
+			fetchExecutor.execute(() ->
+			{
+				try
+				{
+					fetch(next);
+				}
+				finally
+				{
+					inFlight.decrementAndGet();
+				}
+			});
 		}
+	}
+
+	private void fetch(String username)
+	{
+		rateLimiter.acquire();
 
-		if (next == null)
+		long start = System.nanoTime();
+		HiscoreResult hiscoreResult;
+		try
+		{
+			hiscoreResult = hiscoreService.lookupUsername(username, HiscoreEndpoint.NORMAL);
+		}
+		catch (ExecutionException ex)
 		{
+			log.debug("unable to look up hiscore for {}", username, ex);
+			failed.incrementAndGet();
 			return;
 		}
+		finally
+		{
+			fetchNanos.addAndGet(System.nanoTime() - start);
+		}
 
-		update(next);
+		fetched.incrementAndGet();
+		pendingInserts.add(new HiscoreUpdate(username, hiscoreResult));
+	}
+
+	/**
+	 * Insert the hiscores looked up since the last flush
+	 */
+	@Scheduled(fixedDelay = 1000)
+	public void flush()
+	{
+		List<HiscoreUpdate> batch = new ArrayList<>(MAX_INSERT_BATCH);
+		for (;;)
+		{
+			HiscoreUpdate update;
+			while (batch.size() < MAX_INSERT_BATCH && (update = pendingInserts.poll()) != null)
+			{
+				batch.add(update);
+			}
+
+			if (batch.isEmpty())
+			{
+				return;
+			}
+
+			// players are found or created before the transaction is begun, as findOrCreatePlayer
+			// holds a lock shared with tryUpdate which must not be held while waiting on the
+			// transaction's row locks
+			List<PlayerEntity> players;
+			try (Connection con = sql2o.open())
+			{
+				players = findOrCreatePlayers(con, batch);
+			}
+
+			try (Connection con = sql2o.beginTransaction())
+			{
+				int count = insertXp(con, batch, players);
+				con.commit(false);
+				inserted.addAndGet(count);
+			}
+
+			batch.clear();
+		}
+	}
+
+	@Scheduled(fixedDelay = 60_000)
+	public void sampleStats()
+	{
+		long now = System.nanoTime();
+		long total = fetched.get() + failed.get();
+		if (lastSampleNanos != 0)
+		{
+			fetchRate = (total - lastSampleFetches) * 1e9 / (now - lastSampleNanos);
+		}
+		lastSampleNanos = now;
+		lastSampleFetches = total;
+
+		if (total > 0)
+		{
+			log.debug("Xp crawler: {}", getCrawlerStats());
+		}
+	}
+
+	public XpCrawlerStats getCrawlerStats()
+	{
+		long fetched = this.fetched.get();
+		long failed = this.failed.get();
+		long total = fetched + failed;
+		double meanFetchMillis = total == 0 ? 0 : fetchNanos.get() / 1e6 / total;
+		return new XpCrawlerStats(usernameUpdateQueue.size(), inFlight.get(), pendingInserts.size(),
+			fetched, failed, inserted.get(), meanFetchMillis, fetchRate);
+	}
+
+	@PreDestroy
+	public void shutdown()
+	{
+		fetchExecutor.shutdown();
 	}
 
 	@Scheduled(fixedDelay = 6 * 60 * 60 * 1000) // 6 hours
@@ -264,12 +538,9 @@ public class XpTrackerService
 			BLOOMFILTER_EXPECTED_INSERTIONS
 		);
 
-		synchronized (usernameUpdateQueue)
+		for (String toUpdate : usernameUpdateQueue)
 		{
-			for (String toUpdate : usernameUpdateQueue)
-			{
-				filter.put(toUpdate);
-			}
+			filter.put(toUpdate);
 		}
 
 		return filter;
@@ -24,15 +24,30 @@
  */
 package net.runelite.http.service.xtea;
 
+import com.google.common.base.Throwables;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
 import net.runelite.cache.IndexType;
 import net.runelite.cache.fs.Container;
 import net.runelite.cache.util.Djb2;
 import net.runelite.http.api.xtea.XteaKey;
 import net.runelite.http.api.xtea.XteaRequest;
+import net.runelite.http.service.cache.CacheDefinitionCache;
 import net.runelite.http.service.cache.CacheService;
 import net.runelite.http.service.cache.beans.ArchiveEntry;
 import net.runelite.http.service.cache.beans.CacheEntry;
@@ -60,21 +75,47 @@ public class XteaService
 		+ "  KEY `region` (`region`,`time`)\n"
 		+ ") ENGINE=InnoDB";
 
+	private static final int VERIFY_THREADS = Runtime.getRuntime().availableProcessors();
+	private static final int VERIFY_QUEUE_SIZE = 256;
+	private static final long MAX_LANDSCAPE_BYTES = 64 * 1024 * 1024;
+
 	private final Sql2o sql2o;
 	private final CacheService cacheService;
+	private final CacheDefinitionCache cacheDefinitionCache;
 
 	private final Cache<Integer, XteaCache> keyCache = CacheBuilder.newBuilder()
 		.maximumSize(1024)
 		.build();
 
+	/**
+	 * Encrypted landscape archives, by cache and region. Landscapes of
+	 * older caches are evicted once the newer cache's fill it up.
+	 */
+	private final Cache<Long, byte[]> landscapeCache = CacheBuilder.newBuilder()
+		.maximumWeight(MAX_LANDSCAPE_BYTES)
+		.<Long, byte[]>weigher((k, v) -> v.length)
+		.build();
+
+	/**
+	 * Runs key verification. The queue is bounded and once it is full submitting threads verify
+	 * their keys themselves, which throttles submissions when many arrive at once.
+	 */
+	private final ExecutorService verifyExecutor = new ThreadPoolExecutor(VERIFY_THREADS, VERIFY_THREADS,
+		0L, TimeUnit.MILLISECONDS,
+		new ArrayBlockingQueue<>(VERIFY_QUEUE_SIZE),
+		new ThreadFactoryBuilder().setNameFormat("xtea-verify-%d").setDaemon(true).build(),
+		new ThreadPoolExecutor.CallerRunsPolicy());
+
 	@Autowired
 	public XteaService(
 		@Qualifier("Runelite SQL2O") Sql2o sql2o,
-		CacheService cacheService
+		CacheService cacheService,
+		CacheDefinitionCache cacheDefinitionCache
 	)
 	{
 		this.sql2o = sql2o;
 		this.cacheService = cacheService;
+		this.cacheDefinitionCache = cacheDefinitionCache;
 
 		try (Connection con = sql2o.beginTransaction())
 		{
@@ -83,18 +124,58 @@ public class XteaService
 		}
 	}
 
-	private XteaEntry findLatestXtea(Connection con, int region)
+	@PreDestroy
+	public void shutdown()
 	{
-		return con.createQuery("select region, time, key1, key2, key3, key4 from xtea "
-			+ "where region = :region "
-			+ "order by time desc "
-			+ "limit 1")
-			.addParameter("region", region)
-			.executeAndFetchFirst(XteaEntry.class);
+		verifyExecutor.shutdown();
+	}
+
+	/**
+	 * Find the latest keys of each of the given regions
+	 *
+	 * @param con
+	 * @param regions
+	 * @return the latest keys, by region. Regions without keys are absent.
+	 */
+	private Map<Integer, XteaEntry> findLatestXteas(Connection con, List<Integer> regions)
+	{
+		StringBuilder sql = new StringBuilder("select t2.region, t2.time, t2.key1, t2.key2, t2.key3, t2.key4 from "
+			+ "(select region,max(time) as time from xtea where region in (");
+		for (int i = 0; i < regions.size(); ++i)
+		{
+			if (i > 0)
+			{
+				sql.append(',');
+			}
+			sql.append(":region").append(i);
+		}
+		sql.append(") group by region) t1 "
+			+ "join xtea t2 on t1.region = t2.region and t1.time = t2.time");
+
+		Query query = con.createQuery(sql.toString());
+		for (int i = 0; i < regions.size(); ++i)
+		{
+			query.addParameter("region" + i, regions.get(i));
+		}
+
+		Map<Integer, XteaEntry> entries = new HashMap<>();
+		for (XteaEntry entry : query.executeAndFetch(XteaEntry.class))
+		{
+			entries.put(entry.getRegion(), entry);
+		}
+		return entries;
 	}
 
 	public void submit(XteaRequest xteaRequest)
 	{
+		for (XteaKey key : xteaRequest.getKeys())
+		{
+			if (key.getKeys().length != 4)
+			{
+				throw new IllegalArgumentException("Key length must be 4");
+			}
+		}
+
 		boolean cached = true;
 		for (XteaKey key : xteaRequest.getKeys())
 		{
@@ -118,51 +199,74 @@ public class XteaService
 			return;
 		}
 
-		try (Connection con = sql2o.beginTransaction())
+		CacheEntry cache = cacheDefinitionCache.findMostRecent();
+
+		if (cache == null)
 		{
-			CacheEntry cache = cacheService.findMostRecent();
+			throw new InternalServerErrorException("No most recent cache");
+		}
 
-			if (cache == null)
-			{
-				throw new InternalServerErrorException("No most recent cache");
-			}
+		List<Integer> regions = new ArrayList<>(xteaRequest.getKeys().size());
+		for (XteaKey key : xteaRequest.getKeys())
+		{
+			regions.add(key.getRegion());
+		}
 
-			Query query = null;
+		Map<Integer, XteaEntry> latest;
+		try (Connection con = sql2o.open())
+		{
+			latest = findLatestXteas(con, regions);
+		}
+
+		List<XteaKey> newKeys = new ArrayList<>();
+		List<CompletableFuture<Boolean>> checks = new ArrayList<>();
+		for (XteaKey key : xteaRequest.getKeys())
+		{
+			int region = key.getRegion();
+			int[] keys = key.getKeys();
 
-			for (XteaKey key : xteaRequest.getKeys())
+			XteaEntry xteaEntry = latest.get(region);
+
+			// already have these?
+			if (xteaEntry != null
+				&& xteaEntry.getKey1() == keys[0]
+				&& xteaEntry.getKey2() == keys[1]
+				&& xteaEntry.getKey3() == keys[2]
+				&& xteaEntry.getKey4() == keys[3])
 			{
-				int region = key.getRegion();
-				int[] keys = key.getKeys();
+				continue;
+			}
 
-				XteaEntry xteaEntry = findLatestXtea(con, region);
+			newKeys.add(key);
+			checks.add(CompletableFuture.supplyAsync(() -> checkKeys(cache, region, keys), verifyExecutor));
+		}
 
-				if (keys.length != 4)
-				{
-					throw new IllegalArgumentException("Key length must be 4");
-				}
+		if (newKeys.isEmpty())
+		{
+			return;
+		}
 
-				// already have these?
-				if (xteaEntry != null
-					&& xteaEntry.getKey1() == keys[0]
-					&& xteaEntry.getKey2() == keys[1]
-					&& xteaEntry.getKey3() == keys[2]
-					&& xteaEntry.getKey4() == keys[3])
-				{
-					continue;
-				}
+		try (Connection con = sql2o.beginTransaction())
+		{
+			Query query = null;
 
-				if (!checkKeys(cache, region, keys))
+			for (int i = 0; i < newKeys.size(); ++i)
+			{
+				if (!join(checks.get(i)))
 				{
 					continue;
 				}
 
+				XteaKey key = newKeys.get(i);
+				int[] keys = key.getKeys();
+
 				if (query == null)
 				{
 					query = con.createQuery("insert into xtea (region, rev, key1, key2, key3, key4) "
 						+ "values (:region, :rev, :key1, :key2, :key3, :key4)");
 				}
 
-				query.addParameter("region", region)
+				query.addParameter("region", key.getRegion())
 					.addParameter("rev", xteaRequest.getRevision())
 					.addParameter("key1", keys[0])
 					.addParameter("key2", keys[1])
@@ -179,6 +283,19 @@ public class XteaService
 		}
 	}
 
+	private static boolean join(CompletableFuture<Boolean> future)
+	{
+		try
+		{
+			return future.join();
+		}
+		catch (CompletionException ex)
+		{
+			Throwables.throwIfUnchecked(ex.getCause());
+			throw ex;
+		}
+	}
+
 	public List<XteaEntry> get()
 	{
 		try (Connection con = sql2o.open())
@@ -203,6 +320,37 @@ public class XteaService
 	}
 
 	private boolean checkKeys(CacheEntry cache, int regionId, int[] keys)
+	{
+		byte[] data = getLandscape(cache, regionId);
+
+		try
+		{
+			Container.decompress(data, keys);
+			return true;
+		}
+		catch (IOException ex)
+		{
+			return false;
+		}
+	}
+
+	private byte[] getLandscape(CacheEntry cache, int regionId)
+	{
+		long key = (long) cache.getId() << 32 | regionId;
+
+		try
+		{
+			// concurrent submissions for the same region share a single load
+			return landscapeCache.get(key, () -> loadLandscape(cache, regionId));
+		}
+		catch (ExecutionException | UncheckedExecutionException ex)
+		{
+			Throwables.throwIfUnchecked(ex.getCause());
+			throw new InternalServerErrorException("Unable to load landscape for region");
+		}
+	}
+
+	private byte[] loadLandscape(CacheEntry cache, int regionId)
 	{
 		int x = regionId >>> 8;
 		int y = regionId & 0xFF;
@@ -227,14 +375,6 @@ public class XteaService
 			throw new InternalServerErrorException("Unable to get archive data");
 		}
 
-		try
-		{
-			Container.decompress(data, keys);
-			return true;
-		}
-		catch (IOException ex)
-		{
-			return false;
-		}
+		return data;
 	}
 }
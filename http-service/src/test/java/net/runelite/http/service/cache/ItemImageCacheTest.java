@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2019, liam909 <https://github.com/liam909>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.cache;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ItemImageCacheTest
+{
+	private static final byte[] PNG = {1, 2, 3};
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testGetFromDisk() throws Exception
+	{
+		File directory = folder.getRoot();
+		ItemImageKey key = new ItemImageKey(1, 4151, 1, 1, 0);
+		new ItemImageCache(directory.getPath(), 10).put(key, PNG);
+
+		ItemImageCache cache = new ItemImageCache(directory.getPath(), 10);
+		assertArrayEquals(PNG, cache.get(key));
+		assertNull(cache.get(new ItemImageKey(1, 4151, 2, 1, 0)));
+	}
+
+	@Test
+	public void testSwitchCache() throws Exception
+	{
+		File directory = folder.getRoot();
+		Path other = folder.newFolder("other").toPath();
+		Path otherImages = Files.createDirectories(directory.toPath().resolve("item-images").resolve("other"));
+
+		ItemImageCache cache = new ItemImageCache(directory.getPath(), 10);
+		cache.put(new ItemImageKey(1, 4151, 1, 1, 0), PNG);
+		Path oldCache = directory.toPath().resolve("item-images").resolve("cache-1");
+		assertTrue(Files.isDirectory(oldCache));
+
+		cache.put(new ItemImageKey(2, 4151, 1, 1, 0), PNG);
+		assertFalse(Files.exists(oldCache));
+		assertTrue(Files.isDirectory(directory.toPath().resolve("item-images").resolve("cache-2")));
+
+		// directories not created by the cache are left alone
+		assertTrue(Files.isDirectory(other));
+		assertTrue(Files.isDirectory(otherImages));
+	}
+
+	@Test
+	public void testDiskLimit() throws Exception
+	{
+		File directory = folder.getRoot();
+		ItemImageCache cache = new ItemImageCache(directory.getPath(), 2);
+		for (int quantity = 1; quantity <= 5; ++quantity)
+		{
+			cache.put(new ItemImageKey(1, 4151, quantity, 1, 0), PNG);
+		}
+
+		try (Stream<Path> images = Files.list(directory.toPath().resolve("item-images").resolve("cache-1")))
+		{
+			assertEquals(2, images.count());
+		}
+
+		// the memory tier still holds every image
+		assertNotNull(cache.get(new ItemImageKey(1, 4151, 5, 1, 0)));
+
+		// the count is restored from disk
+		cache = new ItemImageCache(directory.getPath(), 2);
+		cache.put(new ItemImageKey(1, 4151, 6, 1, 0), PNG);
+		cache = new ItemImageCache(directory.getPath(), 2);
+		assertNull(cache.get(new ItemImageKey(1, 4151, 6, 1, 0)));
+	}
+}
@@ -36,7 +36,7 @@ import org.junit.Test;
 
 public class HiscoreServiceTest
 {
-	private static final String RESPONSE = "654683,705,1304518\n"
+	public static final String RESPONSE = "654683,705,1304518\n"
 			+ "679419,50,107181\n"
 			+ "550667,48,85764\n"
 			+ "861497,50,101366\n"
@@ -26,14 +26,16 @@
 package net.runelite.http.service.hiscore;
 
 import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import net.runelite.http.api.hiscore.HiscoreEndpoint;
 import net.runelite.http.api.hiscore.HiscoreResult;
 import okhttp3.HttpUrl;
 
-class HiscoreTestService extends HiscoreService
+public class HiscoreTestService extends HiscoreService
 {
 	private final HttpUrl testUrl;
 
-	HiscoreTestService(HttpUrl testUrl)
+	public HiscoreTestService(HttpUrl testUrl)
 	{
 		this.testUrl = testUrl;
 	}
@@ -43,4 +45,17 @@ class HiscoreTestService extends HiscoreService
 	{
 		return super.lookupUsername(username, testUrl);
 	}
+
+	@Override
+	public HiscoreResult lookupUsername(String username, HiscoreEndpoint endpoint) throws ExecutionException
+	{
+		try
+		{
+			return lookupUsername(username, testUrl);
+		}
+		catch (IOException ex)
+		{
+			throw new ExecutionException(ex);
+		}
+	}
 }
@@ -26,6 +26,8 @@ package net.runelite.http.service.loottracker;
 
 import java.io.IOException;
 import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -42,7 +44,9 @@ import org.junit.runner.RunWith;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Matchers.isNull;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -52,6 +56,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -91,4 +96,53 @@ public class LootTrackerControllerTest
 
 		verify(lootTrackerService).store(eq(lootRecord), anyInt());
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void storeLootRecords() throws Exception
+	{
+		LootRecord lootRecord = new LootRecord();
+		lootRecord.setType(LootRecordType.NPC);
+		lootRecord.setTime(Instant.now());
+		lootRecord.setDrops(Collections.singletonList(new GameItem(4151, 1)));
+
+		String data = RuneLiteAPI.GSON.toJson(Arrays.asList(lootRecord, lootRecord));
+		mockMvc.perform(post("/loottracker/bulk").content(data).contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isOk());
+
+		verify(lootTrackerService).store(eq(Arrays.asList(lootRecord, lootRecord)), anyInt());
+	}
+
+	@Test
+	public void storeTooManyLootRecords() throws Exception
+	{
+		LootRecord lootRecord = new LootRecord();
+		lootRecord.setType(LootRecordType.NPC);
+		lootRecord.setTime(Instant.now());
+		lootRecord.setDrops(Collections.singletonList(new GameItem(4151, 1)));
+
+		String data = RuneLiteAPI.GSON.toJson(Collections.nCopies(LootTrackerController.MAX_BULK_RECORDS + 1, lootRecord));
+		mockMvc.perform(post("/loottracker/bulk").content(data).contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isBadRequest());
+
+		verify(lootTrackerService, never()).store(any(Collection.class), anyInt());
+	}
+
+	@Test
+	public void getLootRecordsBadCount() throws Exception
+	{
+		mockMvc.perform(get("/loottracker").param("count", "0"))
+			.andExpect(status().isBadRequest());
+
+		verify(lootTrackerService, never()).findPageEnd(anyInt(), any(LootCursor.class), anyInt());
+		verify(lootTrackerService, never()).get(anyInt(), any(LootCursor.class), any(LootCursor.class), any());
+	}
+
+	@Test
+	public void getLootRecordsMaxCount() throws Exception
+	{
+		mockMvc.perform(get("/loottracker").param("count", "1000000"))
+			.andExpect(status().isOk());
+
+		verify(lootTrackerService).findPageEnd(anyInt(), isNull(LootCursor.class), eq(LootTrackerController.MAX_COUNT));
+	}
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2019, liam909 <https://github.com/liam909>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.loottracker;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import net.runelite.http.api.loottracker.GameItem;
+import net.runelite.http.api.loottracker.LootRecord;
+import net.runelite.http.api.loottracker.LootRecordType;
+import net.runelite.http.service.util.InstantConverter;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+import org.junit.Before;
+import org.junit.Test;
+import org.sql2o.Connection;
+import org.sql2o.Sql2o;
+import org.sql2o.converters.Converter;
+import org.sql2o.quirks.NoQuirks;
+
+public class LootTrackerServiceTest
+{
+	private static final int ACCOUNT = 1;
+	private static final int OTHER_ACCOUNT = 2;
+
+	private Sql2o sql2o;
+	private LootTrackerService service;
+
+	@Before
+	public void before()
+	{
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setURL("jdbc:h2:mem:loottracker;MODE=MySQL;DB_CLOSE_DELAY=-1");
+		Map<Class, Converter> converters = new HashMap<>();
+		converters.put(Instant.class, new InstantConverter());
+		sql2o = new Sql2o(dataSource, new NoQuirks(converters));
+
+		try (Connection con = sql2o.open())
+		{
+			con.createQuery("create table users (id int primary key)")
+				.executeUpdate();
+			con.createQuery("insert into users (id) values (" + ACCOUNT + "), (" + OTHER_ACCOUNT + ")")
+				.executeUpdate();
+		}
+
+		service = new LootTrackerService(sql2o);
+	}
+
+	@After
+	public void after()
+	{
+		try (Connection con = sql2o.open())
+		{
+			con.createQuery("drop all objects")
+				.executeUpdate();
+		}
+	}
+
+	@Test
+	public void testStoreMultipleChunks()
+	{
+		// more records, and more drops, than fit in one multi-row insert
+		List<LootRecord> records = new ArrayList<>();
+		for (int i = 0; i < 1234; ++i)
+		{
+			records.add(record(i, 1 + i % 3));
+		}
+		service.store(records, ACCOUNT);
+
+		// each kill must have the drops of its own record
+		try (Connection con = sql2o.open())
+		{
+			List<Map<String, Object>> rows = con.createQuery("select eventId, itemId, itemQuantity from kills"
+				+ " join drops on drops.killId = kills.id")
+				.executeAndFetchTable()
+				.asList();
+
+			int drops = 0;
+			for (int i = 0; i < records.size(); ++i)
+			{
+				drops += records.get(i).getDrops().size();
+			}
+			assertEquals(drops, rows.size());
+
+			for (Map<String, Object> row : rows)
+			{
+				String eventId = (String) row.get("eventid");
+				assertEquals(eventId, "event" + row.get("itemid"));
+			}
+		}
+
+		List<LootRecord> read = read(null, null);
+		assertEquals(records.size(), read.size());
+	}
+
+	@Test
+	public void testPaging()
+	{
+		List<LootRecord> records = new ArrayList<>();
+		for (int i = 0; i < 25; ++i)
+		{
+			records.add(record(i, 2));
+		}
+		service.store(records, ACCOUNT);
+		service.store(Collections.singletonList(record(1000, 1)), OTHER_ACCOUNT);
+		// a kill without drops isn't part of any page
+		service.store(Collections.singletonList(new LootRecord("empty", LootRecordType.NPC, Collections.emptyList(), Instant.now())), ACCOUNT);
+
+		// kills 0-9 are older, the rest share a time so the page boundary falls within one timestamp
+		try (Connection con = sql2o.open())
+		{
+			con.createQuery("update kills set time = '2019-01-01 00:00:00' where eventId in ("
+				+ "'event0','event1','event2','event3','event4','event5','event6','event7','event8','event9')")
+				.executeUpdate();
+			con.createQuery("update kills set time = '2019-01-02 00:00:00' where time > '2019-01-01 00:00:00'")
+				.executeUpdate();
+		}
+
+		List<LootRecord> read = new ArrayList<>();
+
+		LootCursor end = service.findPageEnd(ACCOUNT, null, 10);
+		assertNotNull(end);
+		List<LootRecord> page = read(null, end);
+		assertEquals(10, page.size());
+		read.addAll(page);
+
+		LootCursor cursor = LootCursor.parse(end.toString());
+		assertEquals(end, cursor);
+		end = service.findPageEnd(ACCOUNT, cursor, 10);
+		assertNotNull(end);
+		page = read(cursor, end);
+		assertEquals(10, page.size());
+		read.addAll(page);
+
+		cursor = end;
+		// fewer than a page left
+		assertNull(service.findPageEnd(ACCOUNT, cursor, 10));
+		page = read(cursor, null);
+		assertEquals(5, page.size());
+		read.addAll(page);
+
+		// newest first, each record exactly once
+		assertEquals(25, read.size());
+		for (int i = 0; i < read.size(); ++i)
+		{
+			assertEquals("event" + (24 - i), read.get(i).getEventId());
+			assertEquals(2, read.get(i).getDrops().size());
+		}
+	}
+
+	@Test
+	public void testBadCursor()
+	{
+		for (String cursor : new String[]{"", "abc", "123", "1-abc", "-1-5", "1--5", "99999999999999999999-1", "1-99999999999"})
+		{
+			try
+			{
+				LootCursor.parse(cursor);
+				fail("parsed " + cursor);
+			}
+			catch (IllegalArgumentException ex)
+			{
+				// expected
+			}
+		}
+
+		service.store(Collections.singletonList(record(0, 1)), ACCOUNT);
+
+		// cursors past either end of the loot
+		LootCursor future = LootCursor.parse(Instant.parse("2100-01-01T00:00:00Z").toEpochMilli() + "-" + Integer.MAX_VALUE);
+		assertEquals(1, read(future, null).size());
+		LootCursor past = LootCursor.parse("0-0");
+		assertEquals(0, read(past, null).size());
+		assertNull(service.findPageEnd(ACCOUNT, past, 1));
+	}
+
+	private List<LootRecord> read(LootCursor cursor, LootCursor end)
+	{
+		List<LootRecord> records = new ArrayList<>();
+		service.get(ACCOUNT, cursor, end, records::add);
+		return records;
+	}
+
+	/**
+	 * A record with event id "event{i}" and drops of item i
+	 */
+	private static LootRecord record(int i, int drops)
+	{
+		List<GameItem> items = new ArrayList<>();
+		for (int j = 0; j < drops; ++j)
+		{
+			items.add(new GameItem(i, j + 1));
+		}
+		return new LootRecord("event" + i, LootRecordType.NPC, items, Instant.now());
+	}
+}
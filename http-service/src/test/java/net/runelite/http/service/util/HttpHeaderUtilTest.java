@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2019, liam909 <https://github.com/liam909>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.util;
+
+import static net.runelite.http.service.util.HttpHeaderUtil.acceptsGzip;
+import static net.runelite.http.service.util.HttpHeaderUtil.etagMatches;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class HttpHeaderUtilTest
+{
+	@Test
+	public void testAcceptsGzip()
+	{
+		assertFalse(acceptsGzip(null));
+		assertFalse(acceptsGzip(""));
+		assertTrue(acceptsGzip("gzip"));
+		assertTrue(acceptsGzip("deflate, gzip"));
+		assertTrue(acceptsGzip("GZIP;q=0.5"));
+		assertTrue(acceptsGzip("x-gzip"));
+		assertTrue(acceptsGzip("*"));
+		assertFalse(acceptsGzip("gzip;q=0"));
+		assertFalse(acceptsGzip("gzip; q=0.0, deflate"));
+		assertFalse(acceptsGzip("gzip;q=0, *"));
+		assertFalse(acceptsGzip("*;q=0"));
+		assertFalse(acceptsGzip("identity, gzipped"));
+		assertTrue(acceptsGzip("*;q=0, gzip"));
+	}
+
+	@Test
+	public void testEtagMatches()
+	{
+		assertFalse(etagMatches(null, "\"abc\""));
+		assertTrue(etagMatches("\"abc\"", "\"abc\""));
+		assertTrue(etagMatches("\"xyz\", \"abc\"", "\"abc\""));
+		assertTrue(etagMatches("W/\"abc\"", "\"abc\""));
+		assertTrue(etagMatches("*", "\"abc\""));
+		assertTrue(etagMatches("\"a,b\", \"abc\"", "\"abc\""));
+		assertFalse(etagMatches("\"abc-gzip\"", "\"abc\""));
+		assertFalse(etagMatches("\"abc\"", "\"abc-gzip\""));
+		assertFalse(etagMatches("\"xabc\"", "\"abc\""));
+		assertFalse(etagMatches("\"a,\"abc\"\"", "\"abc\""));
+		assertFalse(etagMatches("abc", "\"abc\""));
+	}
+}
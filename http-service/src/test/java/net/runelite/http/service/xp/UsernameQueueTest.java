@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2019, liam909 <https://github.com/liam909>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.xp;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class UsernameQueueTest
+{
+	@Test
+	public void testDeduplicate()
+	{
+		UsernameQueue queue = new UsernameQueue(8);
+		assertTrue(queue.offer("a"));
+		assertTrue(queue.offer("b"));
+		assertTrue(queue.offer("a"));
+		assertEquals(2, queue.size());
+
+		assertEquals("a", queue.poll());
+		assertEquals("b", queue.poll());
+		assertNull(queue.poll());
+
+		// may be queued again once polled
+		assertTrue(queue.offer("a"));
+		assertEquals("a", queue.poll());
+	}
+
+	@Test
+	public void testLimit()
+	{
+		UsernameQueue queue = new UsernameQueue(2);
+		assertTrue(queue.offer("a"));
+		assertTrue(queue.offer("b"));
+		assertFalse(queue.offer("c"));
+		assertTrue(queue.offer("a"));
+		assertEquals(2, queue.size());
+	}
+
+	@Test
+	public void testConcurrentOffer() throws Exception
+	{
+		UsernameQueue queue = new UsernameQueue(100);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int t = 0; t < 4; ++t)
+		{
+			futures.add(executor.submit(() ->
+			{
+				// every thread offers the same usernames, more than fit
+				for (int i = 0; i < 200; ++i)
+				{
+					queue.offer("user" + i);
+				}
+			}));
+		}
+		for (Future<?> future : futures)
+		{
+			future.get();
+		}
+		executor.shutdown();
+
+		assertEquals(100, queue.size());
+
+		Set<String> polled = new HashSet<>();
+		for (String username = queue.poll(); username != null; username = queue.poll())
+		{
+			assertTrue(polled.add(username));
+		}
+		assertEquals(100, polled.size());
+		assertEquals(0, queue.size());
+	}
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2019, liam909 <https://github.com/liam909>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.xp;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import net.runelite.http.service.hiscore.HiscoreServiceTest;
+import net.runelite.http.service.hiscore.HiscoreTestService;
+import net.runelite.http.service.util.InstantConverter;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.sql2o.Connection;
+import org.sql2o.Sql2o;
+import org.sql2o.converters.Converter;
+import org.sql2o.quirks.NoQuirks;
+
+public class XpTrackerServiceTest
+{
+	private static final String[] SKILLS = {
+		"attack", "defence", "strength", "hitpoints", "ranged", "prayer", "magic", "cooking",
+		"woodcutting", "fletching", "fishing", "firemaking", "crafting", "smithing", "mining", "herblore",
+		"agility", "thieving", "slayer", "farming", "runecraft", "hunter", "construction"
+	};
+
+	private final MockWebServer server = new MockWebServer();
+	private Sql2o sql2o;
+	private XpTrackerService xpTrackerService;
+
+	@Before
+	public void before() throws IOException
+	{
+		server.setDispatcher(new Dispatcher()
+		{
+			@Override
+			public MockResponse dispatch(RecordedRequest request)
+			{
+				if (request.getPath().contains("failing"))
+				{
+					return new MockResponse().setResponseCode(500);
+				}
+				return new MockResponse().setBody(HiscoreServiceTest.RESPONSE);
+			}
+		});
+		server.start();
+
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setURL("jdbc:h2:mem:xptracker-crawler;MODE=MySQL;DB_CLOSE_DELAY=-1");
+		Map<Class, Converter> converters = new HashMap<>();
+		converters.put(Instant.class, new InstantConverter());
+		sql2o = new Sql2o(dataSource, new NoQuirks(converters));
+
+		StringBuilder xp = new StringBuilder("create table xp (id int auto_increment primary key,"
+			+ " time timestamp not null default current_timestamp, player int not null");
+		for (String skill : SKILLS)
+		{
+			xp.append(", ").append(skill).append("_xp int not null");
+		}
+		for (String skill : SKILLS)
+		{
+			xp.append(", ").append(skill).append("_rank int not null");
+		}
+		xp.append(", overall_rank int not null)");
+
+		try (Connection con = sql2o.open())
+		{
+			con.createQuery("create table player (id int auto_increment primary key, name varchar(32) not null unique,"
+				+ " tracked_since timestamp not null default current_timestamp,"
+				+ " last_updated timestamp not null default current_timestamp, rank int)")
+				.executeUpdate();
+			con.createQuery(xp.toString())
+				.executeUpdate();
+		}
+
+		xpTrackerService = new XpTrackerService(2, 100);
+		ReflectionTestUtils.setField(xpTrackerService, "sql2o", sql2o);
+		ReflectionTestUtils.setField(xpTrackerService, "hiscoreService", new HiscoreTestService(server.url("/")));
+	}
+
+	@After
+	public void after() throws IOException
+	{
+		xpTrackerService.shutdown();
+		server.shutdown();
+
+		try (Connection con = sql2o.open())
+		{
+			con.createQuery("drop all objects")
+				.executeUpdate();
+		}
+	}
+
+	@Test
+	public void testCrawl() throws InterruptedException
+	{
+		addPlayer("zezima");
+		addPlayer("lynx titan");
+		addPlayer("failing");
+
+		xpTrackerService.tryUpdate("zezima");
+		xpTrackerService.tryUpdate("lynx titan");
+		xpTrackerService.tryUpdate("failing");
+		// already queued
+		xpTrackerService.tryUpdate("zezima");
+		assertEquals(3, xpTrackerService.getCrawlerStats().getQueued());
+
+		crawl(3);
+
+		XpCrawlerStats stats = xpTrackerService.getCrawlerStats();
+		assertEquals(0, stats.getQueued());
+		assertEquals(0, stats.getPendingInserts());
+		assertEquals(2, stats.getFetched());
+		assertEquals(1, stats.getFailed());
+		assertEquals(2, stats.getInserted());
+		assertEquals(3, server.getRequestCount());
+
+		try (Connection con = sql2o.open())
+		{
+			List<String> names = con.createQuery("select name from player join xp on xp.player = player.id"
+				+ " where player.rank = 654683 and xp.fishing_xp = 159727 order by name")
+				.executeAndFetch(String.class);
+			assertEquals(2, names.size());
+			assertEquals("lynx titan", names.get(0));
+			assertEquals("zezima", names.get(1));
+		}
+	}
+
+	@Test
+	public void testUnchanged() throws InterruptedException
+	{
+		addPlayer("zezima");
+		xpTrackerService.tryUpdate("zezima");
+		crawl(1);
+
+		// make the player due for an update again
+		try (Connection con = sql2o.open())
+		{
+			con.createQuery("update player set last_updated = '2000-01-01 00:00:00'")
+				.executeUpdate();
+		}
+		xpTrackerService.clearFilter();
+		xpTrackerService.tryUpdate("zezima");
+		crawl(2);
+
+		XpCrawlerStats stats = xpTrackerService.getCrawlerStats();
+		assertEquals(2, stats.getFetched());
+		// the second lookup returns the same hiscores, so is not inserted again
+		assertEquals(1, stats.getInserted());
+		assertEquals(2, server.getRequestCount());
+	}
+
+	private void addPlayer(String name)
+	{
+		try (Connection con = sql2o.open())
+		{
+			con.createQuery("insert into player (name, last_updated) values (:name, '2000-01-01 00:00:00')")
+				.addParameter("name", name)
+				.executeUpdate();
+		}
+	}
+
+	/**
+	 * Run the crawler until the given total number of lookups have completed, then flush
+	 */
+	private void crawl(int lookups) throws InterruptedException
+	{
+		long deadline = System.currentTimeMillis() + 10_000;
+		for (;;)
+		{
+			xpTrackerService.update();
+
+			XpCrawlerStats stats = xpTrackerService.getCrawlerStats();
+			if (stats.getFetched() + stats.getFailed() >= lookups && stats.getInFlight() == 0)
+			{
+				break;
+			}
+
+			if (System.currentTimeMillis() > deadline)
+			{
+				throw new AssertionError("lookups did not complete: " + stats);
+			}
+			Thread.sleep(10);
+		}
+
+		xpTrackerService.flush();
+	}
+}
@@ -42,6 +42,14 @@ public class XorEncoder extends MessageToByteEncoder<ByteBuf>
 		this.key = key;
 	}
 
+	@Override
+	protected ByteBuf allocateBuffer(ChannelHandlerContext ctx, ByteBuf msg, boolean preferDirect) throws Exception
+	{
+		// the output is exactly the size of the input
+		int size = msg.readableBytes();
+		return preferDirect ? ctx.alloc().ioBuffer(size) : ctx.alloc().heapBuffer(size);
+	}
+
 	@Override
 	protected void encode(ChannelHandlerContext ctx, ByteBuf msg, ByteBuf out) throws Exception
 	{
@@ -51,10 +59,16 @@ public class XorEncoder extends MessageToByteEncoder<ByteBuf>
 			return;
 		}
 
+		// xor a long at a time, with the key in every byte of it
+		long longKey = (key & 0xFFL) * 0x0101010101010101L;
+		while (msg.readableBytes() >= 8)
+		{
+			out.writeLong(msg.readLong() ^ longKey);
+		}
+
 		while (msg.isReadable())
 		{
 			out.writeByte(msg.readByte() ^ key);
 		}
 	}
-
 }
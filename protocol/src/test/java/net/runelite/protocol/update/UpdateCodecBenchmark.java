@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2019, liam909 <https://github.com/liam909>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.protocol.update;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import net.runelite.cache.StoreLocation;
+import net.runelite.cache.fs.Archive;
+import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.Store;
+import net.runelite.cache.fs.jagex.CompressionType;
+import net.runelite.protocol.api.update.ArchiveResponsePacket;
+import net.runelite.protocol.update.decoders.ArchiveResponseDecoder;
+import net.runelite.protocol.update.encoders.ArchiveResponseEncoder;
+import net.runelite.protocol.update.encoders.XorEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Feeds the archive responses of a full download of the test cache
+ * through {@link ArchiveResponseDecoder} and {@link XorEncoder}, in
+ * socket sized reads and writes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class UpdateCodecBenchmark
+{
+	private static final int READ_SIZE = 65536;
+
+	private ByteBuf stream;
+	private ByteBuf xorOut;
+
+	@Setup
+	public void setup() throws Exception
+	{
+		stream = Unpooled.buffer();
+
+		EmbeddedChannel encoder = new EmbeddedChannel(new ArchiveResponseEncoder());
+		try (Store store = new Store(StoreLocation.LOCATION))
+		{
+			store.load();
+
+			for (Index index : store.getIndexes())
+			{
+				for (Archive archive : index.getArchives())
+				{
+					byte[] data = store.getStorage().loadArchive(archive);
+					if (data == null)
+					{
+						continue;
+					}
+
+					ArchiveResponsePacket response = new ArchiveResponsePacket();
+					response.setIndex(index.getId());
+					response.setArchive(archive.getArchiveId());
+					response.setData(stripRevision(data));
+					encoder.writeOutbound(response);
+
+					ByteBuf encoded = (ByteBuf) encoder.readOutbound();
+					stream.writeBytes(encoded);
+					encoded.release();
+				}
+			}
+		}
+		encoder.finish();
+
+		xorOut = Unpooled.buffer(READ_SIZE);
+	}
+
+	@TearDown
+	public void teardown()
+	{
+		stream.release();
+		xorOut.release();
+	}
+
+	@Benchmark
+	public void decode(Blackhole bh)
+	{
+		EmbeddedChannel channel = new EmbeddedChannel(new ArchiveResponseDecoder());
+		for (int pos = 0; pos < stream.writerIndex(); pos += READ_SIZE)
+		{
+			int length = Math.min(READ_SIZE, stream.writerIndex() - pos);
+			channel.writeInbound(stream.slice(pos, length).retain());
+
+			Object response;
+			while ((response = channel.readInbound()) != null)
+			{
+				bh.consume(response);
+			}
+		}
+		channel.finish();
+	}
+
+	@Benchmark
+	public void xor(Blackhole bh)
+	{
+		XorEncoder encoder = new XorEncoder();
+		encoder.setKey((byte) 0x5A);
+
+		EmbeddedChannel channel = new EmbeddedChannel(encoder);
+		for (int pos = 0; pos < stream.writerIndex(); pos += READ_SIZE)
+		{
+			int length = Math.min(READ_SIZE, stream.writerIndex() - pos);
+			channel.writeOutbound(stream.slice(pos, length).retain());
+
+			ByteBuf encoded = (ByteBuf) channel.readOutbound();
+			bh.consume(encoded.getByte(0));
+			encoded.release();
+		}
+		channel.finish();
+	}
+
+	/**
+	 * The byte at a time loop the encoder used to do, for comparison with
+	 * {@link #xor(Blackhole)}
+	 */
+	@Benchmark
+	public void xorBytewise(Blackhole bh)
+	{
+		byte key = 0x5A;
+		for (int pos = 0; pos < stream.writerIndex(); pos += READ_SIZE)
+		{
+			int length = Math.min(READ_SIZE, stream.writerIndex() - pos);
+			ByteBuf msg = stream.slice(pos, length);
+
+			xorOut.clear();
+			while (msg.isReadable())
+			{
+				xorOut.writeByte(msg.readByte() ^ key);
+			}
+			bh.consume(xorOut.getByte(0));
+		}
+	}
+
+	private static byte[] stripRevision(byte[] data) throws IOException
+	{
+		int compression = data[0] & 0xFF;
+		int compressedLength = ((data[1] & 0xFF) << 24) | ((data[2] & 0xFF) << 16)
+			| ((data[3] & 0xFF) << 8) | (data[4] & 0xFF);
+		int length = compressedLength + 5 + (compression != CompressionType.NONE ? 4 : 0);
+		if (length > data.length)
+		{
+			throw new IOException("truncated archive");
+		}
+
+		byte[] container = new byte[length];
+		System.arraycopy(data, 0, container, 0, length);
+		return container;
+	}
+
+	public static void main(String[] args) throws RunnerException
+	{
+		new Runner(new OptionsBuilder()
+			.include(UpdateCodecBenchmark.class.getSimpleName())
+			.build()).run();
+	}
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2019, liam909 <https://github.com/liam909>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.protocol.update.decoders;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import net.runelite.cache.fs.Container;
+import net.runelite.cache.fs.jagex.CompressionType;
+import net.runelite.protocol.api.update.ArchiveResponsePacket;
+import net.runelite.protocol.update.encoders.ArchiveResponseEncoder;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ArchiveResponseDecoderTest
+{
+	// sizes around the chunk boundaries, given the 5 byte container header
+	private static final int[] SIZES = {0, 1, 504, 505, 506, 1015, 1016, 1017, 100_000};
+
+	@Test
+	public void testDecodeStream() throws Exception
+	{
+		Random random = new Random(42L);
+		EmbeddedChannel encoder = new EmbeddedChannel(new ArchiveResponseEncoder());
+
+		List<byte[]> containers = new ArrayList<>();
+		ByteBuf stream = Unpooled.buffer();
+		for (int i = 0; i < SIZES.length; ++i)
+		{
+			byte[] data = new byte[SIZES[i]];
+			random.nextBytes(data);
+
+			Container container = new Container(CompressionType.NONE, -1);
+			container.compress(data, null);
+			containers.add(container.data);
+
+			ArchiveResponsePacket archiveResponse = new ArchiveResponsePacket();
+			archiveResponse.setIndex(i);
+			archiveResponse.setArchive(i * 1000);
+			archiveResponse.setData(container.data);
+			encoder.writeOutbound(archiveResponse);
+
+			ByteBuf encoded = (ByteBuf) encoder.readOutbound();
+			stream.writeBytes(encoded);
+			encoded.release();
+		}
+
+		// feed the stream in uneven reads, as it would come off the socket
+		ArchiveResponseDecoder decoder = new ArchiveResponseDecoder();
+		List<Object> out = new ArrayList<>();
+		ByteBuf cumulation = Unpooled.buffer();
+		while (stream.isReadable())
+		{
+			cumulation.writeBytes(stream, Math.min(stream.readableBytes(), 1 + random.nextInt(700)));
+
+			int readable;
+			do
+			{
+				readable = cumulation.readableBytes();
+				decoder.decode(null, cumulation, out);
+			}
+			while (cumulation.isReadable() && cumulation.readableBytes() != readable);
+		}
+
+		Assert.assertFalse(cumulation.isReadable());
+		Assert.assertEquals(SIZES.length, out.size());
+		for (int i = 0; i < SIZES.length; ++i)
+		{
+			ArchiveResponsePacket response = (ArchiveResponsePacket) out.get(i);
+			Assert.assertEquals(i, response.getIndex());
+			Assert.assertEquals(i * 1000, response.getArchive());
+			Assert.assertArrayEquals(containers.get(i), response.getData());
+		}
+	}
+}
@@ -26,6 +26,7 @@ package net.runelite.protocol.update.encoders;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
+import java.util.Random;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -48,4 +49,27 @@ public class XorEncoderTest
 		Assert.assertEquals((Byte) (byte) 0xfe, (Byte) encoded);
 	}
 
+	@Test
+	public void testEncodeLong() throws Exception
+	{
+		Random random = new Random(42L);
+		XorEncoder encoder = new XorEncoder();
+		encoder.setKey((byte) 0xA5);
+
+		// lengths either side of whole longs
+		for (int length = 0; length < 40; ++length)
+		{
+			byte[] data = new byte[length];
+			random.nextBytes(data);
+
+			ByteBuf out = Unpooled.buffer();
+			encoder.encode(null, Unpooled.wrappedBuffer(data), out);
+
+			Assert.assertEquals(length, out.readableBytes());
+			for (byte b : data)
+			{
+				Assert.assertEquals((byte) (b ^ 0xA5), out.readByte());
+			}
+		}
+	}
 }
@@ -27,20 +27,18 @@ package net.runelite.api;
 import java.awt.FontMetrics;
 import java.awt.Graphics2D;
 import java.awt.Polygon;
-import java.awt.Rectangle;
 import java.awt.geom.Area;
+import java.awt.geom.Path2D;
 import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import static net.runelite.api.Constants.TILE_FLAG_BRIDGE;
 import net.runelite.api.coords.LocalPoint;
 import net.runelite.api.model.Jarvis;
-import net.runelite.api.model.Triangle;
-import net.runelite.api.model.Vertex;
 import net.runelite.api.widgets.Widget;
 import net.runelite.api.widgets.WidgetInfo;
 
@@ -509,16 +507,69 @@ public class Perspective
 			return null;
 		}
 
-		List<Triangle> triangles = model.getTriangles().stream()
-			.map(triangle -> triangle.rotate(orientation))
-			.collect(Collectors.toList());
+		final int vertexCount = model.getVerticesCount();
+		final int[] verticesX = model.getVerticesX();
+		final int[] verticesY = model.getVerticesY();
+		final int[] verticesZ = model.getVerticesZ();
 
-		List<Vertex> vertices = model.getVertices().stream()
-				.map(v -> v.rotate(orientation))
-				.collect(Collectors.toList());
+		// models are orientated north (1024) and there are 2048 angles total
+		orientation = (orientation + 1024) % 2048;
+		final int sin = SINE[orientation];
+		final int cos = COSINE[orientation];
 
-		Area clickBox = get2DGeometry(client, triangles, point);
-		Area visibleAABB = getAABB(client, vertices, point);
+		// Rotate every vertex once, rather than once per triangle it is part of,
+		// keeping the rotated bounds for the AABB as we go
+		final int[] rotatedX = new int[vertexCount];
+		final int[] rotatedZ = new int[vertexCount];
+		int maxX = 0;
+		int minX = 0;
+		int maxY = 0;
+		int minY = 0;
+		int maxZ = 0;
+		int minZ = 0;
+
+		for (int i = 0; i < vertexCount; ++i)
+		{
+			int vx = verticesX[i];
+			int vz = verticesZ[i];
+			int x = vx * cos + vz * sin >> 16;
+			int y = verticesY[i];
+			int z = vz * cos - vx * sin >> 16;
+			rotatedX[i] = x;
+			rotatedZ[i] = z;
+
+			if (x > maxX)
+			{
+				maxX = x;
+			}
+			if (x < minX)
+			{
+				minX = x;
+			}
+
+			if (y > maxY)
+			{
+				maxY = y;
+			}
+			if (y < minY)
+			{
+				minY = y;
+			}
+
+			if (z > maxZ)
+			{
+				maxZ = z;
+			}
+			if (z < minZ)
+			{
+				minZ = z;
+			}
+		}
+
+		final int tileHeight = getTileHeight(client, point, client.getPlane());
+
+		Area clickBox = get2DGeometry(client, model, point, tileHeight, rotatedX, verticesY, rotatedZ);
+		Area visibleAABB = getAABB(client, point, tileHeight, minX, maxX, minY, maxY, minZ, maxZ);
 
 		if (visibleAABB == null)
 		{
@@ -530,135 +581,255 @@ public class Perspective
 	}
 
 	/**
-	 * Determine if a given point is off-screen.
-	 *
-	 * @param client
-	 * @param point
-	 * @return
+	 * Computes the union of the padded screen bounds of each visible triangle.
+	 * <p>
+	 * Each vertex is projected once, using camera state read up front, and the
+	 * rectangles are unioned in one pass instead of adding them to an
+	 * {@link Area} one at a time.
 	 */
-	private static boolean isOffscreen(@Nonnull Client client, @Nonnull Point point)
-	{
-		return (point.getX() < 0 || point.getX() >= client.getViewportWidth())
-			&& (point.getY() < 0 || point.getY() >= client.getViewportHeight());
-	}
-
 	private static @Nonnull Area get2DGeometry(
 		@Nonnull Client client,
-		@Nonnull List<Triangle> triangles,
-		@Nonnull LocalPoint point
+		@Nonnull Model model,
+		@Nonnull LocalPoint point,
+		int tileHeight,
+		int[] verticesX,
+		int[] verticesY,
+		int[] verticesZ
 	)
 	{
-		int radius = 5;
-		Area geometry = new Area();
-
-		final int tileHeight = getTileHeight(client, point, client.getPlane());
-
-		for (Triangle triangle : triangles)
+		final int radius = 5;
+		final int vertexCount = verticesX.length;
+
+		final int cameraX = client.getCameraX();
+		final int cameraY = client.getCameraY();
+		final int cameraZ = client.getCameraZ();
+		final int cameraPitch = client.getCameraPitch();
+		final int cameraYaw = client.getCameraYaw();
+		final int pitchSin = SINE[cameraPitch];
+		final int pitchCos = COSINE[cameraPitch];
+		final int yawSin = SINE[cameraYaw];
+		final int yawCos = COSINE[cameraYaw];
+		final int scale = client.getScale();
+		final int viewportWidth = client.getViewportWidth();
+		final int viewportHeight = client.getViewportHeight();
+		final int viewportXOffset = client.getViewportXOffset();
+		final int viewportYOffset = client.getViewportYOffset();
+
+		final int[] screenX = new int[vertexCount];
+		final int[] screenY = new int[vertexCount];
+		final boolean[] visible = new boolean[vertexCount];
+		final boolean[] offscreen = new boolean[vertexCount];
+
+		// Same projection as localToCanvas(Client, int, int, int)
+		for (int i = 0; i < vertexCount; ++i)
 		{
-			Vertex _a = triangle.getA();
-			Point a = localToCanvas(client,
-				point.getX() - _a.getX(),
-				point.getY() - _a.getZ(),
-				tileHeight + _a.getY());
-			if (a == null)
+			int x = point.getX() - verticesX[i];
+			int y = point.getY() - verticesZ[i];
+			int z = tileHeight + verticesY[i];
+
+			if (x < 128 || y < 128 || x > 13056 || y > 13056)
 			{
 				continue;
 			}
 
-			Vertex _b = triangle.getB();
-			Point b = localToCanvas(client,
-				point.getX() - _b.getX(),
-				point.getY() - _b.getZ(),
-				tileHeight + _b.getY());
-			if (b == null)
+			x -= cameraX;
+			y -= cameraY;
+			z -= cameraZ;
+
+			int var8 = yawCos * x + y * yawSin >> 16;
+			y = yawCos * y - yawSin * x >> 16;
+			x = var8;
+			var8 = pitchCos * z - y * pitchSin >> 16;
+			y = z * pitchSin + y * pitchCos >> 16;
+
+			if (y < 50)
 			{
 				continue;
 			}
 
-			Vertex _c = triangle.getC();
-			Point c = localToCanvas(client,
-				point.getX() - _c.getX(),
-				point.getY() - _c.getZ(),
-				tileHeight + _c.getY());
-			if (c == null)
+			int px = viewportWidth / 2 + x * scale / y + viewportXOffset;
+			int py = viewportHeight / 2 + var8 * scale / y + viewportYOffset;
+			screenX[i] = px;
+			screenY[i] = py;
+			visible[i] = true;
+			offscreen[i] = (px < 0 || px >= viewportWidth) && (py < 0 || py >= viewportHeight);
+		}
+
+		final int triangleCount = model.getTrianglesCount();
+		final int[] trianglesX = model.getTrianglesX();
+		final int[] trianglesY = model.getTrianglesY();
+		final int[] trianglesZ = model.getTrianglesZ();
+
+		final int[] rects = new int[triangleCount * 4];
+		int rectCount = 0;
+
+		for (int i = 0; i < triangleCount; ++i)
+		{
+			int a = trianglesX[i];
+			int b = trianglesY[i];
+			int c = trianglesZ[i];
+
+			if (!visible[a] || !visible[b] || !visible[c])
 			{
 				continue;
 			}
 
-			if (isOffscreen(client, a) && isOffscreen(client, b) && isOffscreen(client, c))
+			if (offscreen[a] && offscreen[b] && offscreen[c])
 			{
 				continue;
 			}
 
-			int minX = Math.min(Math.min(a.getX(), b.getX()), c.getX());
-			int minY = Math.min(Math.min(a.getY(), b.getY()), c.getY());
+			int minX = Math.min(Math.min(screenX[a], screenX[b]), screenX[c]);
+			int minY = Math.min(Math.min(screenY[a], screenY[b]), screenY[c]);
 
 			// For some reason, this calculation is always 4 pixels short of the actual in-client one
-			int maxX = Math.max(Math.max(a.getX(), b.getX()), c.getX()) + 4;
-			int maxY = Math.max(Math.max(a.getY(), b.getY()), c.getY()) + 4;
+			int maxX = Math.max(Math.max(screenX[a], screenX[b]), screenX[c]) + 4;
+			int maxY = Math.max(Math.max(screenY[a], screenY[b]), screenY[c]) + 4;
+
+			int r = rectCount++ * 4;
+			rects[r] = minX - radius;
+			rects[r + 1] = minY - radius;
+			rects[r + 2] = maxX;
+			rects[r + 3] = maxY;
+		}
 
-			Rectangle clickableRect = new Rectangle(
-				minX - radius, minY - radius,
-				maxX - minX + radius, maxY - minY + radius
-			);
+		return union(rects, rectCount);
+	}
 
-			if (geometry.contains(clickableRect))
-			{
-				continue;
-			}
+	/**
+	 * Computes the union of axis aligned rectangles, given as packed
+	 * {@code x1, y1, x2, y2} quadruples. {@link Area} is very slow at
+	 * resolving many overlapping shapes, so the union is first split into
+	 * horizontal bands of disjoint rectangles, with identical neighbouring
+	 * bands merged, and only those are handed to {@link Area}.
+	 */
+	private static Area union(int[] rects, int count)
+	{
+		if (count == 0)
+		{
+			return new Area();
+		}
 
-			geometry.add(new Area(clickableRect));
+		// rectangles ordered by top edge, and the distinct band edges
+		final long[] byTop = new long[count];
+		final int[] edges = new int[count * 2];
+		for (int i = 0; i < count; ++i)
+		{
+			byTop[i] = (long) rects[i * 4 + 1] << 32 | i;
+			edges[i * 2] = rects[i * 4 + 1];
+			edges[i * 2 + 1] = rects[i * 4 + 3];
 		}
+		Arrays.sort(byTop);
+		Arrays.sort(edges);
 
-		return geometry;
-	}
+		final int[] active = new int[count];
+		final long[] spans = new long[count];
+		int activeCount = 0;
+		int next = 0;
 
-	private static Area getAABB(
-		@Nonnull Client client,
-		@Nonnull List<Vertex> vertices,
-		@Nonnull LocalPoint point
-	)
-	{
-		int maxX = 0;
-		int minX = 0;
-		int maxY = 0;
-		int minY = 0;
-		int maxZ = 0;
-		int minZ = 0;
+		int[] bandSpans = new int[count * 2];
+		int[] prevSpans = new int[count * 2];
+		int prevSpanCount = 0;
+		int prevTop = 0;
+
+		Path2D.Float path = new Path2D.Float();
 
-		for (Vertex vertex : vertices)
+		for (int e = 0; e < edges.length; ++e)
 		{
-			int x = vertex.getX();
-			int y = vertex.getY();
-			int z = vertex.getZ();
+			final int top = edges[e];
+			if (e > 0 && top == edges[e - 1])
+			{
+				continue;
+			}
 
-			if (x > maxX)
+			// drop rectangles which end at this edge, and add those starting at it
+			int kept = 0;
+			for (int i = 0; i < activeCount; ++i)
 			{
-				maxX = x;
+				if (rects[active[i] * 4 + 3] > top)
+				{
+					active[kept++] = active[i];
+				}
 			}
-			if (x < minX)
+			activeCount = kept;
+			while (next < count && (int) (byTop[next] >> 32) == top)
 			{
-				minX = x;
+				active[activeCount++] = (int) byTop[next++];
 			}
 
-			if (y > maxY)
+			// merge the horizontal spans of the active rectangles
+			for (int i = 0; i < activeCount; ++i)
 			{
-				maxY = y;
+				int r = active[i] * 4;
+				spans[i] = (long) rects[r] << 32 | rects[r + 2] & 0xFFFFFFFFL;
 			}
-			if (y < minY)
+			Arrays.sort(spans, 0, activeCount);
+
+			int spanCount = 0;
+			for (int i = 0; i < activeCount; ++i)
 			{
-				minY = y;
+				int x1 = (int) (spans[i] >> 32);
+				int x2 = (int) spans[i];
+				if (spanCount > 0 && x1 <= bandSpans[spanCount - 1])
+				{
+					bandSpans[spanCount - 1] = Math.max(bandSpans[spanCount - 1], x2);
+				}
+				else
+				{
+					bandSpans[spanCount++] = x1;
+					bandSpans[spanCount++] = x2;
+				}
 			}
 
-			if (z > maxZ)
+			if (spanCount == prevSpanCount && arrayEquals(bandSpans, prevSpans, spanCount))
 			{
-				maxZ = z;
+				// same as the band above, so just let that one grow
+				continue;
 			}
-			if (z < minZ)
+
+			for (int i = 0; i < prevSpanCount; i += 2)
 			{
-				minZ = z;
+				path.moveTo(prevSpans[i], prevTop);
+				path.lineTo(prevSpans[i + 1], prevTop);
+				path.lineTo(prevSpans[i + 1], top);
+				path.lineTo(prevSpans[i], top);
+				path.closePath();
+			}
+
+			int[] swap = prevSpans;
+			prevSpans = bandSpans;
+			bandSpans = swap;
+			prevSpanCount = spanCount;
+			prevTop = top;
+		}
+
+		return new Area(path);
+	}
+
+	private static boolean arrayEquals(int[] a, int[] b, int length)
+	{
+		for (int i = 0; i < length; ++i)
+		{
+			if (a[i] != b[i])
+			{
+				return false;
 			}
 		}
+		return true;
+	}
+
+	private static Area getAABB(
+		@Nonnull Client client,
+		@Nonnull LocalPoint point,
+		int tileHeight,
+		int minX,
+		int maxX,
+		int minY,
+		int maxY,
+		int minZ,
+		int maxZ
+	)
+	{
 
 		int centerX = (minX + maxX) / 2;
 		int centerY = (minY + maxY) / 2;
@@ -686,8 +857,6 @@ public class Perspective
 		int y2 = centerY + extremeY;
 		int z2 = point.getY() - (centerZ + extremeZ);
 
-		final int tileHeight = getTileHeight(client, point, client.getPlane());
-
 		Point p1 = localToCanvas(client, x1, z1, tileHeight + y1);
 		Point p2 = localToCanvas(client, x1, z2, tileHeight + y1);
 		Point p3 = localToCanvas(client, x2, z2, tileHeight + y1);
@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2019, liam909 <https://github.com/liam909>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.api;
+
+import java.lang.reflect.Proxy;
+import java.util.Random;
+import net.runelite.api.coords.LocalPoint;
+
+/**
+ * Builds a {@link Client} and {@link Model} backed by plain fields, enough to
+ * project models with {@link Perspective} outside of the game.
+ */
+class ClickboxScene
+{
+	static final LocalPoint POINT = new LocalPoint(6464, 6464);
+
+	int cameraX;
+	int cameraY;
+	int cameraZ;
+	int cameraPitch;
+	int cameraYaw;
+	int scale = 512;
+	int viewportWidth = 512;
+	int viewportHeight = 334;
+	int viewportXOffset = 4;
+	int viewportYOffset = 4;
+
+	private final byte[][][] tileSettings = new byte[Constants.MAX_Z][Constants.SCENE_SIZE][Constants.SCENE_SIZE];
+	private final int[][][] tileHeights = new int[Constants.MAX_Z][Constants.SCENE_SIZE + 1][Constants.SCENE_SIZE + 1];
+
+	ClickboxScene(long seed)
+	{
+		Random random = new Random(seed);
+		for (int[][] plane : tileHeights)
+		{
+			for (int[] row : plane)
+			{
+				for (int i = 0; i < row.length; ++i)
+				{
+					row[i] = -random.nextInt(64);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Points the camera at {@link #POINT} from {@code distance} away.
+	 */
+	void lookAt(int yaw, int pitch, int distance)
+	{
+		cameraYaw = yaw;
+		cameraPitch = pitch;
+
+		int horizontal = distance * Perspective.COSINE[pitch] >> 16;
+		cameraX = POINT.getX() + (horizontal * Perspective.SINE[yaw] >> 16);
+		cameraY = POINT.getY() - (horizontal * Perspective.COSINE[yaw] >> 16);
+		cameraZ = Perspective.getTileHeight(client(), POINT, 0) - (distance * Perspective.SINE[pitch] >> 16);
+	}
+
+	Client client()
+	{
+		return (Client) Proxy.newProxyInstance(Client.class.getClassLoader(), new Class<?>[]{Client.class}, (proxy, method, args) ->
+		{
+			switch (method.getName())
+			{
+				case "getCameraX":
+					return cameraX;
+				case "getCameraY":
+					return cameraY;
+				case "getCameraZ":
+					return cameraZ;
+				case "getCameraPitch":
+					return cameraPitch;
+				case "getCameraYaw":
+					return cameraYaw;
+				case "getScale":
+					return scale;
+				case "getViewportWidth":
+					return viewportWidth;
+				case "getViewportHeight":
+					return viewportHeight;
+				case "getViewportXOffset":
+					return viewportXOffset;
+				case "getViewportYOffset":
+					return viewportYOffset;
+				case "getPlane":
+					return 0;
+				case "getTileSettings":
+					return tileSettings;
+				case "getTileHeights":
+					return tileHeights;
+				default:
+					throw new UnsupportedOperationException(method.getName());
+			}
+		});
+	}
+
+	/**
+	 * Creates a closed, roughly cylindrical model with {@code rings} rings of
+	 * {@code segments} vertices each, with some noise so that triangles do not
+	 * line up exactly.
+	 */
+	static Model model(long seed, int rings, int segments, int radius, int height)
+	{
+		Random random = new Random(seed);
+
+		int vertexCount = rings * segments;
+		int[] verticesX = new int[vertexCount];
+		int[] verticesY = new int[vertexCount];
+		int[] verticesZ = new int[vertexCount];
+
+		for (int ring = 0; ring < rings; ++ring)
+		{
+			// taper towards the top, like most npcs
+			int r = radius - radius * ring / (rings * 2);
+			for (int segment = 0; segment < segments; ++segment)
+			{
+				int angle = segment * 2048 / segments;
+				int v = ring * segments + segment;
+				verticesX[v] = (r * Perspective.COSINE[angle] >> 16) + random.nextInt(9) - 4;
+				verticesY[v] = -height * ring / (rings - 1) + random.nextInt(9) - 4;
+				verticesZ[v] = (r * Perspective.SINE[angle] >> 16) + random.nextInt(9) - 4;
+			}
+		}
+
+		int triangleCount = (rings - 1) * segments * 2;
+		int[] trianglesX = new int[triangleCount];
+		int[] trianglesY = new int[triangleCount];
+		int[] trianglesZ = new int[triangleCount];
+
+		int t = 0;
+		for (int ring = 0; ring < rings - 1; ++ring)
+		{
+			for (int segment = 0; segment < segments; ++segment)
+			{
+				int a = ring * segments + segment;
+				int b = ring * segments + (segment + 1) % segments;
+				int c = a + segments;
+				int d = b + segments;
+
+				trianglesX[t] = a;
+				trianglesY[t] = b;
+				trianglesZ[t++] = c;
+
+				trianglesX[t] = b;
+				trianglesY[t] = d;
+				trianglesZ[t++] = c;
+			}
+		}
+
+		return (Model) Proxy.newProxyInstance(Model.class.getClassLoader(), new Class<?>[]{Model.class}, (proxy, method, args) ->
+		{
+			switch (method.getName())
+			{
+				case "getVerticesCount":
+					return vertexCount;
+				case "getVerticesX":
+					return verticesX;
+				case "getVerticesY":
+					return verticesY;
+				case "getVerticesZ":
+					return verticesZ;
+				case "getTrianglesCount":
+					return triangleCount;
+				case "getTrianglesX":
+					return trianglesX;
+				case "getTrianglesY":
+					return trianglesY;
+				case "getTrianglesZ":
+					return trianglesZ;
+				default:
+					throw new UnsupportedOperationException(method.getName());
+			}
+		});
+	}
+}
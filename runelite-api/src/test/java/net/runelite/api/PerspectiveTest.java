@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2019, liam909 <https://github.com/liam909>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.api;
+
+import java.awt.geom.Area;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Rectangle2D;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import net.runelite.api.coords.LocalPoint;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import org.junit.Test;
+
+public class PerspectiveTest
+{
+	@Test
+	public void testClickbox() throws IOException
+	{
+		ClickboxScene scene = new ClickboxScene(1);
+		Client client = scene.client();
+		LocalPoint point = ClickboxScene.POINT;
+
+		Model[] models = {
+			ClickboxScene.model(1, 2, 4, 64, 32),
+			ClickboxScene.model(2, 12, 24, 96, 220),
+			ClickboxScene.model(3, 20, 40, 300, 600),
+		};
+
+		int compared = 0;
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+			PerspectiveTest.class.getResourceAsStream("clickboxes.txt"), StandardCharsets.UTF_8)))
+		{
+			String line;
+			while ((line = reader.readLine()) != null)
+			{
+				if (line.startsWith("#"))
+				{
+					continue;
+				}
+
+				String[] fields = line.split(" ");
+				Model model = models[Integer.parseInt(fields[0])];
+				int yaw = Integer.parseInt(fields[1]);
+				int pitch = Integer.parseInt(fields[2]);
+				int distance = Integer.parseInt(fields[3]);
+				int orientation = Integer.parseInt(fields[4]);
+
+				scene.lookAt(yaw, pitch, distance);
+				Area actual = Perspective.getClickbox(client, model, orientation, point);
+
+				String message = line;
+				if (fields[5].equals("null"))
+				{
+					assertNull(message, actual);
+					continue;
+				}
+
+				Rectangle2D bounds = actual.getBounds2D();
+				assertEquals(message, Double.parseDouble(fields[5]), bounds.getMinX(), 1e-3);
+				assertEquals(message, Double.parseDouble(fields[6]), bounds.getMinY(), 1e-3);
+				assertEquals(message, Double.parseDouble(fields[7]), bounds.getMaxX(), 1e-3);
+				assertEquals(message, Double.parseDouble(fields[8]), bounds.getMaxY(), 1e-3);
+				assertEquals(message, Double.parseDouble(fields[9]), area(actual), 1e-3);
+				++compared;
+			}
+		}
+
+		assertEquals(338, compared);
+	}
+
+	/**
+	 * The area enclosed by an area's path
+	 */
+	private static double area(Area a)
+	{
+		double area = 0;
+		double[] coords = new double[6];
+		double startX = 0;
+		double startY = 0;
+		double lastX = 0;
+		double lastY = 0;
+		for (PathIterator it = a.getPathIterator(null); !it.isDone(); it.next())
+		{
+			switch (it.currentSegment(coords))
+			{
+				case PathIterator.SEG_MOVETO:
+					startX = lastX = coords[0];
+					startY = lastY = coords[1];
+					break;
+				case PathIterator.SEG_LINETO:
+					area += lastX * coords[1] - coords[0] * lastY;
+					lastX = coords[0];
+					lastY = coords[1];
+					break;
+				case PathIterator.SEG_CLOSE:
+					area += lastX * startY - startX * lastY;
+					lastX = startX;
+					lastY = startY;
+					break;
+				default:
+					throw new IllegalStateException("unexpected curve in clickbox");
+			}
+		}
+		return Math.abs(area) / 2;
+	}
+
+	@Test
+	public void testClickboxOffscreenModel()
+	{
+		ClickboxScene scene = new ClickboxScene(1);
+		Client client = scene.client();
+		Model model = ClickboxScene.model(1, 12, 24, 96, 220);
+
+		// camera facing directly away from the model
+		scene.lookAt(0, 256, 900);
+		scene.cameraY = ClickboxScene.POINT.getY() + 900;
+
+		assertNull(Perspective.getClickbox(client, model, 0, ClickboxScene.POINT));
+	}
+
+	@Test
+	public void testClickboxNullModel()
+	{
+		ClickboxScene scene = new ClickboxScene(1);
+		assertNull(Perspective.getClickbox(scene.client(), null, 0, ClickboxScene.POINT));
+	}
+}
@@ -29,8 +29,11 @@ import java.util.Iterator;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.function.BooleanSupplier;
 import javax.inject.Singleton;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.Client;
+import net.runelite.client.profiler.Profiler;
+import net.runelite.client.profiler.ProfilerCategory;
 
 @Singleton
 @Slf4j
@@ -41,13 +44,12 @@ public class ClientThread
 	@Inject
 	private Client client;
 
+	@Inject
+	private Profiler profiler;
+
 	public void invoke(Runnable r)
 	{
-		invoke(() ->
-		{
-			r.run();
-			return true;
-		});
+		invoke(new RunnableInvoke(r));
 	}
 
 	/**
@@ -58,7 +60,7 @@ public class ClientThread
 	{
 		if (client.isClientThread())
 		{
-			if (r.getAsBoolean())
+			if (run(r))
 			{
 				invokes.add(r);
 			}
@@ -74,11 +76,7 @@ public class ClientThread
 	 */
 	public void invokeLater(Runnable r)
 	{
-		invokeLater(() ->
-		{
-			r.run();
-			return true;
-		});
+		invokeLater(new RunnableInvoke(r));
 	}
 
 	public void invokeLater(BooleanSupplier r)
@@ -96,7 +94,7 @@ public class ClientThread
 			boolean remove = true;
 			try
 			{
-				remove = r.getAsBoolean();
+				remove = run(r);
 			}
 			catch (ThreadDeath d)
 			{
@@ -112,4 +110,35 @@ public class ClientThread
 			}
 		}
 	}
+
+	private boolean run(BooleanSupplier r)
+	{
+		final long start = profiler.isEnabled() ? profiler.start() : 0;
+		try
+		{
+			return r.getAsBoolean();
+		}
+		finally
+		{
+			if (start != 0)
+			{
+				// attribute to whoever queued the work rather than the wrapper
+				final Object task = r instanceof RunnableInvoke ? ((RunnableInvoke) r).runnable : r;
+				profiler.stop(ProfilerCategory.CLIENT_THREAD, task.getClass(), start);
+			}
+		}
+	}
+
+	@RequiredArgsConstructor
+	private static class RunnableInvoke implements BooleanSupplier
+	{
+		private final Runnable runnable;
+
+		@Override
+		public boolean getAsBoolean()
+		{
+			runnable.run();
+			return true;
+		}
+	}
 }
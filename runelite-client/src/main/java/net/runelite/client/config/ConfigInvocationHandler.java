@@ -24,18 +24,56 @@
  */
 package net.runelite.client.config;
 
+import com.google.common.collect.ImmutableSet;
+import java.awt.Dimension;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 class ConfigInvocationHandler implements InvocationHandler
 {
+	/**
+	 * Types which are handed out mutable by {@link ConfigManager#stringToObject(String, Class)},
+	 * and so are parsed fresh on every call instead of being shared from the cache
+	 */
+	private static final Set<Class<?>> MUTABLE_TYPES = ImmutableSet.of(Dimension.class, Point.class, Rectangle.class, Map.class);
+
+	/**
+	 * Stands in for a cached null value
+	 */
+	private static final Object NULL = new Object();
+
+	/**
+	 * Returned by {@link #parseValue(Item)} when the default method has to be called
+	 */
+	private static final Object DEFAULT = new Object();
+
 	private final ConfigManager manager;
 
+	/**
+	 * Resolved group, key and types of each config method, which never change
+	 */
+	private final ConcurrentMap<Method, Item> items = new ConcurrentHashMap<>();
+
+	/**
+	 * Parsed value of each config key by type, shared by all methods and proxies using that
+	 * key and type
+	 */
+	private final ConcurrentMap<String, ConcurrentMap<Class<?>, AtomicReference<Object>>> values = new ConcurrentHashMap<>();
+
 	public ConfigInvocationHandler(ConfigManager manager)
 	{
 		this.manager = manager;
@@ -44,54 +82,40 @@ class ConfigInvocationHandler implements InvocationHandler
 	@Override
 	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
 	{
-		Class<?> iface = proxy.getClass().getInterfaces()[0];
-
-		ConfigGroup group = iface.getAnnotation(ConfigGroup.class);
-		ConfigItem item = method.getAnnotation(ConfigItem.class);
-
-		if (group == null)
-		{
-			log.warn("Configuration proxy class {} has no @ConfigGroup!", proxy.getClass());
-			return null;
-		}
-
+		Item item = items.get(method);
 		if (item == null)
 		{
-			log.warn("Configuration method {} has no @ConfigItem!", method);
-			return null;
+			item = resolve(proxy, method);
+			if (item == null)
+			{
+				return null;
+			}
 		}
 
 		if (args == null)
 		{
 			// Getting configuration item
-			String value = manager.getConfiguration(group.value(), item.keyName());
-
-			if (value == null)
+			if (item.value == null)
 			{
-				if (method.isDefault())
-				{
-					return callDefaultMethod(proxy, method, null);
-				}
-
-				return null;
+				return getValue(proxy, item);
 			}
 
-			// Convert value to return type
-			Class<?> returnType = method.getReturnType();
-			
-			try
+			Object current = item.value.get();
+			if (!(current instanceof Unset))
 			{
-				return ConfigManager.stringToObject(value, returnType);
+				return current == NULL ? null : current;
 			}
-			catch (Exception e)
+
+			Object value = parseValue(item);
+			if (value == DEFAULT)
 			{
-				log.warn("Unable to unmarshal {}.{} ", group.value(), item.keyName(), e);
-				if (method.isDefault())
-				{
-					return callDefaultMethod(proxy, method, null);
-				}
-				return null;
+				// not cached, as a default may be derived from other config items
+				return item.defaultMethod.invoke(proxy);
 			}
+
+			// only store it if the key hasn't changed since the value was read
+			item.value.compareAndSet(current, value == null ? NULL : value);
+			return value;
 		}
 		else
 		{
@@ -104,8 +128,7 @@ class ConfigInvocationHandler implements InvocationHandler
 
 			Object newValue = args[0];
 
-			Class<?> type = method.getParameterTypes()[0];
-			Object oldValue = manager.getConfiguration(group.value(), item.keyName(), type);
+			Object oldValue = manager.getConfiguration(item.group, item.key, item.type);
 
 			if (Objects.equals(oldValue, newValue))
 			{
@@ -113,32 +136,136 @@ class ConfigInvocationHandler implements InvocationHandler
 				return null;
 			}
 
-			if (method.isDefault())
+			if (item.defaultMethod != null)
 			{
-				Object defaultValue = callDefaultMethod(proxy, method, args);
+				Object defaultValue = item.defaultMethod.bindTo(proxy).invokeWithArguments(args);
 
 				if (Objects.equals(newValue, defaultValue))
 				{
 					// Just unset if it goes back to the default
-					manager.unsetConfiguration(group.value(), item.keyName());
+					manager.unsetConfiguration(item.group, item.key);
 					return null;
 				}
 			}
 
 			if (newValue == null)
 			{
-				manager.unsetConfiguration(group.value(), item.keyName());
+				manager.unsetConfiguration(item.group, item.key);
 			}
 			else
 			{
 				String newValueStr = ConfigManager.objectToString(newValue);
-				manager.setConfiguration(group.value(), item.keyName(), newValueStr);
+				manager.setConfiguration(item.group, item.key, newValueStr);
 			}
 			return null;
 		}
 	}
 
+	private Object getValue(Object proxy, Item item) throws Throwable
+	{
+		Object value = parseValue(item);
+		return value == DEFAULT ? item.defaultMethod.invoke(proxy) : value;
+	}
+
+	/**
+	 * Read and convert the value of a key
+	 *
+	 * @return the value, or {@link #DEFAULT} if it is unset or can't be converted and the
+	 * method has a default
+	 */
+	private Object parseValue(Item item)
+	{
+		String value = manager.getConfiguration(item.group, item.key);
+
+		if (value == null)
+		{
+			return item.defaultMethod != null ? DEFAULT : null;
+		}
+
+		// Convert value to return type
+		try
+		{
+			return ConfigManager.stringToObject(value, item.type);
+		}
+		catch (Exception e)
+		{
+			log.warn("Unable to unmarshal {}.{} ", item.group, item.key, e);
+			return item.defaultMethod != null ? DEFAULT : null;
+		}
+	}
+
+	private Item resolve(Object proxy, Method method) throws Throwable
+	{
+		Class<?> iface = proxy.getClass().getInterfaces()[0];
+
+		ConfigGroup group = iface.getAnnotation(ConfigGroup.class);
+		ConfigItem item = method.getAnnotation(ConfigItem.class);
+
+		if (group == null)
+		{
+			log.warn("Configuration proxy class {} has no @ConfigGroup!", proxy.getClass());
+			return null;
+		}
+
+		if (item == null)
+		{
+			log.warn("Configuration method {} has no @ConfigItem!", method);
+			return null;
+		}
+
+		boolean getter = method.getParameterCount() == 0;
+		Class<?> type = getter ? method.getReturnType() : method.getParameterTypes()[0];
+		MethodHandle defaultMethod = method.isDefault() ? findDefaultMethod(method) : null;
+
+		AtomicReference<Object> value = null;
+		if (getter && !MUTABLE_TYPES.contains(type))
+		{
+			value = values.computeIfAbsent(group.value() + "." + item.keyName(), k -> new ConcurrentHashMap<>())
+				.computeIfAbsent(type, t -> new AtomicReference<>(new Unset()));
+		}
+
+		Item resolved = new Item(group.value(), item.keyName(), type, defaultMethod, value);
+		Item existing = items.putIfAbsent(method, resolved);
+		return existing != null ? existing : resolved;
+	}
+
+	/**
+	 * Drops the cached value of a key, called by {@link ConfigManager} whenever it changes
+	 */
+	void invalidate(String group, String key)
+	{
+		Map<Class<?>, AtomicReference<Object>> byType = values.get(group + "." + key);
+		if (byType != null)
+		{
+			for (AtomicReference<Object> value : byType.values())
+			{
+				value.set(new Unset());
+			}
+		}
+	}
+
+	/**
+	 * Drops all cached values
+	 */
+	void invalidateAll()
+	{
+		for (Map<Class<?>, AtomicReference<Object>> byType : values.values())
+		{
+			for (AtomicReference<Object> value : byType.values())
+			{
+				value.set(new Unset());
+			}
+		}
+	}
+
 	static Object callDefaultMethod(Object proxy, Method method, Object[] args) throws Throwable
+	{
+		return findDefaultMethod(method)
+			.bindTo(proxy)
+			.invokeWithArguments(args);
+	}
+
+	private static MethodHandle findDefaultMethod(Method method) throws Throwable
 	{
 		// Call the default method implementation - https://rmannibucau.wordpress.com/2014/03/27/java-8-default-interface-methods-and-jdk-dynamic-proxies/
 		Constructor<MethodHandles.Lookup> constructor = MethodHandles.Lookup.class.getDeclaredConstructor(Class.class, int.class);
@@ -146,8 +273,31 @@ class ConfigInvocationHandler implements InvocationHandler
 
 		Class<?> declaringClass = method.getDeclaringClass();
 		return constructor.newInstance(declaringClass, MethodHandles.Lookup.PUBLIC | MethodHandles.Lookup.PRIVATE)
-			.unreflectSpecial(method, declaringClass)
-			.bindTo(proxy)
-			.invokeWithArguments(args);
+			.unreflectSpecial(method, declaringClass);
+	}
+
+	@Value
+	private static class Item
+	{
+		String group;
+		String key;
+		Class<?> type;
+		/**
+		 * The default implementation of the method, or null if it has none
+		 */
+		MethodHandle defaultMethod;
+		/**
+		 * The cached value of the key, or null if the method is a setter or
+		 * the value is not cached
+		 */
+		AtomicReference<Object> value;
+	}
+
+	/**
+	 * Marks a key whose value has to be read again. Each invalidation uses a
+	 * new instance, so that a value read before it can't be stored after it.
+	 */
+	private static class Unset
+	{
 	}
 }
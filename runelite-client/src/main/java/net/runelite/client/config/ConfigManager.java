@@ -171,6 +171,8 @@ public class ConfigManager
 			log.warn("Unable to load settings", ex);
 		}
 
+		handler.invalidateAll();
+
 		try
 		{
 			Map<String, String> copy = (Map) ImmutableMap.copyOf(properties);
@@ -271,6 +273,8 @@ public class ConfigManager
 			return;
 		}
 
+		handler.invalidate(groupName, key);
+
 		log.debug("Setting configuration value for {}.{} to {}", groupName, key, value);
 
 		synchronized (pendingChanges)
@@ -301,6 +305,8 @@ public class ConfigManager
 			return;
 		}
 
+		handler.invalidate(groupName, key);
+
 		log.debug("Unsetting configuration value for {}.{}", groupName, key);
 
 		synchronized (pendingChanges)
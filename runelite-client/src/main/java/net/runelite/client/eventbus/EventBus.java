@@ -26,25 +26,31 @@
 package net.runelite.client.eventbus;
 
 import com.google.common.base.Preconditions;
-import com.google.common.collect.HashMultimap;
-import com.google.common.collect.ImmutableMultimap;
-import com.google.common.collect.Multimap;
 import java.lang.invoke.CallSite;
 import java.lang.invoke.LambdaMetafactory;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
-import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.function.Consumer;
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.ThreadSafe;
+import javax.inject.Inject;
 import lombok.EqualsAndHashCode;
 import lombok.RequiredArgsConstructor;
 import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.profiler.Profiler;
+import net.runelite.client.profiler.ProfilerCategory;
+import static net.runelite.client.util.ReflectUtil.privateLookupIn;
 
 @Slf4j
 @RequiredArgsConstructor
@@ -62,6 +68,7 @@ public class EventBus
 	{
 		private final Object object;
 		private final Method method;
+		private final float priority;
 		@EqualsAndHashCode.Exclude
 		private final SubscriberMethod lamda;
 
@@ -78,8 +85,21 @@ public class EventBus
 		}
 	}
 
+	/**
+	 * Higher priority first, registration order within the same priority (the sort is stable)
+	 */
+	private static final Comparator<Subscriber> SUBSCRIBER_ORDER = (a, b) -> Float.compare(b.getPriority(), a.getPriority());
+
 	private final Consumer<Throwable> exceptionHandler;
-	private ImmutableMultimap<Class, Subscriber> subscribers = ImmutableMultimap.of();
+
+	/**
+	 * Subscribers for each event class. Neither the map nor the arrays are modified once published,
+	 * registering and unregistering build a new map so that posting needs no locking.
+	 */
+	private volatile Map<Class<?>, Subscriber[]> subscribers = Collections.emptyMap();
+
+	@Inject
+	private Profiler profiler = new Profiler();
 
 	/**
 	 * Instantiates EventBus with default exception handler
@@ -98,12 +118,8 @@ public class EventBus
 	 */
 	public synchronized void register(@Nonnull final Object object)
 	{
-		final ImmutableMultimap.Builder<Class, Subscriber> builder = ImmutableMultimap.builder();
-
-		if (subscribers != null)
-		{
-			builder.putAll(subscribers);
-		}
+		final Map<Class<?>, Subscriber[]> subscribers = this.subscribers;
+		final Map<Class<?>, List<Subscriber>> added = new HashMap<>();
 
 		for (Class<?> clazz = object.getClass(); clazz != null; clazz = clazz.getSuperclass())
 		{
@@ -160,13 +176,32 @@ public class EventBus
 					log.warn("Unable to create lambda for method {}", method, e);
 				}
 
-				final Subscriber subscriber = new Subscriber(object, method, lambda);
-				builder.put(parameterClazz, subscriber);
+				final Subscriber subscriber = new Subscriber(object, method, sub.priority(), lambda);
+				added.computeIfAbsent(parameterClazz, k -> new ArrayList<>()).add(subscriber);
 				log.debug("Registering {} - {}", parameterClazz, subscriber);
 			}
 		}
 
-		subscribers = builder.build();
+		if (added.isEmpty())
+		{
+			return;
+		}
+
+		final Map<Class<?>, Subscriber[]> map = new HashMap<>(subscribers);
+		for (Map.Entry<Class<?>, List<Subscriber>> entry : added.entrySet())
+		{
+			final Subscriber[] existing = map.get(entry.getKey());
+			final List<Subscriber> list = new ArrayList<>();
+			if (existing != null)
+			{
+				list.addAll(Arrays.asList(existing));
+			}
+			list.addAll(entry.getValue());
+			list.sort(SUBSCRIBER_ORDER);
+			map.put(entry.getKey(), list.toArray(new Subscriber[0]));
+		}
+
+		this.subscribers = map;
 	}
 
 	/**
@@ -176,43 +211,69 @@ public class EventBus
 	 */
 	public synchronized void unregister(@Nonnull final Object object)
 	{
-		if (subscribers == null)
+		final Map<Class<?>, Subscriber[]> map = new HashMap<>(subscribers.size());
+		boolean removed = false;
+
+		for (Map.Entry<Class<?>, Subscriber[]> entry : subscribers.entrySet())
 		{
-			return;
-		}
+			final Subscriber[] existing = entry.getValue();
+			int count = 0;
+			for (Subscriber subscriber : existing)
+			{
+				if (subscriber.getObject() != object)
+				{
+					++count;
+				}
+			}
 
-		final Multimap<Class, Subscriber> map = HashMultimap.create();
-		map.putAll(subscribers);
+			if (count == existing.length)
+			{
+				map.put(entry.getKey(), existing);
+				continue;
+			}
 
-		for (Class<?> clazz = object.getClass(); clazz != null; clazz = clazz.getSuperclass())
-		{
-			for (final Method method : clazz.getDeclaredMethods())
+			removed = true;
+			if (count == 0)
 			{
-				final Subscribe sub = method.getAnnotation(Subscribe.class);
+				continue;
+			}
 
-				if (sub == null)
+			final Subscriber[] remaining = new Subscriber[count];
+			int i = 0;
+			for (Subscriber subscriber : existing)
+			{
+				if (subscriber.getObject() != object)
 				{
-					continue;
+					remaining[i++] = subscriber;
 				}
-
-				final Class<?> parameterClazz = method.getParameterTypes()[0];
-				map.remove(parameterClazz, new Subscriber(object, method, null));
 			}
+			map.put(entry.getKey(), remaining);
 		}
 
-		subscribers = ImmutableMultimap.copyOf(map);
+		if (removed)
+		{
+			subscribers = map;
+		}
 	}
 
 	/**
-	 * Posts provided event to all registered subscribers. Subscriber calls are invoked immediately and in order
-	 * in which subscribers were registered.
+	 * Posts provided event to all registered subscribers. Subscriber calls are invoked immediately, in order of
+	 * descending {@link Subscribe#priority()} and then in order in which subscribers were registered.
 	 *
 	 * @param event event to post
 	 */
 	public void post(@Nonnull final Object event)
 	{
-		for (final Subscriber subscriber : subscribers.get(event.getClass()))
+		final Subscriber[] subscribers = this.subscribers.get(event.getClass());
+		if (subscribers == null)
+		{
+			return;
+		}
+
+		final Profiler profiler = this.profiler;
+		for (final Subscriber subscriber : subscribers)
 		{
+			final long start = profiler.isEnabled() ? profiler.start() : 0;
 			try
 			{
 				subscriber.invoke(event);
@@ -221,29 +282,13 @@ public class EventBus
 			{
 				exceptionHandler.accept(e);
 			}
-		}
-	}
-
-	private static MethodHandles.Lookup privateLookupIn(Class clazz) throws IllegalAccessException, NoSuchFieldException, InvocationTargetException
-	{
-		try
-		{
-			// Java 9+ has privateLookupIn method on MethodHandles, but since we are shipping and using Java 8
-			// we need to access it via reflection. This is preferred way because it's Java 9+ public api and is
-			// likely to not change
-			final Method privateLookupIn = MethodHandles.class.getMethod("privateLookupIn", Class.class, MethodHandles.Lookup.class);
-			return (MethodHandles.Lookup) privateLookupIn.invoke(null, clazz, MethodHandles.lookup());
-		}
-		catch (NoSuchMethodException e)
-		{
-			// In Java 8 we first do standard lookupIn class
-			final MethodHandles.Lookup lookupIn = MethodHandles.lookup().in(clazz);
-
-			// and then we mark it as trusted for private lookup via reflection on private field
-			final Field modes = MethodHandles.Lookup.class.getDeclaredField("allowedModes");
-			modes.setAccessible(true);
-			modes.setInt(lookupIn, -1); // -1 == TRUSTED
-			return lookupIn;
+			finally
+			{
+				if (start != 0)
+				{
+					profiler.stop(ProfilerCategory.EVENT, subscriber.getMethod(), start);
+				}
+			}
 		}
 	}
 }
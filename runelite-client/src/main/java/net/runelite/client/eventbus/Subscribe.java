@@ -38,4 +38,8 @@ import java.lang.annotation.Target;
 @Documented
 public @interface Subscribe
 {
+	/**
+	 * Subscribers with a higher priority are notified of an event before those with a lower one.
+	 */
+	float priority() default 0;
 }
@@ -31,7 +31,6 @@ import com.google.common.collect.ImmutableMap;
 import java.awt.Color;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -47,7 +46,6 @@ import net.runelite.api.Client;
 import static net.runelite.api.Constants.CLIENT_DEFAULT_ZOOM;
 import net.runelite.api.GameState;
 import net.runelite.api.ItemComposition;
-import net.runelite.api.ItemID;
 import static net.runelite.api.ItemID.*;
 import net.runelite.api.SpritePixels;
 import net.runelite.api.events.GameStateChanged;
@@ -83,7 +81,7 @@ public class ItemManager
 	private final ClientThread clientThread;
 
 	private final ItemClient itemClient = new ItemClient();
-	private Map<Integer, ItemPrice> itemPrices = Collections.emptyMap();
+	private volatile ItemPriceIndex itemPrices = ItemPriceIndex.EMPTY;
 	private Map<Integer, ItemStats> itemStats = Collections.emptyMap();
 	private final LoadingCache<ImageKey, AsyncBufferedImage> itemImages;
 	private final LoadingCache<Integer, ItemComposition> itemCompositions;
@@ -211,7 +209,7 @@ public class ItemManager
 				{
 					map.put(price.getId(), price);
 				}
-				itemPrices = map.build();
+				itemPrices = new ItemPriceIndex(map.build().values());
 			}
 
 			log.debug("Loaded {} prices", itemPrices.size());
@@ -273,32 +271,7 @@ public class ItemManager
 	 */
 	public int getItemPrice(int itemID)
 	{
-		if (itemID == ItemID.COINS_995)
-		{
-			return 1;
-		}
-		if (itemID == ItemID.PLATINUM_TOKEN)
-		{
-			return 1000;
-		}
-
-		UntradeableItemMapping p = UntradeableItemMapping.map(ItemVariationMapping.map(itemID));
-		if (p != null)
-		{
-			return getItemPrice(p.getPriceID()) * p.getQuantity();
-		}
-
-		int price = 0;
-		for (int mappedID : ItemMapping.map(itemID))
-		{
-			ItemPrice ip = itemPrices.get(mappedID);
-			if (ip != null)
-			{
-				price += ip.getPrice();
-			}
-		}
-
-		return price;
+		return itemPrices.getPrice(itemID);
 	}
 
 	/**
@@ -327,18 +300,7 @@ public class ItemManager
 	 */
 	public List<ItemPrice> search(String itemName)
 	{
-		itemName = itemName.toLowerCase();
-
-		List<ItemPrice> result = new ArrayList<>();
-		for (ItemPrice itemPrice : itemPrices.values())
-		{
-			final String name = itemPrice.getName();
-			if (name.toLowerCase().contains(itemName))
-			{
-				result.add(itemPrice);
-			}
-		}
-		return result;
+		return itemPrices.search(itemName.toLowerCase());
 	}
 
 	/**
@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2019, liam909 <https://github.com/liam909>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.game;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import net.runelite.api.ItemID;
+import net.runelite.http.api.item.ItemPrice;
+
+/**
+ * An immutable index of item prices, built once when prices are loaded.
+ * Prices are resolved through {@link ItemVariationMapping},
+ * {@link UntradeableItemMapping} and {@link ItemMapping} ahead of time into
+ * an array indexed by item id, and item names are indexed by trigram for
+ * substring search.
+ */
+class ItemPriceIndex
+{
+	static final ItemPriceIndex EMPTY = new ItemPriceIndex(Collections.emptyList());
+
+	private static final int TRIGRAM = 3;
+
+	/**
+	 * Prices of items as loaded
+	 */
+	private final int[] basePrices;
+
+	/**
+	 * Prices of items with mappings applied
+	 */
+	private final int[] prices;
+
+	private final ItemPrice[] items;
+	private final String[] names;
+	private final Map<Long, int[]> trigrams;
+
+	ItemPriceIndex(Collection<ItemPrice> itemPrices)
+	{
+		items = itemPrices.toArray(new ItemPrice[0]);
+
+		int maxId = Math.max(ItemID.COINS_995, ItemID.PLATINUM_TOKEN);
+		for (ItemPrice itemPrice : items)
+		{
+			maxId = Math.max(maxId, itemPrice.getId());
+		}
+
+		basePrices = new int[maxId + 1];
+		for (ItemPrice itemPrice : items)
+		{
+			basePrices[itemPrice.getId()] = itemPrice.getPrice();
+		}
+
+		prices = new int[maxId + 1];
+		for (int itemId = 0; itemId <= maxId; ++itemId)
+		{
+			prices[itemId] = resolvePrice(itemId);
+		}
+
+		names = new String[items.length];
+		final Map<Long, List<Integer>> postings = new HashMap<>();
+		for (int i = 0; i < items.length; ++i)
+		{
+			final String name = items[i].getName().toLowerCase();
+			names[i] = name;
+
+			for (int j = 0; j + TRIGRAM <= name.length(); ++j)
+			{
+				final List<Integer> posting = postings.computeIfAbsent(trigram(name, j), k -> new ArrayList<>());
+				// postings are in item order, so only the last entry can be this item
+				if (posting.isEmpty() || posting.get(posting.size() - 1) != i)
+				{
+					posting.add(i);
+				}
+			}
+		}
+
+		trigrams = new HashMap<>(postings.size() * 4 / 3 + 1);
+		for (Map.Entry<Long, List<Integer>> entry : postings.entrySet())
+		{
+			trigrams.put(entry.getKey(), entry.getValue().stream().mapToInt(Integer::intValue).toArray());
+		}
+	}
+
+	int size()
+	{
+		return items.length;
+	}
+
+	/**
+	 * Look up an item's price
+	 *
+	 * @param itemId item id
+	 * @return the item's price, with mappings applied
+	 */
+	int getPrice(int itemId)
+	{
+		if (itemId >= 0 && itemId < prices.length)
+		{
+			return prices[itemId];
+		}
+
+		// ids past the largest priced item can only be priced through a mapping
+		return resolvePrice(itemId);
+	}
+
+	/**
+	 * Search for items with names containing the given text
+	 *
+	 * @param name lowercase text to search for
+	 * @return the matching items, in the order they were loaded
+	 */
+	List<ItemPrice> search(String name)
+	{
+		final List<ItemPrice> result = new ArrayList<>();
+
+		if (name.length() < TRIGRAM)
+		{
+			for (int i = 0; i < names.length; ++i)
+			{
+				if (names[i].contains(name))
+				{
+					result.add(items[i]);
+				}
+			}
+			return result;
+		}
+
+		// every match contains every trigram of the search, so checking the items of the rarest one is enough
+		int[] candidates = null;
+		for (int j = 0; j + TRIGRAM <= name.length(); ++j)
+		{
+			final int[] posting = trigrams.get(trigram(name, j));
+			if (posting == null)
+			{
+				return result;
+			}
+
+			if (candidates == null || posting.length < candidates.length)
+			{
+				candidates = posting;
+			}
+		}
+
+		for (int i : candidates)
+		{
+			if (names[i].contains(name))
+			{
+				result.add(items[i]);
+			}
+		}
+		return result;
+	}
+
+	private int resolvePrice(int itemId)
+	{
+		if (itemId == ItemID.COINS_995)
+		{
+			return 1;
+		}
+		if (itemId == ItemID.PLATINUM_TOKEN)
+		{
+			return 1000;
+		}
+
+		UntradeableItemMapping p = UntradeableItemMapping.map(ItemVariationMapping.map(itemId));
+		if (p != null)
+		{
+			return resolvePrice(p.getPriceID()) * p.getQuantity();
+		}
+
+		int price = 0;
+		for (int mappedID : ItemMapping.map(itemId))
+		{
+			if (mappedID >= 0 && mappedID < basePrices.length)
+			{
+				price += basePrices[mappedID];
+			}
+		}
+
+		return price;
+	}
+
+	private static long trigram(String name, int offset)
+	{
+		return (long) name.charAt(offset) << 32
+			| (long) name.charAt(offset + 1) << 16
+			| name.charAt(offset + 2);
+	}
+}
@@ -74,4 +74,37 @@ public interface PerformanceConfig extends Config
 	{
 		return false;
 	}
+
+	@ConfigItem(
+		keyName = "profile",
+		name = "Profile plugins",
+		description = "Measure the time plugins spend on the client thread and show the slowest in an overlay",
+		position = 4
+	)
+	default boolean profile()
+	{
+		return false;
+	}
+
+	@ConfigItem(
+		keyName = "profileAllocations",
+		name = "Profile allocations",
+		description = "Also measure the memory allocated by plugins, which makes profiling slightly slower",
+		position = 5
+	)
+	default boolean profileAllocations()
+	{
+		return false;
+	}
+
+	@ConfigItem(
+		keyName = "profileEntries",
+		name = "Profiler entries",
+		description = "Number of the slowest plugin sections shown by the profiler overlay",
+		position = 6
+	)
+	default int profileEntries()
+	{
+		return 10;
+	}
 }
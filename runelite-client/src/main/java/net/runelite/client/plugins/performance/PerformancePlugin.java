@@ -26,18 +26,30 @@ package net.runelite.client.plugins.performance;
 
 import com.google.inject.Inject;
 import com.google.inject.Provides;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.ChatMessageType;
 import net.runelite.api.Client;
 import net.runelite.api.GameState;
+import net.runelite.api.events.CommandExecuted;
 import net.runelite.api.events.ConfigChanged;
 import net.runelite.api.events.FocusChanged;
+import static net.runelite.client.RuneLite.RUNELITE_DIR;
 import net.runelite.client.config.ConfigManager;
 import net.runelite.client.eventbus.Subscribe;
 import net.runelite.client.plugins.Plugin;
 import net.runelite.client.plugins.PluginDescriptor;
+import net.runelite.client.profiler.Profiler;
 import net.runelite.client.ui.DrawManager;
 import net.runelite.client.ui.overlay.OverlayManager;
 import net.runelite.client.util.ExecutorServiceExceptionLogger;
@@ -56,6 +68,10 @@ import net.runelite.client.util.ping.Ping;
  * <p>Pinging the world, when logged in and ping display is enabled, every 5 seconds the remote server
  * for the current world is pinged. A scheduled method in this class is responsible for that. When ping fails
  * or those conditions are not met, ping will have the value of -1.
+ *
+ * <p>Profiler, when enabled, attributes the time spent on the client thread by event subscribers,
+ * overlays, invokes, scheduled methods and infoboxes to the plugin they belong to. The slowest
+ * sections are shown in an overlay, and {@code ::profile export} writes every section to a CSV file.
  */
 @PluginDescriptor(
 	name = "Performance",
@@ -63,10 +79,14 @@ import net.runelite.client.util.ping.Ping;
 	tags = {"frames", "framerate", "limit", "overlay", "ping"},
 	enabledByDefault = false
 )
+@Slf4j
 public class PerformancePlugin extends Plugin
 {
 	static final String CONFIG_GROUP_KEY = "fpscontrol";
 
+	private static final File PROFILER_DIR = new File(RUNELITE_DIR, "profiler");
+	private static final DateTimeFormatter EXPORT_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss");
+
 	@Getter
 	private int ping;
 
@@ -88,6 +108,14 @@ public class PerformancePlugin extends Plugin
 	@Inject
 	private PerformanceConfig performanceConfig;
 
+	@Inject
+	private Profiler profiler;
+
+	@Inject
+	private ProfilerOverlay profilerOverlay;
+
+	private final Runnable profilerFrameListener = this::endProfilerFrame;
+
 	private final ScheduledExecutorService pingExecutorService = new ExecutorServiceExceptionLogger(Executors.newSingleThreadScheduledExecutor());
 
 	@Provides
@@ -102,6 +130,33 @@ public class PerformancePlugin extends Plugin
 		if (event.getGroup().equals(CONFIG_GROUP_KEY))
 		{
 			drawListener.reloadConfig();
+			updateProfiler();
+		}
+	}
+
+	@Subscribe
+	public void onCommandExecuted(CommandExecuted commandExecuted)
+	{
+		String[] args = commandExecuted.getArguments();
+
+		if (!commandExecuted.getCommand().equals("profile") || args.length != 1)
+		{
+			return;
+		}
+
+		switch (args[0])
+		{
+			case "reset":
+			{
+				profiler.reset();
+				client.addChatMessage(ChatMessageType.GAMEMESSAGE, "", "Profiler reset", null);
+				break;
+			}
+			case "export":
+			{
+				exportProfile();
+				break;
+			}
 		}
 	}
 
@@ -118,6 +173,7 @@ public class PerformancePlugin extends Plugin
 		overlayManager.add(overlay);
 		drawManager.registerEveryFrameListener(drawListener);
 		drawListener.reloadConfig();
+		updateProfiler();
 		pingExecutorService.scheduleAtFixedRate(this::getPingToCurrentWorld, 5, 5, TimeUnit.SECONDS);
 	}
 
@@ -127,6 +183,55 @@ public class PerformancePlugin extends Plugin
 		overlayManager.remove(overlay);
 		drawManager.unregisterEveryFrameListener(drawListener);
 		pingExecutorService.shutdown();
+
+		profiler.setEnabled(false);
+		profiler.reset();
+		overlayManager.remove(profilerOverlay);
+		drawManager.unregisterEveryFrameListener(profilerFrameListener);
+	}
+
+	private void updateProfiler()
+	{
+		profiler.setTrackAllocations(performanceConfig.profileAllocations());
+		profiler.setEnabled(performanceConfig.profile());
+
+		if (performanceConfig.profile())
+		{
+			overlayManager.add(profilerOverlay);
+			drawManager.registerEveryFrameListener(profilerFrameListener);
+		}
+		else
+		{
+			overlayManager.remove(profilerOverlay);
+			drawManager.unregisterEveryFrameListener(profilerFrameListener);
+		}
+	}
+
+	private void endProfilerFrame()
+	{
+		if (profiler.isEnabled())
+		{
+			profiler.endFrame();
+		}
+	}
+
+	private void exportProfile()
+	{
+		PROFILER_DIR.mkdirs();
+		final File file = new File(PROFILER_DIR, "profile-" + EXPORT_FORMAT.format(LocalDateTime.now()) + ".csv");
+
+		try (Writer writer = new BufferedWriter(new FileWriter(file)))
+		{
+			profiler.export(writer);
+		}
+		catch (IOException ex)
+		{
+			log.warn("unable to export profile", ex);
+			client.addChatMessage(ChatMessageType.GAMEMESSAGE, "", "Unable to export profile", null);
+			return;
+		}
+
+		client.addChatMessage(ChatMessageType.GAMEMESSAGE, "", "Profile exported to " + file.getAbsolutePath(), null);
 	}
 
 	private void getPingToCurrentWorld()
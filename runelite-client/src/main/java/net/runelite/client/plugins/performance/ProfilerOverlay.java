@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2019, liam909 <https://github.com/liam909>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.performance;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.util.Comparator;
+import java.util.List;
+import javax.inject.Inject;
+import net.runelite.client.profiler.Profiler;
+import net.runelite.client.profiler.ProfilerEntry;
+import net.runelite.client.profiler.ProfilerHistogram;
+import net.runelite.client.ui.overlay.Overlay;
+import net.runelite.client.ui.overlay.OverlayPosition;
+import net.runelite.client.ui.overlay.OverlayRetention;
+import net.runelite.client.ui.overlay.components.LineComponent;
+import net.runelite.client.ui.overlay.components.PanelComponent;
+import net.runelite.client.ui.overlay.components.TitleComponent;
+
+/**
+ * Shows the plugin time per frame and the sections which have taken the most
+ * client thread time since the profiler was last reset.
+ */
+class ProfilerOverlay extends Overlay
+{
+	private static final long REFRESH_MILLIS = 1000;
+	private static final double NANOS_PER_MILLI = 1_000_000d;
+
+	private final Profiler profiler;
+	private final PerformanceConfig config;
+
+	private final PanelComponent panelComponent = new PanelComponent();
+	private long lastRefresh;
+
+	@Inject
+	private ProfilerOverlay(PerformancePlugin plugin, Profiler profiler, PerformanceConfig config)
+	{
+		super(plugin);
+		setPosition(OverlayPosition.TOP_LEFT);
+		setRetention(OverlayRetention.MANUAL);
+		this.profiler = profiler;
+		this.config = config;
+		panelComponent.setPreferredSize(new Dimension(250, 0));
+	}
+
+	@Override
+	public void onFrame()
+	{
+		if (System.currentTimeMillis() - lastRefresh >= REFRESH_MILLIS)
+		{
+			invalidate();
+		}
+	}
+
+	@Override
+	public Dimension render(Graphics2D graphics)
+	{
+		lastRefresh = System.currentTimeMillis();
+		final ProfilerHistogram frames = profiler.getFrames();
+
+		panelComponent.getChildren().clear();
+		panelComponent.getChildren().add(TitleComponent.builder()
+			.text("Profiler")
+			.build());
+		panelComponent.getChildren().add(LineComponent.builder()
+			.left("Frame p50 / p99:")
+			.right(formatMillis(frames.getPercentileNanos(.5)) + " / " + formatMillis(frames.getPercentileNanos(.99)))
+			.build());
+		panelComponent.getChildren().add(LineComponent.builder()
+			.left("Section")
+			.right("mean / p99")
+			.build());
+
+		final List<ProfilerEntry> entries = profiler.getEntries();
+		entries.sort(Comparator.comparingLong((ProfilerEntry entry) -> entry.getHistogram().getTotalNanos()).reversed());
+
+		for (ProfilerEntry entry : entries.subList(0, Math.min(config.profileEntries(), entries.size())))
+		{
+			final ProfilerHistogram histogram = entry.getHistogram();
+			panelComponent.getChildren().add(LineComponent.builder()
+				.left(entry.getPlugin() + " " + entry.getName())
+				.leftColor(Color.LIGHT_GRAY)
+				.right(formatMillis(histogram.getMeanNanos()) + " / " + formatMillis(histogram.getPercentileNanos(.99)))
+				.build());
+		}
+
+		return panelComponent.render(graphics);
+	}
+
+	private static String formatMillis(long nanos)
+	{
+		return String.format("%.2fms", nanos / NANOS_PER_MILLI);
+	}
+}
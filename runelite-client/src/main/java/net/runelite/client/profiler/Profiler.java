@@ -0,0 +1,313 @@
+/*
+ * Copyright (c) 2019, liam909 <https://github.com/liam909>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.profiler;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import javax.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Attributes time spent running plugin code on the client thread to the
+ * subscriber, overlay or task it was spent in. Profiling is off unless
+ * enabled, and callers check {@link #isEnabled()} before timing anything, so
+ * the cost when disabled is one volatile read per call site.
+ * <p>
+ * Callers time a section with:
+ * <pre>
+ * final long start = profiler.isEnabled() ? profiler.start() : 0;
+ * try
+ * {
+ *     ...
+ * }
+ * finally
+ * {
+ *     if (start != 0)
+ *     {
+ *         profiler.stop(category, key, start);
+ *     }
+ * }
+ * </pre>
+ * Keys are the {@link Class} or {@link Method} the code belongs to, so that
+ * no plugin instances are held on to.
+ */
+@Singleton
+@Slf4j
+public class Profiler
+{
+	private static final String PLUGIN_PACKAGE = "net.runelite.client.plugins.";
+
+	private final Map<Object, Entry>[] entries;
+	private final ThreadLocal<ThreadState> threadState = ThreadLocal.withInitial(ThreadState::new);
+
+	/**
+	 * Plugin time per frame on the thread calling {@link #endFrame()},
+	 * counting only the outermost of nested sections
+	 */
+	private volatile ProfilerHistogram frames = new ProfilerHistogram();
+
+	private volatile boolean enabled;
+	private volatile com.sun.management.ThreadMXBean allocations;
+
+	public Profiler()
+	{
+		entries = new Map[ProfilerCategory.values().length];
+		for (int i = 0; i < entries.length; ++i)
+		{
+			entries[i] = new ConcurrentHashMap<>();
+		}
+	}
+
+	public boolean isEnabled()
+	{
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled)
+	{
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Enables counting allocated bytes, if the JVM supports measuring them
+	 * per thread. This costs far more than timing, so it is separate.
+	 */
+	public void setTrackAllocations(boolean trackAllocations)
+	{
+		if (!trackAllocations)
+		{
+			allocations = null;
+			return;
+		}
+
+		ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (!(bean instanceof com.sun.management.ThreadMXBean))
+		{
+			log.debug("Allocation tracking is not supported by this JVM");
+			return;
+		}
+
+		com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+		if (!sunBean.isThreadAllocatedMemorySupported())
+		{
+			log.debug("Allocation tracking is not supported by this JVM");
+			return;
+		}
+
+		sunBean.setThreadAllocatedMemoryEnabled(true);
+		allocations = sunBean;
+	}
+
+	/**
+	 * Starts timing a section
+	 *
+	 * @return the start time, to pass to {@link #stop(ProfilerCategory, Object, long)}, never 0
+	 */
+	public long start()
+	{
+		final ThreadState state = threadState.get();
+		final com.sun.management.ThreadMXBean allocations = this.allocations;
+
+		if (state.depth == state.allocated.length)
+		{
+			state.allocated = Arrays.copyOf(state.allocated, state.depth * 2);
+		}
+		state.allocated[state.depth++] = allocations != null ? allocations.getThreadAllocatedBytes(state.threadId) : -1;
+
+		final long now = System.nanoTime();
+		return now != 0 ? now : 1;
+	}
+
+	/**
+	 * Stops timing a section started with {@link #start()}
+	 *
+	 * @param category where the code was run from
+	 * @param key the {@link Class} or {@link Method} the code belongs to
+	 * @param start the value returned by {@link #start()}
+	 */
+	public void stop(ProfilerCategory category, Object key, long start)
+	{
+		final long nanos = System.nanoTime() - start;
+		final ThreadState state = threadState.get();
+		final com.sun.management.ThreadMXBean allocations = this.allocations;
+
+		final long startBytes = state.allocated[--state.depth];
+		long bytes = 0;
+		if (allocations != null && startBytes != -1)
+		{
+			bytes = Math.max(0, allocations.getThreadAllocatedBytes(state.threadId) - startBytes);
+		}
+
+		if (state.depth == 0)
+		{
+			state.frameNanos += nanos;
+		}
+
+		Entry entry = entries[category.ordinal()].get(key);
+		if (entry == null)
+		{
+			entry = entries[category.ordinal()].computeIfAbsent(key, k -> new Entry(category, k));
+		}
+		entry.histogram.record(nanos, bytes);
+	}
+
+	/**
+	 * Records the plugin time of the frame just drawn. Called on the client
+	 * thread after each frame.
+	 */
+	public void endFrame()
+	{
+		final ThreadState state = threadState.get();
+		frames.record(state.frameNanos, 0);
+		state.frameNanos = 0;
+	}
+
+	/**
+	 * @return the plugin time spent per frame
+	 */
+	public ProfilerHistogram getFrames()
+	{
+		return frames.copy();
+	}
+
+	/**
+	 * @return a snapshot of every section recorded since the last reset
+	 */
+	public List<ProfilerEntry> getEntries()
+	{
+		final List<ProfilerEntry> snapshot = new ArrayList<>();
+		for (Map<Object, Entry> map : entries)
+		{
+			for (Entry entry : map.values())
+			{
+				snapshot.add(new ProfilerEntry(entry.category, entry.plugin, entry.name, entry.histogram.copy()));
+			}
+		}
+		return snapshot;
+	}
+
+	public void reset()
+	{
+		for (Map<Object, Entry> map : entries)
+		{
+			map.clear();
+		}
+		frames = new ProfilerHistogram();
+	}
+
+	/**
+	 * Writes the recorded sections as CSV, slowest in total first
+	 */
+	public void export(Writer writer) throws IOException
+	{
+		final List<ProfilerEntry> entries = getEntries();
+		entries.sort((a, b) -> Long.compare(b.getHistogram().getTotalNanos(), a.getHistogram().getTotalNanos()));
+
+		writer.write("category,plugin,name,calls,total ms,mean us,p50 us,p90 us,p99 us,max us,allocated bytes\n");
+		for (ProfilerEntry entry : entries)
+		{
+			writeRow(writer, entry.getCategory().getName(), entry.getPlugin(), entry.getName(), entry.getHistogram());
+		}
+
+		writeRow(writer, "Frame", "", "plugin time per frame", getFrames());
+	}
+
+	private static void writeRow(Writer writer, String category, String plugin, String name, ProfilerHistogram histogram) throws IOException
+	{
+		writer.write(category + ","
+			+ plugin + ","
+			+ name + ","
+			+ histogram.getCount() + ","
+			+ TimeUnit.NANOSECONDS.toMillis(histogram.getTotalNanos()) + ","
+			+ TimeUnit.NANOSECONDS.toMicros(histogram.getMeanNanos()) + ","
+			+ TimeUnit.NANOSECONDS.toMicros(histogram.getPercentileNanos(.5)) + ","
+			+ TimeUnit.NANOSECONDS.toMicros(histogram.getPercentileNanos(.9)) + ","
+			+ TimeUnit.NANOSECONDS.toMicros(histogram.getPercentileNanos(.99)) + ","
+			+ TimeUnit.NANOSECONDS.toMicros(histogram.getMaxNanos()) + ","
+			+ histogram.getAllocatedBytes() + "\n");
+	}
+
+	private static String nameOf(Object key)
+	{
+		if (key instanceof Method)
+		{
+			final Method method = (Method) key;
+			return nameOf(method.getDeclaringClass()) + "." + method.getName();
+		}
+
+		final String name = ((Class<?>) key).getName();
+		final String simpleName = name.substring(name.lastIndexOf('.') + 1);
+
+		// lambdas are named after the class they are declared in
+		final int lambda = simpleName.indexOf("$$Lambda");
+		return lambda != -1 ? simpleName.substring(0, lambda) : simpleName;
+	}
+
+	private static String pluginOf(Object key)
+	{
+		final Class<?> clazz = key instanceof Method ? ((Method) key).getDeclaringClass() : (Class<?>) key;
+		final String name = clazz.getName();
+
+		if (!name.startsWith(PLUGIN_PACKAGE))
+		{
+			return "core";
+		}
+
+		final int end = name.indexOf('.', PLUGIN_PACKAGE.length());
+		return end == -1 ? "core" : name.substring(PLUGIN_PACKAGE.length(), end);
+	}
+
+	private static class Entry
+	{
+		private final ProfilerCategory category;
+		private final String plugin;
+		private final String name;
+		private final ProfilerHistogram histogram = new ProfilerHistogram();
+
+		private Entry(ProfilerCategory category, Object key)
+		{
+			this.category = category;
+			this.plugin = pluginOf(key);
+			this.name = nameOf(key);
+		}
+	}
+
+	private static class ThreadState
+	{
+		private final long threadId = Thread.currentThread().getId();
+		private long[] allocated = new long[8];
+		private int depth;
+		private long frameNanos;
+	}
+}
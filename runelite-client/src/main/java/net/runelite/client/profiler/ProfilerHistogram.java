@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2019, liam909 <https://github.com/liam909>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.profiler;
+
+/**
+ * A histogram of durations in power of two nanosecond buckets, along with
+ * the exact count, total, maximum and allocated bytes. Recording is a few
+ * arithmetic operations under an uncontended lock.
+ */
+public class ProfilerHistogram
+{
+	private static final int BUCKETS = 64;
+
+	private final long[] buckets = new long[BUCKETS];
+	private long count;
+	private long totalNanos;
+	private long maxNanos;
+	private long allocatedBytes;
+
+	public synchronized void record(long nanos, long bytes)
+	{
+		// bucket n holds durations in [2^(n-1), 2^n)
+		++buckets[BUCKETS - Long.numberOfLeadingZeros(Math.max(nanos, 0))];
+		++count;
+		totalNanos += nanos;
+		maxNanos = Math.max(maxNanos, nanos);
+		allocatedBytes += bytes;
+	}
+
+	public synchronized ProfilerHistogram copy()
+	{
+		ProfilerHistogram copy = new ProfilerHistogram();
+		System.arraycopy(buckets, 0, copy.buckets, 0, BUCKETS);
+		copy.count = count;
+		copy.totalNanos = totalNanos;
+		copy.maxNanos = maxNanos;
+		copy.allocatedBytes = allocatedBytes;
+		return copy;
+	}
+
+	public synchronized long getCount()
+	{
+		return count;
+	}
+
+	public synchronized long getTotalNanos()
+	{
+		return totalNanos;
+	}
+
+	public synchronized long getMaxNanos()
+	{
+		return maxNanos;
+	}
+
+	public synchronized long getAllocatedBytes()
+	{
+		return allocatedBytes;
+	}
+
+	public synchronized long getMeanNanos()
+	{
+		return count == 0 ? 0 : totalNanos / count;
+	}
+
+	/**
+	 * Estimates a percentile as the upper bound of the bucket it falls in,
+	 * which is within a factor of two of the real value
+	 *
+	 * @param percentile the percentile, from 0 to 1
+	 * @return the estimated duration in nanoseconds
+	 */
+	public synchronized long getPercentileNanos(double percentile)
+	{
+		if (count == 0)
+		{
+			return 0;
+		}
+
+		long target = (long) Math.ceil(count * percentile);
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; ++i)
+		{
+			seen += buckets[i];
+			if (seen >= Math.max(target, 1))
+			{
+				return i == 0 ? 0 : Math.min(maxNanos, i == BUCKETS - 1 ? Long.MAX_VALUE : (1L << i) - 1);
+			}
+		}
+		return maxNanos;
+	}
+}
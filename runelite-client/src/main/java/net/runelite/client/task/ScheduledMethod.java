@@ -24,21 +24,76 @@
  */
 package net.runelite.client.task;
 
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+import static net.runelite.client.util.ReflectUtil.privateLookupIn;
 
+@Slf4j
 public class ScheduledMethod
 {
 	private final Schedule schedule;
 	private final Method method;
 	private final Object object;
+	private final Runnable lambda;
+	private final long periodMillis;
 	private Instant last = Instant.now();
+	private long nextRun;
+
+	/**
+	 * Set while an asynchronous run is queued or running, so that a slow task
+	 * is not submitted again before it has finished
+	 */
+	private final AtomicBoolean running = new AtomicBoolean();
+
+	// run statistics, guarded by this
+	private long runs;
+	private long totalRunNanos;
+	private long maxRunNanos;
+	private long overruns;
+	private long skipped;
 
 	public ScheduledMethod(Schedule schedule, Method method, Object object)
 	{
 		this.schedule = schedule;
 		this.method = method;
 		this.object = object;
+		this.lambda = createLambda(method, object);
+		this.periodMillis = Duration.of(schedule.period(), schedule.unit()).toMillis();
+		this.nextRun = last.toEpochMilli() + periodMillis;
+	}
+
+	private static Runnable createLambda(Method method, Object object)
+	{
+		try
+		{
+			final Class<?> clazz = method.getDeclaringClass();
+			final MethodHandles.Lookup caller = privateLookupIn(clazz);
+			final MethodType type = MethodType.methodType(method.getReturnType());
+			final MethodHandle target = caller.findVirtual(clazz, method.getName(), type);
+			final CallSite site = LambdaMetafactory.metafactory(
+				caller,
+				"run",
+				MethodType.methodType(Runnable.class, clazz),
+				MethodType.methodType(void.class),
+				target,
+				MethodType.methodType(void.class));
+
+			return (Runnable) site.getTarget().bindTo(object).invokeExact();
+		}
+		catch (Throwable e)
+		{
+			log.warn("Unable to create lambda for method {}", method, e);
+			return null;
+		}
 	}
 
 	@Override
@@ -70,5 +125,106 @@ public class ScheduledMethod
 	public void setLast(Instant last)
 	{
 		this.last = last;
+		this.nextRun = last.toEpochMilli() + periodMillis;
+	}
+
+	/**
+	 * @return the time in epoch milliseconds after which the method is next due
+	 */
+	long getNextRun()
+	{
+		return nextRun;
+	}
+
+	/**
+	 * Invokes the method, recording how long it took
+	 */
+	void invoke() throws Exception
+	{
+		final long start = System.nanoTime();
+		try
+		{
+			if (lambda != null)
+			{
+				lambda.run();
+			}
+			else
+			{
+				method.invoke(object);
+			}
+		}
+		finally
+		{
+			record(System.nanoTime() - start);
+		}
+	}
+
+	boolean tryStartAsync()
+	{
+		return running.compareAndSet(false, true);
+	}
+
+	void finishAsync()
+	{
+		running.set(false);
+	}
+
+	private synchronized void record(long nanos)
+	{
+		++runs;
+		totalRunNanos += nanos;
+		maxRunNanos = Math.max(maxRunNanos, nanos);
+
+		if (nanos > TimeUnit.MILLISECONDS.toNanos(periodMillis))
+		{
+			++overruns;
+			log.debug("Scheduled task {} took {}ms, longer than its period of {}ms", this, TimeUnit.NANOSECONDS.toMillis(nanos), periodMillis);
+		}
+	}
+
+	synchronized void skip()
+	{
+		++skipped;
+	}
+
+	/**
+	 * @return the number of times the method has run
+	 */
+	public synchronized long getRuns()
+	{
+		return runs;
+	}
+
+	/**
+	 * @return the total time spent running the method
+	 */
+	public synchronized Duration getTotalRunTime()
+	{
+		return Duration.ofNanos(totalRunNanos);
+	}
+
+	/**
+	 * @return the longest single run of the method
+	 */
+	public synchronized Duration getMaxRunTime()
+	{
+		return Duration.ofNanos(maxRunNanos);
+	}
+
+	/**
+	 * @return the number of runs which took longer than the schedule period
+	 */
+	public synchronized long getOverruns()
+	{
+		return overruns;
+	}
+
+	/**
+	 * @return the number of times an asynchronous run was skipped because the
+	 * previous one had not finished yet
+	 */
+	public synchronized long getSkipped()
+	{
+		return skipped;
 	}
 }
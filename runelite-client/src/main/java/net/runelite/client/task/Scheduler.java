@@ -26,15 +26,19 @@ package net.runelite.client.task;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.time.Duration;
 import java.time.Instant;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.PriorityQueue;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.profiler.Profiler;
+import net.runelite.client.profiler.ProfilerCategory;
 
 @Singleton
 @Slf4j
@@ -42,17 +46,36 @@ public class Scheduler
 {
 	private final List<ScheduledMethod> scheduledMethods = new CopyOnWriteArrayList<>();
 
+	/**
+	 * Scheduled methods ordered by when they are next due, so a tick only looks
+	 * at the methods which need to run
+	 */
+	private final PriorityQueue<ScheduledMethod> queue = new PriorityQueue<>(Comparator.comparingLong(ScheduledMethod::getNextRun));
+
 	@Inject
 	ScheduledExecutorService executor;
 
+	@Inject
+	Profiler profiler;
+
 	public void addScheduledMethod(ScheduledMethod method)
 	{
 		scheduledMethods.add(method);
+
+		synchronized (queue)
+		{
+			queue.add(method);
+		}
 	}
 
 	public void removeScheduledMethod(ScheduledMethod method)
 	{
 		scheduledMethods.remove(method);
+
+		synchronized (queue)
+		{
+			queue.remove(method);
+		}
 	}
 
 	public List<ScheduledMethod> getScheduledMethods()
@@ -89,50 +112,90 @@ public class Scheduler
 
 	public void tick()
 	{
-		Instant now = Instant.now();
+		final long now = System.currentTimeMillis();
 
-		for (ScheduledMethod scheduledMethod : scheduledMethods)
+		for (;;)
 		{
-			Instant last = scheduledMethod.getLast();
+			final ScheduledMethod scheduledMethod;
+
+			synchronized (queue)
+			{
+				scheduledMethod = queue.peek();
+				if (scheduledMethod == null || scheduledMethod.getNextRun() >= now)
+				{
+					return;
+				}
 
-			Duration difference = Duration.between(last, now);
+				// reschedule before running, the method may remove itself
+				queue.poll();
+				scheduledMethod.setLast(Instant.ofEpochMilli(now));
+				queue.add(scheduledMethod);
+			}
 
-			Schedule schedule = scheduledMethod.getSchedule();
-			Duration timeSinceRun = Duration.of(schedule.period(), schedule.unit());
+			log.trace("Scheduled task triggered: {}", scheduledMethod);
 
-			if (difference.compareTo(timeSinceRun) > 0)
+			if (scheduledMethod.getSchedule().asynchronous())
 			{
-				log.trace("Scheduled task triggered: {}", scheduledMethod);
-
-				scheduledMethod.setLast(now);
+				if (!scheduledMethod.tryStartAsync())
+				{
+					// the previous run is still queued or running
+					scheduledMethod.skip();
+					continue;
+				}
 
-				if (schedule.asynchronous())
+				try
 				{
-					executor.submit(() -> run(scheduledMethod));
+					executor.submit(() ->
+					{
+						try
+						{
+							run(scheduledMethod);
+						}
+						finally
+						{
+							scheduledMethod.finishAsync();
+						}
+					});
 				}
-				else
+				catch (RejectedExecutionException ex)
 				{
-					run(scheduledMethod);
+					scheduledMethod.finishAsync();
+					log.warn("unable to submit scheduled task {}", scheduledMethod, ex);
 				}
 			}
+			else
+			{
+				run(scheduledMethod);
+			}
 		}
 	}
 
 	private void run(ScheduledMethod scheduledMethod)
 	{
-		Method method = scheduledMethod.getMethod();
-
+		final long start = profiler.isEnabled() ? profiler.start() : 0;
 		try
 		{
-			method.invoke(scheduledMethod.getObject());
+			scheduledMethod.invoke();
 		}
-		catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException ex)
+		catch (InvocationTargetException ex)
 		{
-			//log.warn("error invoking scheduled task", ex);
+			// thrown by the method itself when it is called reflectively
+			log.warn("error during scheduled task", ex.getCause());
+		}
+		catch (IllegalAccessException | IllegalArgumentException ex)
+		{
+			log.warn("error invoking scheduled task", ex);
 		}
 		catch (Exception ex)
 		{
 			log.warn("error during scheduled task", ex);
 		}
+		finally
+		{
+			if (start != 0)
+			{
+				profiler.stop(ProfilerCategory.SCHEDULED, scheduledMethod.getMethod(), start);
+			}
+		}
 	}
 }
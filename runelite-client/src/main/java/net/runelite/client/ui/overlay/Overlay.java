@@ -25,11 +25,13 @@
 package net.runelite.client.ui.overlay;
 
 import java.awt.Dimension;
+import java.awt.Graphics2D;
 import java.awt.Point;
 import java.awt.Rectangle;
 import java.util.ArrayList;
 import java.util.List;
 import javax.annotation.Nullable;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import net.runelite.client.plugins.Plugin;
@@ -48,8 +50,12 @@ public abstract class Overlay implements LayoutableRenderableEntity
 	private OverlayPosition position = OverlayPosition.TOP_LEFT;
 	private OverlayPriority priority = OverlayPriority.NONE;
 	private OverlayLayer layer = OverlayLayer.UNDER_WIDGETS;
+	private OverlayRetention retention = OverlayRetention.NONE;
 	private final List<OverlayMenuEntry> menuEntries = new ArrayList<>();
 
+	@Getter(AccessLevel.PACKAGE)
+	private final OverlayCache cache = new OverlayCache();
+
 	protected Overlay()
 	{
 		plugin = null;
@@ -68,4 +74,27 @@ public abstract class Overlay implements LayoutableRenderableEntity
 	{
 		return this.getClass().getSimpleName();
 	}
+
+	public void setPreferredSize(Dimension preferredSize)
+	{
+		this.preferredSize = preferredSize;
+		invalidate();
+	}
+
+	/**
+	 * Marks a retained overlay to be rendered again on the next frame. Can be
+	 * called from any thread.
+	 */
+	public void invalidate()
+	{
+		cache.invalidate();
+	}
+
+	/**
+	 * Called every frame for retained overlays after their image is drawn,
+	 * as {@link #render(Graphics2D)} is only called when it is stale
+	 */
+	public void onFrame()
+	{
+	}
 }
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2019, liam909 <https://github.com/liam909>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.ui.overlay;
+
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.image.BufferedImage;
+
+/**
+ * The image a retained overlay was last rendered into, and the state it was
+ * rendered with. Only accessed from the client thread, except for
+ * {@link #invalidate()}.
+ */
+class OverlayCache
+{
+	private volatile boolean dirty = true;
+
+	BufferedImage image;
+	int width;
+	int height;
+	int tick;
+	int configGeneration;
+	Font font;
+
+	void invalidate()
+	{
+		dirty = true;
+	}
+
+	/**
+	 * Checks whether the image needs rendering again, and clears the
+	 * invalidated flag if so
+	 */
+	boolean isStale(OverlayRetention retention, int tick, int configGeneration, Font font)
+	{
+		if (dirty
+			|| image == null
+			|| (retention == OverlayRetention.TICK && tick != this.tick)
+			|| configGeneration != this.configGeneration
+			|| font != this.font)
+		{
+			dirty = false;
+			return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Checks whether a render of the given size fits in the image. If it
+	 * doesn't, the overlay has to be rendered again into a larger image.
+	 */
+	boolean fits(Dimension dimension)
+	{
+		return image != null && dimension.width <= image.getWidth() && dimension.height <= image.getHeight();
+	}
+}
@@ -26,13 +26,19 @@ package net.runelite.client.ui.overlay;
 
 import com.google.common.base.MoreObjects;
 import com.google.common.primitives.Ints;
+import java.awt.AlphaComposite;
 import java.awt.Color;
+import java.awt.Composite;
 import java.awt.Dimension;
+import java.awt.Font;
 import java.awt.Graphics2D;
 import java.awt.Point;
 import java.awt.Rectangle;
+import java.awt.Shape;
+import java.awt.Transparency;
 import java.awt.event.KeyEvent;
 import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
 import java.util.List;
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -43,7 +49,9 @@ import net.runelite.api.MenuAction;
 import net.runelite.api.MenuEntry;
 import net.runelite.api.events.BeforeRender;
 import net.runelite.api.events.ClientTick;
+import net.runelite.api.events.ConfigChanged;
 import net.runelite.api.events.FocusChanged;
+import net.runelite.api.events.GameTick;
 import net.runelite.api.widgets.Widget;
 import net.runelite.api.widgets.WidgetInfo;
 import net.runelite.client.config.RuneLiteConfig;
@@ -52,6 +60,8 @@ import net.runelite.client.input.KeyListener;
 import net.runelite.client.input.KeyManager;
 import net.runelite.client.input.MouseAdapter;
 import net.runelite.client.input.MouseManager;
+import net.runelite.client.profiler.Profiler;
+import net.runelite.client.profiler.ProfilerCategory;
 import net.runelite.client.ui.JagexColors;
 import net.runelite.client.util.ColorUtil;
 
@@ -66,9 +76,11 @@ public class OverlayRenderer extends MouseAdapter implements KeyListener
 	private static final Color SNAP_CORNER_ACTIVE_COLOR = new Color(0, 255, 0, 100);
 	private static final Color MOVING_OVERLAY_COLOR = new Color(255, 255, 0, 100);
 	private static final Color MOVING_OVERLAY_ACTIVE_COLOR = new Color(255, 255, 0, 200);
+	private static final int RETAINED_INITIAL_SIZE = 128;
 	private final Client client;
 	private final OverlayManager overlayManager;
 	private final RuneLiteConfig runeLiteConfig;
+	private final Profiler profiler;
 
 	// Overlay movement variables
 	private final Point overlayOffset = new Point();
@@ -86,17 +98,23 @@ public class OverlayRenderer extends MouseAdapter implements KeyListener
 	private boolean isResizeable;
 	private OverlayBounds snapCorners;
 
+	// Retained overlay invalidation
+	private int tickCount;
+	private int configGeneration;
+
 	@Inject
 	private OverlayRenderer(
 		final Client client,
 		final OverlayManager overlayManager,
 		final RuneLiteConfig runeLiteConfig,
 		final MouseManager mouseManager,
-		final KeyManager keyManager)
+		final KeyManager keyManager,
+		final Profiler profiler)
 	{
 		this.client = client;
 		this.overlayManager = overlayManager;
 		this.runeLiteConfig = runeLiteConfig;
+		this.profiler = profiler;
 		keyManager.registerKeyListener(this);
 		mouseManager.registerMouseListener(this);
 	}
@@ -139,6 +157,19 @@ public class OverlayRenderer extends MouseAdapter implements KeyListener
 		client.setMenuEntries(newEntries);
 	}
 
+	@Subscribe
+	public void onGameTick(GameTick event)
+	{
+		++tickCount;
+	}
+
+	@Subscribe
+	public void onConfigChanged(ConfigChanged event)
+	{
+		// any config can affect how an overlay renders
+		++configGeneration;
+	}
+
 	@Subscribe
 	public void onBeforeRender(BeforeRender event)
 	{
@@ -259,7 +290,15 @@ public class OverlayRenderer extends MouseAdapter implements KeyListener
 					overlay.getBounds().setSize(overlay.getPreferredSize());
 				}
 
-				safeRender(client, overlay, layer, graphics, location);
+				if (overlay.getRetention() != OverlayRetention.NONE)
+				{
+					retainedRender(overlay, layer, graphics, location);
+				}
+				else
+				{
+					safeRender(client, overlay, layer, graphics, location);
+				}
+
 				final Rectangle bounds = overlay.getBounds();
 
 				if (bounds.isEmpty())
@@ -441,26 +480,152 @@ public class OverlayRenderer extends MouseAdapter implements KeyListener
 				client.getViewportHeight());
 		}
 
+		subGraphics.setFont(getFont(overlay));
+		subGraphics.translate(point.x, point.y);
+
+		final Dimension dimension = profiledRender(overlay, subGraphics);
+
+		subGraphics.dispose();
+		overlay.setBounds(new Rectangle(point, dimension));
+	}
+
+	/**
+	 * Draws the cached image of a retained overlay, first rendering it again
+	 * if it is stale. The render and the draw of the image are profiled
+	 * together, so the profiler shows the overlay's whole cost each frame.
+	 */
+	private void retainedRender(Overlay overlay, OverlayLayer layer, Graphics2D graphics, Point point)
+	{
+		final long start = profiler.isEnabled() ? profiler.start() : 0;
+		try
+		{
+			final OverlayCache cache = overlay.getCache();
+			final Font font = getFont(overlay);
+
+			if (cache.isStale(overlay.getRetention(), tickCount, configGeneration, font))
+			{
+				renderCache(overlay, cache, graphics, font);
+			}
+
+			if (cache.width > 0 && cache.height > 0)
+			{
+				final Shape clip = graphics.getClip();
+
+				if (!isResizeable && (layer == OverlayLayer.ABOVE_SCENE || layer == OverlayLayer.UNDER_WIDGETS))
+				{
+					graphics.setClip(client.getViewportXOffset(),
+						client.getViewportYOffset(),
+						client.getViewportWidth(),
+						client.getViewportHeight());
+				}
+
+				graphics.drawImage(cache.image,
+					point.x, point.y, point.x + cache.width, point.y + cache.height,
+					0, 0, cache.width, cache.height,
+					null);
+				graphics.setClip(clip);
+			}
+
+			overlay.getBounds().setBounds(point.x, point.y, cache.width, cache.height);
+			overlay.onFrame();
+		}
+		finally
+		{
+			if (start != 0)
+			{
+				profiler.stop(ProfilerCategory.OVERLAY, overlay.getClass(), start);
+			}
+		}
+	}
+
+	private void renderCache(Overlay overlay, OverlayCache cache, Graphics2D graphics, Font font)
+	{
+		if (cache.image == null)
+		{
+			final Dimension preferredSize = overlay.getPreferredSize();
+			cache.image = createCacheImage(graphics,
+				preferredSize != null ? preferredSize.width : RETAINED_INITIAL_SIZE,
+				preferredSize != null ? preferredSize.height : RETAINED_INITIAL_SIZE);
+		}
+
+		Dimension dimension = renderToImage(overlay, cache.image, graphics, font);
+
+		if (!cache.fits(dimension))
+		{
+			// the overlay has outgrown its image, so render it again into one which fits
+			cache.image = createCacheImage(graphics,
+				Math.max(dimension.width, cache.image.getWidth()),
+				Math.max(dimension.height, cache.image.getHeight()));
+			dimension = renderToImage(overlay, cache.image, graphics, font);
+		}
+
+		cache.width = Math.min(dimension.width, cache.image.getWidth());
+		cache.height = Math.min(dimension.height, cache.image.getHeight());
+		cache.tick = tickCount;
+		cache.configGeneration = configGeneration;
+		cache.font = font;
+	}
+
+	private Dimension renderToImage(Overlay overlay, BufferedImage image, Graphics2D graphics, Font font)
+	{
+		final Graphics2D imageGraphics = image.createGraphics();
+		final Composite composite = imageGraphics.getComposite();
+		imageGraphics.setComposite(AlphaComposite.Clear);
+		imageGraphics.fillRect(0, 0, image.getWidth(), image.getHeight());
+		imageGraphics.setComposite(composite);
+
+		imageGraphics.setRenderingHints(graphics.getRenderingHints());
+		imageGraphics.setFont(font);
+
+		try
+		{
+			// profiled by retainedRender
+			return MoreObjects.firstNonNull(overlay.render(imageGraphics), new Dimension());
+		}
+		finally
+		{
+			imageGraphics.dispose();
+		}
+	}
+
+	private static BufferedImage createCacheImage(Graphics2D graphics, int width, int height)
+	{
+		return graphics.getDeviceConfiguration().createCompatibleImage(Math.max(width, 1), Math.max(height, 1), Transparency.TRANSLUCENT);
+	}
+
+	private Dimension profiledRender(Overlay overlay, Graphics2D graphics)
+	{
+		final long start = profiler.isEnabled() ? profiler.start() : 0;
+		try
+		{
+			return MoreObjects.firstNonNull(overlay.render(graphics), new Dimension());
+		}
+		finally
+		{
+			if (start != 0)
+			{
+				profiler.stop(ProfilerCategory.OVERLAY, overlay.getClass(), start);
+			}
+		}
+	}
+
+	private Font getFont(Overlay overlay)
+	{
 		final OverlayPosition position = overlay.getPosition();
 
 		// Set font based on configuration
 		if (position == OverlayPosition.DYNAMIC || position == OverlayPosition.DETACHED)
 		{
-			subGraphics.setFont(runeLiteConfig.fontType().getFont());
+			return runeLiteConfig.fontType().getFont();
 		}
 		else if (position == OverlayPosition.TOOLTIP)
 		{
-			subGraphics.setFont(runeLiteConfig.tooltipFontType().getFont());
+			return runeLiteConfig.tooltipFontType().getFont();
 		}
 		else
 		{
-			subGraphics.setFont(runeLiteConfig.interfaceFontType().getFont());
+			return runeLiteConfig.interfaceFontType().getFont();
 		}
-
-		subGraphics.translate(point.x, point.y);
-		final Dimension dimension = MoreObjects.firstNonNull(overlay.render(subGraphics), new Dimension());
-		subGraphics.dispose();
-		overlay.setBounds(new Rectangle(point, dimension));
 	}
 
 	private boolean shouldInvalidateBounds()
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2019, liam909 <https://github.com/liam909>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.ui.overlay;
+
+/**
+ * How an overlay's rendering is reused between frames. Retained overlays are
+ * rendered into an image which is drawn every frame in place of calling
+ * {@link Overlay#render(java.awt.Graphics2D)}, and are rendered again when
+ * invalidated with {@link Overlay#invalidate()}, when the configuration
+ * changes or when they outgrow their image.
+ * <p>
+ * Retention only applies to overlays which are laid out in a snap corner or
+ * detached, and requires that the overlay draws only within the dimension
+ * it returns and does not depend on state which changes every frame, such as
+ * the mouse position. Per frame work can be done in {@link Overlay#onFrame()}.
+ */
+public enum OverlayRetention
+{
+	/**
+	 * Render every frame
+	 */
+	NONE,
+
+	/**
+	 * Render again at most once per game tick
+	 */
+	TICK,
+
+	/**
+	 * Render again only when invalidated
+	 */
+	MANUAL,
+}
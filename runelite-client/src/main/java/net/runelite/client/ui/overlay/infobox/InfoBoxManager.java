@@ -41,6 +41,8 @@ import net.runelite.api.events.ConfigChanged;
 import net.runelite.client.config.RuneLiteConfig;
 import net.runelite.client.eventbus.Subscribe;
 import net.runelite.client.plugins.PluginDescriptor;
+import net.runelite.client.profiler.Profiler;
+import net.runelite.client.profiler.ProfilerCategory;
 
 @Singleton
 @Slf4j
@@ -48,11 +50,13 @@ public class InfoBoxManager
 {
 	private final List<InfoBox> infoBoxes = new ArrayList<>();
 	private final RuneLiteConfig runeLiteConfig;
+	private final Profiler profiler;
 
 	@Inject
-	private InfoBoxManager(final RuneLiteConfig runeLiteConfig)
+	private InfoBoxManager(final RuneLiteConfig runeLiteConfig, final Profiler profiler)
 	{
 		this.runeLiteConfig = runeLiteConfig;
+		this.profiler = profiler;
 	}
 
 	@Subscribe
@@ -104,7 +108,7 @@ public class InfoBoxManager
 		{
 			InfoBox box = it.next();
 
-			if (box.cull())
+			if (cull(box))
 			{
 				log.debug("Culling InfoBox {}", box);
 				it.remove();
@@ -118,6 +122,22 @@ public class InfoBoxManager
 		}
 	}
 
+	private boolean cull(InfoBox box)
+	{
+		final long start = profiler.isEnabled() ? profiler.start() : 0;
+		try
+		{
+			return box.cull();
+		}
+		finally
+		{
+			if (start != 0)
+			{
+				profiler.stop(ProfilerCategory.INFOBOX, box.getClass(), start);
+			}
+		}
+	}
+
 	private void updateInfoBoxImage(final InfoBox infoBox)
 	{
 		if (infoBox.getImage() == null)
@@ -31,13 +31,17 @@ import java.awt.Dimension;
 import java.awt.Graphics2D;
 import java.awt.Point;
 import java.awt.Rectangle;
+import java.util.ArrayList;
 import java.util.List;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import net.runelite.api.Client;
 import net.runelite.client.config.RuneLiteConfig;
+import net.runelite.client.profiler.Profiler;
+import net.runelite.client.profiler.ProfilerCategory;
 import net.runelite.client.ui.overlay.Overlay;
 import net.runelite.client.ui.overlay.OverlayPosition;
+import net.runelite.client.ui.overlay.OverlayRetention;
 import net.runelite.client.ui.overlay.components.ComponentOrientation;
 import net.runelite.client.ui.overlay.components.InfoBoxComponent;
 import net.runelite.client.ui.overlay.components.LayoutableRenderableEntity;
@@ -53,19 +57,24 @@ public class InfoBoxOverlay extends Overlay
 	private final TooltipManager tooltipManager;
 	private final Client client;
 	private final RuneLiteConfig config;
+	private final Profiler profiler;
+	private List<InfoBox> renderedInfoBoxes = new ArrayList<>();
 
 	@Inject
 	private InfoBoxOverlay(
 		InfoBoxManager infoboxManager,
 		TooltipManager tooltipManager,
 		Client client,
-		RuneLiteConfig config)
+		RuneLiteConfig config,
+		Profiler profiler)
 	{
 		this.tooltipManager = tooltipManager;
 		this.infoboxManager = infoboxManager;
 		this.client = client;
 		this.config = config;
+		this.profiler = profiler;
 		setPosition(OverlayPosition.TOP_LEFT);
+		setRetention(OverlayRetention.TICK);
 
 		panelComponent.setBackgroundColor(null);
 		panelComponent.setBorder(new Rectangle());
@@ -76,13 +85,14 @@ public class InfoBoxOverlay extends Overlay
 	public Dimension render(Graphics2D graphics)
 	{
 		final List<InfoBox> infoBoxes = infoboxManager.getInfoBoxes();
+		renderedInfoBoxes = new ArrayList<>(infoBoxes);
+		panelComponent.getChildren().clear();
 
 		if (infoBoxes.isEmpty())
 		{
 			return null;
 		}
 
-		panelComponent.getChildren().clear();
 		panelComponent.setWrapping(config.infoBoxWrap());
 		panelComponent.setOrientation(config.infoBoxVertical()
 			? ComponentOrientation.VERTICAL
@@ -91,26 +101,31 @@ public class InfoBoxOverlay extends Overlay
 
 		for (InfoBox box : infoBoxes)
 		{
-			if (!box.render())
+			final long start = profiler.isEnabled() ? profiler.start() : 0;
+			try
 			{
-				continue;
+				addInfoBox(box);
 			}
-
-			final String text = box.getText();
-			final Color color = box.getTextColor();
-
-			final InfoBoxComponent infoBoxComponent = new InfoBoxComponent();
-			infoBoxComponent.setText(text);
-			if (color != null)
+			finally
 			{
-				infoBoxComponent.setColor(color);
+				if (start != 0)
+				{
+					profiler.stop(ProfilerCategory.INFOBOX, box.getClass(), start);
+				}
 			}
-			infoBoxComponent.setImage(box.getScaledImage());
-			infoBoxComponent.setTooltip(box.getTooltip());
-			panelComponent.getChildren().add(infoBoxComponent);
 		}
 
-		final Dimension dimension = panelComponent.render(graphics);
+		return panelComponent.render(graphics);
+	}
+
+	@Override
+	public void onFrame()
+	{
+		// Render again as soon as infoboxes are added or removed, rather than on the next tick
+		if (!renderedInfoBoxes.equals(infoboxManager.getInfoBoxes()))
+		{
+			invalidate();
+		}
 
 		// Handle tooltips
 		final Point mouse = new Point(client.getMouseCanvasPosition().getX(), client.getMouseCanvasPosition().getY());
@@ -134,7 +149,26 @@ public class InfoBoxOverlay extends Overlay
 				}
 			}
 		}
+	}
+
+	private void addInfoBox(InfoBox box)
+	{
+		if (!box.render())
+		{
+			return;
+		}
+
+		final String text = box.getText();
+		final Color color = box.getTextColor();
 
-		return dimension;
+		final InfoBoxComponent infoBoxComponent = new InfoBoxComponent();
+		infoBoxComponent.setText(text);
+		if (color != null)
+		{
+			infoBoxComponent.setColor(color);
+		}
+		infoBoxComponent.setImage(box.getScaledImage());
+		infoBoxComponent.setTooltip(box.getTooltip());
+		panelComponent.getChildren().add(infoBoxComponent);
 	}
 }
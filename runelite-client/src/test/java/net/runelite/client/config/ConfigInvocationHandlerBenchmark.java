@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2019, liam909 <https://github.com/liam909>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.config;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import net.runelite.client.eventbus.EventBus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Config getter calls as made by overlays every frame, through the cached
+ * {@link ConfigInvocationHandler} and the previous reflective handler. Both
+ * a key which is set and one which falls back to its default are read.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ConfigInvocationHandlerBenchmark
+{
+	private ScheduledExecutorService executor;
+	private RuneLiteConfig config;
+	private RuneLiteConfig legacyConfig;
+
+	@Setup
+	public void setup()
+	{
+		executor = Executors.newSingleThreadScheduledExecutor();
+
+		ConfigManager manager = new ConfigManager(executor);
+		manager.eventBus = new EventBus();
+		manager.setConfiguration("runelite", "fontType", FontType.BOLD);
+
+		config = manager.getConfig(RuneLiteConfig.class);
+		legacyConfig = (RuneLiteConfig) Proxy.newProxyInstance(RuneLiteConfig.class.getClassLoader(), new Class<?>[]
+			{
+				RuneLiteConfig.class
+			}, new LegacyConfigInvocationHandler(manager));
+	}
+
+	@TearDown
+	public void teardown()
+	{
+		executor.shutdown();
+	}
+
+	@Benchmark
+	public FontType legacySetValue()
+	{
+		return legacyConfig.fontType();
+	}
+
+	@Benchmark
+	public FontType setValue()
+	{
+		return config.fontType();
+	}
+
+	@Benchmark
+	public FontType legacyDefaultValue()
+	{
+		return legacyConfig.tooltipFontType();
+	}
+
+	@Benchmark
+	public FontType defaultValue()
+	{
+		return config.tooltipFontType();
+	}
+
+	public static void main(String[] args) throws RunnerException
+	{
+		new Runner(new OptionsBuilder()
+			.include(ConfigInvocationHandlerBenchmark.class.getSimpleName())
+			.build()).run();
+	}
+}
@@ -44,6 +44,40 @@ import org.mockito.runners.MockitoJUnitRunner;
 @RunWith(MockitoJUnitRunner.class)
 public class ConfigManagerTest
 {
+	@ConfigGroup("shared")
+	public interface SharedKeyConfig
+	{
+		@ConfigItem(
+			keyName = "number",
+			name = "Number",
+			description = "value"
+		)
+		default int number()
+		{
+			return 1;
+		}
+
+		@ConfigItem(
+			keyName = "number",
+			name = "Number",
+			description = "value as a string"
+		)
+		default String numberString()
+		{
+			return "1";
+		}
+
+		@ConfigItem(
+			keyName = "doubled",
+			name = "Doubled",
+			description = "defaults to twice the number"
+		)
+		default int doubled()
+		{
+			return number() * 2;
+		}
+	}
+
 	@Mock
 	@Bind
 	EventBus eventBus;
@@ -99,6 +133,20 @@ public class ConfigManagerTest
 		Assert.assertEquals("new value", conf.key());
 	}
 
+	@Test
+	public void testGetConfigChanged() throws IOException
+	{
+		TestConfig conf = manager.getConfig(TestConfig.class);
+		Assert.assertEquals("default", conf.key());
+
+		manager.setConfiguration("test", "key", "moo");
+		Assert.assertEquals("moo", conf.key());
+		Assert.assertEquals("moo", manager.getConfig(TestConfig.class).key());
+
+		manager.unsetConfiguration("test", "key");
+		Assert.assertEquals("default", conf.key());
+	}
+
 	@Test
 	public void testGetConfigDescriptor() throws IOException
 	{
@@ -109,4 +157,25 @@ public class ConfigManagerTest
 		ConfigDescriptor descriptor = manager.getConfigDescriptor(conf);
 		Assert.assertEquals(1, descriptor.getItems().size());
 	}
+
+	@Test
+	public void testGetConfigSharedKey() throws IOException
+	{
+		SharedKeyConfig conf = manager.getConfig(SharedKeyConfig.class);
+		manager.setConfiguration("shared", "number", "5");
+
+		Assert.assertEquals(5, conf.number());
+		Assert.assertEquals("5", conf.numberString());
+		Assert.assertEquals(5, conf.number());
+	}
+
+	@Test
+	public void testGetConfigDerivedDefault() throws IOException
+	{
+		SharedKeyConfig conf = manager.getConfig(SharedKeyConfig.class);
+		Assert.assertEquals(2, conf.doubled());
+
+		manager.setConfiguration("shared", "number", "3");
+		Assert.assertEquals(6, conf.doubled());
+	}
 }
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2019, liam909 <https://github.com/liam909>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.eventbus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Post throughput with a plugin-like spread of subscribers: every plugin
+ * subscribes to a few common events, a fraction of them to a busy event,
+ * and some events are posted with nobody listening.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class EventBusBenchmark
+{
+	public static class CommonEvent
+	{
+	}
+
+	public static class BusyEvent
+	{
+	}
+
+	public static class UnsubscribedEvent
+	{
+	}
+
+	public static class Plugin
+	{
+		private int count;
+
+		@Subscribe
+		public void onCommonEvent(CommonEvent event)
+		{
+			++count;
+		}
+	}
+
+	public static class BusyPlugin extends Plugin
+	{
+		@Subscribe
+		public void onBusyEvent(BusyEvent event)
+		{
+			++count;
+		}
+	}
+
+	@Param({"20", "200"})
+	private int plugins;
+
+	private final CommonEvent commonEvent = new CommonEvent();
+	private final BusyEvent busyEvent = new BusyEvent();
+	private final UnsubscribedEvent unsubscribedEvent = new UnsubscribedEvent();
+
+	private EventBus eventBus;
+	private List<Plugin> registered;
+
+	@Setup
+	public void setup()
+	{
+		eventBus = new EventBus();
+		registered = new ArrayList<>(plugins);
+
+		for (int i = 0; i < plugins; ++i)
+		{
+			// roughly one plugin in four subscribes to the busy event
+			Plugin plugin = i % 4 == 0 ? new BusyPlugin() : new Plugin();
+			eventBus.register(plugin);
+			registered.add(plugin);
+		}
+	}
+
+	@Benchmark
+	public void postCommon()
+	{
+		eventBus.post(commonEvent);
+	}
+
+	@Benchmark
+	public void postBusy()
+	{
+		eventBus.post(busyEvent);
+	}
+
+	@Benchmark
+	public void postUnsubscribed()
+	{
+		eventBus.post(unsubscribedEvent);
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	public void registerUnregister(Blackhole bh)
+	{
+		Plugin plugin = new BusyPlugin();
+		eventBus.register(plugin);
+		eventBus.unregister(plugin);
+		bh.consume(plugin);
+	}
+
+	public static void main(String[] args) throws RunnerException
+	{
+		new Runner(new OptionsBuilder()
+			.include(EventBusBenchmark.class.getSimpleName())
+			.build()).run();
+	}
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2019, liam909 <https://github.com/liam909>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.eventbus;
+
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class EventBusTest
+{
+	private static class TestEvent
+	{
+	}
+
+	private static class OtherEvent
+	{
+	}
+
+	private static class Listener
+	{
+		private final List<String> calls;
+		private final String name;
+
+		Listener(List<String> calls, String name)
+		{
+			this.calls = calls;
+			this.name = name;
+		}
+
+		@Subscribe
+		public void onTestEvent(TestEvent event)
+		{
+			calls.add(name);
+		}
+	}
+
+	private static class HighPriorityListener extends Listener
+	{
+		HighPriorityListener(List<String> calls, String name)
+		{
+			super(calls, name);
+		}
+
+		@Subscribe(priority = 10)
+		public void onOtherEvent(OtherEvent event)
+		{
+		}
+	}
+
+	private static class EarlyListener
+	{
+		private final List<String> calls;
+
+		EarlyListener(List<String> calls)
+		{
+			this.calls = calls;
+		}
+
+		@Subscribe(priority = 1)
+		public void onTestEvent(TestEvent event)
+		{
+			calls.add("early");
+		}
+	}
+
+	@Test
+	public void testOrder()
+	{
+		List<String> calls = new ArrayList<>();
+		EventBus eventBus = new EventBus();
+		eventBus.register(new Listener(calls, "a"));
+		eventBus.register(new Listener(calls, "b"));
+		eventBus.register(new EarlyListener(calls));
+		eventBus.register(new HighPriorityListener(calls, "c"));
+
+		eventBus.post(new TestEvent());
+
+		assertEquals(4, calls.size());
+		assertEquals("early", calls.get(0));
+		assertEquals("a", calls.get(1));
+		assertEquals("b", calls.get(2));
+		assertEquals("c", calls.get(3));
+	}
+
+	@Test
+	public void testUnregister()
+	{
+		List<String> calls = new ArrayList<>();
+		EventBus eventBus = new EventBus();
+		Listener a = new Listener(calls, "a");
+		eventBus.register(a);
+		eventBus.register(new Listener(calls, "b"));
+		eventBus.unregister(a);
+
+		eventBus.post(new TestEvent());
+		eventBus.post(new OtherEvent());
+
+		assertEquals(1, calls.size());
+		assertEquals("b", calls.get(0));
+	}
+
+	@Test
+	public void testException()
+	{
+		List<Throwable> exceptions = new ArrayList<>();
+		EventBus eventBus = new EventBus(exceptions::add);
+		eventBus.register(new Object()
+		{
+			@Subscribe
+			public void onTestEvent(TestEvent event)
+			{
+				throw new IllegalStateException();
+			}
+		});
+
+		eventBus.post(new TestEvent());
+
+		assertEquals(1, exceptions.size());
+		assertTrue(exceptions.get(0) instanceof IllegalStateException);
+	}
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2019, liam909 <https://github.com/liam909>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.game;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import net.runelite.api.ItemID;
+import static net.runelite.api.ItemID.*;
+import net.runelite.http.api.item.ItemPrice;
+import static org.junit.Assert.assertEquals;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ItemPriceIndexTest
+{
+	private final Map<Integer, ItemPrice> itemPrices = new LinkedHashMap<>();
+	private ItemPriceIndex index;
+
+	@Before
+	public void before() throws IllegalAccessException
+	{
+		// price every other item, named after its ItemID field
+		for (Field field : ItemID.class.getFields())
+		{
+			final int id = field.getInt(null);
+			if (!Modifier.isStatic(field.getModifiers()) || id % 2 != 0 || itemPrices.containsKey(id))
+			{
+				continue;
+			}
+
+			final String name = field.getName().replace('_', ' ');
+			final ItemPrice itemPrice = new ItemPrice();
+			itemPrice.setId(id);
+			itemPrice.setName(name.charAt(0) + name.substring(1).toLowerCase());
+			itemPrice.setPrice(id * 7 % 100_000);
+			itemPrices.put(id, itemPrice);
+		}
+
+		index = new ItemPriceIndex(itemPrices.values());
+	}
+
+	@Test
+	public void testGetPrice()
+	{
+		for (int itemId = -1; itemId < 30_000; ++itemId)
+		{
+			assertEquals("item " + itemId, legacyPrice(itemId), index.getPrice(itemId));
+		}
+
+		assertEquals(1, index.getPrice(COINS_995));
+		assertEquals(1000, index.getPrice(PLATINUM_TOKEN));
+		assertEquals(legacyPrice(AMYLASE_CRYSTAL) * 10, index.getPrice(MARK_OF_GRACE));
+		assertEquals(legacyPrice(AMYLASE_CRYSTAL) * 10 * 28, index.getPrice(GRACEFUL_HOOD));
+		assertEquals(0, ItemPriceIndex.EMPTY.getPrice(DRAGON_SCIMITAR));
+	}
+
+	@Test
+	public void testSearch()
+	{
+		for (String search : new String[]{"", "a", "dr", "dragon", "dragon sc", "rune platebody", "(4)", " 1", "zzzz"})
+		{
+			assertEquals(search, legacySearch(search), index.search(search));
+		}
+	}
+
+	private int legacyPrice(int itemID)
+	{
+		if (itemID == COINS_995)
+		{
+			return 1;
+		}
+		if (itemID == PLATINUM_TOKEN)
+		{
+			return 1000;
+		}
+
+		UntradeableItemMapping p = UntradeableItemMapping.map(ItemVariationMapping.map(itemID));
+		if (p != null)
+		{
+			return legacyPrice(p.getPriceID()) * p.getQuantity();
+		}
+
+		int price = 0;
+		for (int mappedID : ItemMapping.map(itemID))
+		{
+			ItemPrice ip = itemPrices.get(mappedID);
+			if (ip != null)
+			{
+				price += ip.getPrice();
+			}
+		}
+
+		return price;
+	}
+
+	private List<ItemPrice> legacySearch(String itemName)
+	{
+		List<ItemPrice> result = new ArrayList<>();
+		for (ItemPrice itemPrice : itemPrices.values())
+		{
+			if (itemPrice.getName().toLowerCase().contains(itemName))
+			{
+				result.add(itemPrice);
+			}
+		}
+		return result;
+	}
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2019, liam909 <https://github.com/liam909>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.profiler;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+import net.runelite.client.plugins.performance.PerformancePlugin;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class ProfilerTest
+{
+	@Test
+	public void testHistogram()
+	{
+		ProfilerHistogram histogram = new ProfilerHistogram();
+		for (int i = 1; i <= 100; ++i)
+		{
+			histogram.record(i * 1000, 8);
+		}
+
+		assertEquals(100, histogram.getCount());
+		assertEquals(5_050_000, histogram.getTotalNanos());
+		assertEquals(100_000, histogram.getMaxNanos());
+		assertEquals(800, histogram.getAllocatedBytes());
+		assertEquals(50_500, histogram.getMeanNanos());
+
+		// percentiles are bucket upper bounds, within a factor of two
+		long p50 = histogram.getPercentileNanos(.5);
+		assertTrue(p50 >= 50_000 && p50 < 100_000);
+		assertEquals(100_000, histogram.getPercentileNanos(1));
+	}
+
+	@Test
+	public void testAttribution()
+	{
+		Profiler profiler = new Profiler();
+		profiler.setEnabled(true);
+
+		long outer = profiler.start();
+		long inner = profiler.start();
+		profiler.stop(ProfilerCategory.CLIENT_THREAD, Runnable.class, inner);
+		profiler.stop(ProfilerCategory.EVENT, PerformancePlugin.class, outer);
+		profiler.endFrame();
+
+		List<ProfilerEntry> entries = profiler.getEntries();
+		assertEquals(2, entries.size());
+
+		for (ProfilerEntry entry : entries)
+		{
+			if (entry.getCategory() == ProfilerCategory.EVENT)
+			{
+				assertEquals("performance", entry.getPlugin());
+				assertEquals("PerformancePlugin", entry.getName());
+			}
+			else
+			{
+				assertEquals("core", entry.getPlugin());
+			}
+			assertEquals(1, entry.getHistogram().getCount());
+		}
+
+		// nested sections count towards the frame only once
+		ProfilerHistogram frames = profiler.getFrames();
+		assertEquals(1, frames.getCount());
+		long outerNanos = entries.stream()
+			.filter(e -> e.getCategory() == ProfilerCategory.EVENT)
+			.findFirst()
+			.get()
+			.getHistogram()
+			.getTotalNanos();
+		assertEquals(outerNanos, frames.getTotalNanos());
+
+		profiler.reset();
+		assertTrue(profiler.getEntries().isEmpty());
+		assertEquals(0, profiler.getFrames().getCount());
+	}
+
+	@Test
+	public void testExport() throws IOException
+	{
+		Profiler profiler = new Profiler();
+		profiler.setEnabled(true);
+		profiler.stop(ProfilerCategory.OVERLAY, PerformancePlugin.class, profiler.start());
+
+		StringWriter writer = new StringWriter();
+		profiler.export(writer);
+
+		String[] lines = writer.toString().split("\n");
+		assertEquals(3, lines.length);
+		assertTrue(lines[1].startsWith("Overlay,performance,PerformancePlugin,1,"));
+		assertTrue(lines[2].startsWith("Frame,"));
+	}
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2019, liam909 <https://github.com/liam909>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.task;
+
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.ScheduledExecutorService;
+import net.runelite.client.profiler.Profiler;
+import static org.junit.Assert.assertEquals;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SchedulerTest
+{
+	@Mock
+	private ScheduledExecutorService executor;
+
+	private Scheduler scheduler;
+
+	@Before
+	public void before()
+	{
+		scheduler = new Scheduler();
+		scheduler.executor = executor;
+		scheduler.profiler = new Profiler();
+	}
+
+	public static class Tasks
+	{
+		private int fast;
+		private int slow;
+		private int async;
+
+		@Schedule(period = 0, unit = ChronoUnit.MILLIS)
+		public void fast()
+		{
+			++fast;
+		}
+
+		@Schedule(period = 1, unit = ChronoUnit.DAYS)
+		public void slow()
+		{
+			++slow;
+		}
+
+		@Schedule(period = 0, unit = ChronoUnit.MILLIS, asynchronous = true)
+		public void async()
+		{
+			++async;
+		}
+	}
+
+	@Test
+	public void testTick() throws InterruptedException
+	{
+		Tasks tasks = new Tasks();
+		scheduler.registerObject(tasks);
+
+		Thread.sleep(2);
+		scheduler.tick();
+		Thread.sleep(2);
+		scheduler.tick();
+
+		assertEquals(2, tasks.fast);
+		assertEquals(0, tasks.slow);
+
+		ScheduledMethod fast = scheduler.getScheduledMethods().stream()
+			.filter(m -> m.getMethod().getName().equals("fast"))
+			.findFirst()
+			.get();
+		assertEquals(2, fast.getRuns());
+
+		scheduler.removeScheduledMethod(fast);
+		Thread.sleep(2);
+		scheduler.tick();
+		assertEquals(2, tasks.fast);
+	}
+
+	@Test
+	public void testAsyncSkippedWhileRunning() throws InterruptedException
+	{
+		Tasks tasks = new Tasks();
+		scheduler.registerObject(tasks);
+
+		Thread.sleep(2);
+		scheduler.tick();
+		Thread.sleep(2);
+		scheduler.tick();
+
+		// the first run has not been executed, so the second is skipped
+		ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+		verify(executor, times(1)).submit(captor.capture());
+
+		ScheduledMethod async = scheduler.getScheduledMethods().stream()
+			.filter(m -> m.getMethod().getName().equals("async"))
+			.findFirst()
+			.get();
+		assertEquals(1, async.getSkipped());
+
+		captor.getValue().run();
+		assertEquals(1, tasks.async);
+
+		Thread.sleep(2);
+		scheduler.tick();
+		verify(executor, times(2)).submit(captor.capture());
+	}
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2019, liam909 <https://github.com/liam909>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.ui.overlay;
+
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.image.BufferedImage;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+public class OverlayCacheTest
+{
+	private static final Font FONT = new Font(Font.DIALOG, Font.PLAIN, 12);
+
+	private OverlayCache cache;
+
+	@Before
+	public void before()
+	{
+		cache = new OverlayCache();
+	}
+
+	@Test
+	public void testNotRendered()
+	{
+		assertTrue(cache.isStale(OverlayRetention.MANUAL, 0, 0, FONT));
+		// still stale as nothing has been rendered into an image
+		assertTrue(cache.isStale(OverlayRetention.MANUAL, 0, 0, FONT));
+	}
+
+	@Test
+	public void testRendered()
+	{
+		render(0, 0, FONT);
+		assertFalse(cache.isStale(OverlayRetention.MANUAL, 0, 0, FONT));
+		assertFalse(cache.isStale(OverlayRetention.TICK, 0, 0, FONT));
+	}
+
+	@Test
+	public void testInvalidate()
+	{
+		render(0, 0, FONT);
+		cache.invalidate();
+		assertTrue(cache.isStale(OverlayRetention.MANUAL, 0, 0, FONT));
+		// the invalidation is cleared by the check
+		assertFalse(cache.isStale(OverlayRetention.MANUAL, 0, 0, FONT));
+	}
+
+	@Test
+	public void testTick()
+	{
+		render(1, 0, FONT);
+		assertTrue(cache.isStale(OverlayRetention.TICK, 2, 0, FONT));
+		assertFalse(cache.isStale(OverlayRetention.MANUAL, 2, 0, FONT));
+	}
+
+	@Test
+	public void testConfigGeneration()
+	{
+		render(0, 1, FONT);
+		assertTrue(cache.isStale(OverlayRetention.MANUAL, 0, 2, FONT));
+		assertTrue(cache.isStale(OverlayRetention.TICK, 0, 2, FONT));
+	}
+
+	@Test
+	public void testFont()
+	{
+		render(0, 0, FONT);
+		assertTrue(cache.isStale(OverlayRetention.MANUAL, 0, 0, FONT.deriveFont(Font.BOLD)));
+	}
+
+	@Test
+	public void testFits()
+	{
+		assertFalse(cache.fits(new Dimension(0, 0)));
+
+		render(0, 0, FONT);
+		assertTrue(cache.fits(new Dimension(16, 8)));
+		assertTrue(cache.fits(new Dimension(0, 0)));
+		assertFalse(cache.fits(new Dimension(17, 8)));
+		assertFalse(cache.fits(new Dimension(16, 9)));
+	}
+
+	/**
+	 * Fill in the cache as OverlayRenderer does after rendering a 16x8 overlay
+	 */
+	private void render(int tick, int configGeneration, Font font)
+	{
+		assertTrue(cache.isStale(OverlayRetention.MANUAL, tick, configGeneration, font));
+		cache.image = new BufferedImage(16, 8, BufferedImage.TYPE_INT_ARGB);
+		cache.width = 16;
+		cache.height = 8;
+		cache.tick = tick;
+		cache.configGeneration = configGeneration;
+		cache.font = font;
+	}
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2019, liam909 <https://github.com/liam909>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.ui.overlay;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+import net.runelite.client.ui.FontManager;
+import net.runelite.client.ui.overlay.components.ComponentOrientation;
+import net.runelite.client.ui.overlay.components.InfoBoxComponent;
+import net.runelite.client.ui.overlay.components.LineComponent;
+import net.runelite.client.ui.overlay.components.PanelComponent;
+import net.runelite.client.ui.overlay.components.TitleComponent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Frame time of drawing overlays, rendering every overlay every frame as
+ * {@link OverlayRenderer} does for {@link OverlayRetention#NONE}, compared
+ * with drawing cached images which are rendered again once per game tick,
+ * every 30 frames at 50 fps, as for {@link OverlayRetention#TICK}.
+ * <p>
+ * Drawing a translucent image costs about twice as much per pixel as filling
+ * a translucent rectangle, so retaining plain text panels is roughly break
+ * even, while infobox rows, with their icons and borders, are several times
+ * faster to draw retained.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class OverlayRetentionBenchmark
+{
+	private static final int FRAMES_PER_TICK = 30;
+	private static final int LINES = 6;
+	private static final int INFOBOXES = 12;
+
+	@Param({"lines", "infoboxes"})
+	private String kind;
+
+	@Param({"1", "10"})
+	private int overlays;
+
+	private BufferedImage canvas;
+	private Graphics2D graphics;
+	private PanelComponent[] panels;
+	private BufferedImage[] images;
+	private Dimension[] dimensions;
+	private int frame;
+
+	@Setup
+	public void setup()
+	{
+		canvas = new BufferedImage(1280, 720, BufferedImage.TYPE_INT_RGB);
+		graphics = canvas.createGraphics();
+		graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+		panels = new PanelComponent[overlays];
+		images = new BufferedImage[overlays];
+		dimensions = new Dimension[overlays];
+
+		final BufferedImage icon = createIcon();
+
+		for (int i = 0; i < overlays; ++i)
+		{
+			panels[i] = kind.equals("lines") ? createLinePanel(i) : createInfoBoxPanel(i, icon);
+			images[i] = graphics.getDeviceConfiguration().createCompatibleImage(512, 256, Transparency.TRANSLUCENT);
+			renderToImage(i);
+		}
+	}
+
+	private static PanelComponent createLinePanel(int i)
+	{
+		final PanelComponent panel = new PanelComponent();
+		panel.getChildren().add(TitleComponent.builder().text("Overlay " + i).build());
+		for (int j = 0; j < LINES; ++j)
+		{
+			panel.getChildren().add(LineComponent.builder()
+				.left("Line " + j + ":")
+				.right(Integer.toString(i * 1000 + j))
+				.build());
+		}
+		return panel;
+	}
+
+	private static PanelComponent createInfoBoxPanel(int i, BufferedImage icon)
+	{
+		// laid out as by InfoBoxOverlay
+		final PanelComponent panel = new PanelComponent();
+		panel.setBackgroundColor(null);
+		panel.setBorder(new Rectangle());
+		panel.setGap(new Point(1, 1));
+		panel.setOrientation(ComponentOrientation.HORIZONTAL);
+		panel.setWrapping(INFOBOXES);
+		panel.setPreferredSize(new Dimension(35, 35));
+		for (int j = 0; j < INFOBOXES; ++j)
+		{
+			final InfoBoxComponent infoBox = new InfoBoxComponent();
+			infoBox.setImage(icon);
+			infoBox.setText(Integer.toString(i * 100 + j));
+			panel.getChildren().add(infoBox);
+		}
+		return panel;
+	}
+
+	private static BufferedImage createIcon()
+	{
+		final BufferedImage icon = new BufferedImage(30, 30, BufferedImage.TYPE_INT_ARGB);
+		final Graphics2D iconGraphics = icon.createGraphics();
+		iconGraphics.setColor(new Color(200, 40, 40, 220));
+		iconGraphics.fillOval(2, 2, 26, 26);
+		iconGraphics.dispose();
+		return icon;
+	}
+
+	@TearDown
+	public void teardown()
+	{
+		graphics.dispose();
+	}
+
+	@Benchmark
+	public BufferedImage immediate()
+	{
+		for (int i = 0; i < overlays; ++i)
+		{
+			final Graphics2D subGraphics = (Graphics2D) graphics.create();
+			subGraphics.setFont(FontManager.getRunescapeFont());
+			subGraphics.translate(location(i), location(i));
+			panels[i].render(subGraphics);
+			subGraphics.dispose();
+		}
+		return canvas;
+	}
+
+	@Benchmark
+	public BufferedImage retained()
+	{
+		if (++frame % FRAMES_PER_TICK == 0)
+		{
+			for (int i = 0; i < overlays; ++i)
+			{
+				renderToImage(i);
+			}
+		}
+
+		for (int i = 0; i < overlays; ++i)
+		{
+			final int x = location(i);
+			final int y = location(i);
+			final Dimension dimension = dimensions[i];
+			graphics.drawImage(images[i],
+				x, y, x + dimension.width, y + dimension.height,
+				0, 0, dimension.width, dimension.height,
+				null);
+		}
+		return canvas;
+	}
+
+	private void renderToImage(int i)
+	{
+		final Graphics2D imageGraphics = images[i].createGraphics();
+		imageGraphics.setComposite(AlphaComposite.Clear);
+		imageGraphics.fillRect(0, 0, images[i].getWidth(), images[i].getHeight());
+		imageGraphics.setComposite(AlphaComposite.SrcOver);
+		imageGraphics.setRenderingHints(graphics.getRenderingHints());
+		imageGraphics.setFont(FontManager.getRunescapeFont());
+		dimensions[i] = panels[i].render(imageGraphics);
+		imageGraphics.dispose();
+	}
+
+	private static int location(int i)
+	{
+		return (i * 40) % 600;
+	}
+
+	public static void main(String[] args) throws RunnerException
+	{
+		new Runner(new OptionsBuilder()
+			.include(OverlayRetentionBenchmark.class.getSimpleName())
+			.build()).run();
+	}
+}